@@ -4,6 +4,7 @@ import com.banenor.dto.SensorMetricsDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
@@ -12,6 +13,7 @@ import reactor.util.retry.Retry;
 
 import java.time.Duration;
 
+@Lazy
 @Service
 public class DefaultAIPredictiveMaintenanceService implements AIPredictiveMaintenanceService {
 
@@ -6,6 +6,7 @@ import io.vertx.ext.mail.MailMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 import reactor.util.retry.Retry;
@@ -23,6 +24,7 @@ public class NotificationService {
             Pattern.CASE_INSENSITIVE
     );
 
+    @Lazy
     private final MailClient mailClient;
     private final MeterRegistry meterRegistry;
 
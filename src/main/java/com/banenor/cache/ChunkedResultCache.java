@@ -0,0 +1,293 @@
+package com.banenor.cache;
+
+import com.banenor.config.RawAxlesCacheProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caches large result sets in Redis as a list of LZ4-compressed CBOR chunks.
+ * Each stored set gets its own immutable list under a versioned key; the
+ * cache key itself only holds a pointer to the current version, its chunk
+ * count, and the expiry and compute time early refresh is decided on. A
+ * reader resolves the pointer once and reads that version to the end, even
+ * if a newer one is stored meanwhile. A hit streams the chunks back one at a
+ * time, so the first records are emitted before the rest is fetched or
+ * decoded. On a miss the source is passed through to the caller while chunks
+ * are encoded alongside, and stored only once the whole set is complete and
+ * within the size limit.
+ * Recomputation and early refresh are coordinated by {@link RecomputeCoordinator}.
+ */
+@Slf4j
+@Component
+public class ChunkedResultCache {
+
+    private final ReactiveRedisTemplate<String, byte[]> redis;
+    private final ObjectMapper cbor;
+    private final RawAxlesCacheProperties properties;
+    private final RecomputeCoordinator coordinator;
+    private final LZ4Compressor compressor = LZ4Factory.fastestInstance().fastCompressor();
+    private final LZ4FastDecompressor decompressor = LZ4Factory.fastestInstance().fastDecompressor();
+
+    private final DistributionSummary rawBytes;
+    private final DistributionSummary compressedBytes;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter skippedTooLarge;
+    private final Counter failures;
+
+    public ChunkedResultCache(ReactiveRedisTemplate<String, byte[]> byteArrayRedisTemplate,
+                              ObjectMapper objectMapper,
+                              RawAxlesCacheProperties properties,
+                              RecomputeCoordinator coordinator,
+                              MeterRegistry meterRegistry) {
+        this.redis = byteArrayRedisTemplate;
+        this.cbor = objectMapper.copyWith(new CBORFactory())
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        this.properties = properties;
+        this.coordinator = coordinator;
+        this.rawBytes = DistributionSummary.builder("cache.chunked.payload.bytes")
+                .description("Encoded size of a cached result set before compression")
+                .tag("stage", "encoded")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.compressedBytes = DistributionSummary.builder("cache.chunked.payload.bytes")
+                .description("Size of a cached result set as stored in Redis")
+                .tag("stage", "compressed")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.hits = meterRegistry.counter("cache.chunked.requests", "result", "hit");
+        this.misses = meterRegistry.counter("cache.chunked.requests", "result", "miss");
+        this.skippedTooLarge = meterRegistry.counter("cache.chunked.skipped", "reason", "too_large");
+        this.failures = meterRegistry.counter("cache.chunked.errors");
+    }
+
+    /**
+     * Streams the cached set for a key, or falls back to the source and caches
+     * what it emits. Only one caller recomputes a missing key; the others wait
+     * for its chunks and stream those, or read the source uncached if it takes
+     * too long or stores nothing.
+     */
+    public <T> Flux<T> getOrCache(String key, Class<T> type, Flux<T> source) {
+        if (!properties.isEnabled()) {
+            return source;
+        }
+        JavaType listType = cbor.getTypeFactory().constructCollectionType(List.class, type);
+        return current(key)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMapMany(stored -> {
+                    if (stored.isPresent()) {
+                        hits.increment();
+                        log.debug("CACHE HIT [{}] → {} chunks", key, stored.get().chunks);
+                        Version version = stored.get();
+                        coordinator.refreshIfDue(key, version.expiresAt, version.tookMillis,
+                                token -> writeThrough(key, source, token).then());
+                        return this.<T>readChunks(version, listType);
+                    }
+                    misses.increment();
+                    return coordinator.acquire(key)
+                            .map(Optional::of)
+                            .defaultIfEmpty(Optional.empty())
+                            .flatMapMany(lease -> lease.isPresent()
+                                    ? writeThrough(key, source, lease.get())
+                                    : coordinator.await(key, current(key))
+                                            .flatMapMany(v -> this.<T>readChunks(v, listType))
+                                            .switchIfEmpty(source));
+                });
+    }
+
+    /**
+     * One stored version of a result set: its chunk list, how many chunks it
+     * has, when it expires and how long it took to compute.
+     */
+    private static final class Version {
+        final String listKey;
+        final long chunks;
+        final long expiresAt;
+        final long tookMillis;
+
+        Version(String listKey, long chunks, long expiresAt, long tookMillis) {
+            this.listKey = listKey;
+            this.chunks = chunks;
+            this.expiresAt = expiresAt;
+            this.tookMillis = tookMillis;
+        }
+
+        /** Pointer layout: "version:chunkCount:expiresAtMillis:tookMillis". */
+        static Version parse(String key, byte[] pointer) {
+            String[] parts = new String(pointer, StandardCharsets.UTF_8).split(":");
+            if (parts.length != 4 || parts[0].isEmpty()) {
+                return null;
+            }
+            try {
+                long chunks = Long.parseLong(parts[1]);
+                return chunks > 0
+                        ? new Version(listKey(key, parts[0]), chunks, Long.parseLong(parts[2]), Long.parseLong(parts[3]))
+                        : null;
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        static byte[] pointer(String version, int chunks, long expiresAt, long tookMillis) {
+            return (version + ":" + chunks + ":" + expiresAt + ":" + tookMillis).getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String listKey(String key, String version) {
+        return key + ":v:" + version;
+    }
+
+    private Mono<Version> current(String key) {
+        return redis.opsForValue().get(key)
+                .flatMap(pointer -> Mono.justOrEmpty(Version.parse(key, pointer)))
+                .onErrorResume(e -> {
+                    log.warn("Chunked cache lookup failed for [{}]: {}", key, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Reads the chunks a few at a time with LRANGE; the next window is only
+     * fetched once the previous one has been emitted, so the read stays lazy.
+     */
+    private <T> Flux<T> readChunks(Version version, JavaType listType) {
+        int window = Math.max(1, properties.getReadWindowChunks());
+        int windows = (int) ((version.chunks + window - 1) / window);
+        return Flux.range(0, windows)
+                .concatMap(w -> {
+                    long from = (long) w * window;
+                    long to = Math.min(from + window, version.chunks) - 1;
+                    return redis.opsForList().range(version.listKey, from, to)
+                            .switchIfEmpty(Mono.error(new IllegalStateException(
+                                    "Chunks " + from + "-" + to + " of [" + version.listKey + "] expired mid-read")));
+                }, 1)
+                .concatMapIterable(bytes -> this.<T>decode(bytes, listType));
+    }
+
+    /**
+     * Passes the source through while encoding it, then stores the chunks and
+     * releases the recompute lock once they are in place (or right away if
+     * nothing is stored).
+     */
+    private <T> Flux<T> writeThrough(String key, Flux<T> source, String token) {
+        return Flux.defer(() -> {
+            List<byte[]> chunks = new ArrayList<>();
+            long[] sizes = new long[2];   // encoded, compressed
+            boolean[] abandoned = new boolean[1];
+            AtomicBoolean storing = new AtomicBoolean();
+            long start = System.nanoTime();
+            return source.buffer(properties.getChunkRecords())
+                    .concatMapIterable(batch -> {
+                        if (!abandoned[0]) {
+                            byte[] chunk = encode(batch, sizes);
+                            if (sizes[1] > properties.getMaxCompressedBytes()) {
+                                abandoned[0] = true;
+                                chunks.clear();
+                                skippedTooLarge.increment();
+                                log.debug("Not caching [{}]: over {} compressed bytes", key, properties.getMaxCompressedBytes());
+                            } else {
+                                chunks.add(chunk);
+                            }
+                        }
+                        return batch;
+                    })
+                    .doOnComplete(() -> {
+                        if (!abandoned[0] && !chunks.isEmpty()) {
+                            storing.set(true);
+                            rawBytes.record(sizes[0]);
+                            compressedBytes.record(sizes[1]);
+                            Duration took = Duration.ofNanos(System.nanoTime() - start);
+                            store(key, chunks, took)
+                                    .doFinally(sig -> coordinator.release(key, token))
+                                    .subscribe(null, e -> {
+                                        failures.increment();
+                                        log.warn("Could not cache [{}]: {}", key, e.getMessage());
+                                    });
+                        }
+                    })
+                    .doFinally(sig -> {
+                        if (!storing.get()) {
+                            coordinator.release(key, token);
+                        }
+                    });
+        });
+    }
+
+    /**
+     * Writes the chunks under a new version key, then points the cache key at
+     * it. The list outlives the pointer by the read grace, as does the version
+     * it replaces, so readers only ever see a complete list.
+     */
+    private Mono<Void> store(String key, List<byte[]> chunks, Duration took) {
+        String version = UUID.randomUUID().toString();
+        String listKey = listKey(key, version);
+        long expiresAt = System.currentTimeMillis() + properties.getTtl().toMillis();
+        byte[] pointer = Version.pointer(version, chunks.size(), expiresAt, took.toMillis());
+        return redis.opsForList().rightPushAll(listKey, chunks)
+                .then(redis.expire(listKey, properties.getTtl().plus(properties.getReadGrace())))
+                .then(current(key).map(Optional::of).defaultIfEmpty(Optional.empty()))
+                .flatMap(previous -> redis.opsForValue().set(key, pointer, properties.getTtl())
+                        .then(previous
+                                .map(old -> redis.expire(old.listKey, properties.getReadGrace()).then())
+                                .orElse(Mono.empty())))
+                .doOnSuccess(ok -> log.debug("Cached [{}] → {} chunks (TTL {}s)",
+                        key, chunks.size(), properties.getTtl().getSeconds()))
+                .onErrorResume(e -> redis.delete(listKey).then(Mono.error(e)))
+                .then();
+    }
+
+    /**
+     * Chunk layout: 4-byte encoded length, then the LZ4 block.
+     */
+    private byte[] encode(List<?> batch, long[] sizes) {
+        try {
+            byte[] encoded = cbor.writeValueAsBytes(batch);
+            byte[] compressed = new byte[4 + compressor.maxCompressedLength(encoded.length)];
+            ByteBuffer.wrap(compressed).putInt(encoded.length);
+            int length = compressor.compress(encoded, 0, encoded.length, compressed, 4, compressed.length - 4);
+            sizes[0] += encoded.length;
+            sizes[1] += 4 + length;
+            byte[] chunk = new byte[4 + length];
+            System.arraycopy(compressed, 0, chunk, 0, chunk.length);
+            return chunk;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <T> List<T> decode(byte[] chunk, JavaType listType) {
+        try {
+            int length = ByteBuffer.wrap(chunk).getInt();
+            byte[] encoded = new byte[length];
+            decompressor.decompress(chunk, 4, encoded, 0, length);
+            return cbor.readValue(encoded, listType);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.banenor.cache;
+
+import com.banenor.config.NearCacheProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Two-tier cache: a bounded, size-weighted local tier per cache in front of
+ * Redis. Writes go through to Redis. Each write or eviction is broadcast on a
+ * Redis channel so other nodes drop their local copy.
+ */
+@Slf4j
+@Component
+public class NearCache {
+
+    private static final String SEPARATOR = "\u0000";
+
+    private final ReactiveRedisTemplate<String, Object> redis;
+    private final RedisAccess redisAccess;
+    private final ReactiveRedisTemplate<String, String> pubSub;
+    private final ReactiveRedisConnectionFactory connectionFactory;
+    private final ObjectMapper objectMapper;
+    private final NearCacheProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Map<String, Cache<String, Object>> locals = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Integer> sizeByClass = new ConcurrentHashMap<>();
+    private ReactiveRedisMessageListenerContainer container;
+    private Disposable invalidations;
+
+    public NearCache(ReactiveRedisTemplate<String, Object> reactiveRedisTemplate,
+                     ReactiveRedisTemplate<String, String> reactiveStringRedisTemplate,
+                     ReactiveRedisConnectionFactory connectionFactory,
+                     ObjectMapper objectMapper,
+                     NearCacheProperties properties,
+                     MeterRegistry meterRegistry,
+                     RedisAccess redisAccess) {
+        this.redis = reactiveRedisTemplate;
+        this.redisAccess = redisAccess;
+        this.pubSub = reactiveStringRedisTemplate;
+        this.connectionFactory = connectionFactory;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            log.info("Near cache disabled; all cache reads go to Redis");
+            return;
+        }
+        container = new ReactiveRedisMessageListenerContainer(connectionFactory);
+        invalidations = container.receive(ChannelTopic.of(properties.getInvalidationChannel()))
+                .subscribe(m -> onInvalidation(m.getMessage()),
+                        err -> log.error("Cache invalidation subscription failed: {}", err.getMessage(), err));
+        log.info("Near cache enabled: {} bytes per cache locally, invalidations on '{}'",
+                properties.getLocalMaxBytes(), properties.getInvalidationChannel());
+    }
+
+    /**
+     * Reads a value, trying the local tier first and filling it from Redis on a miss.
+     */
+    public <T> Mono<T> get(String cacheName, String key, Class<T> type) {
+        Cache<String, Object> local = local(cacheName);
+        if (local != null) {
+            Object cached = local.getIfPresent(key);
+            if (type.isInstance(cached)) {
+                return Mono.just(type.cast(cached));
+            }
+        }
+        return redisAccess.get(redisKey(cacheName, key))
+                .filter(type::isInstance)
+                .map(type::cast)
+                .doOnNext(value -> {
+                    countRedis(cacheName, "hit");
+                    if (local != null) {
+                        local.put(key, value);
+                    }
+                })
+                .switchIfEmpty(Mono.fromRunnable(() -> countRedis(cacheName, "miss")));
+    }
+
+    /**
+     * Writes a value to Redis and, once stored, to the local tier; other nodes are told to drop theirs.
+     */
+    public Mono<Boolean> put(String cacheName, String key, Object value) {
+        return redisAccess.timed("set", redis.opsForValue().set(redisKey(cacheName, key), value, properties.ttlFor(cacheName)))
+                .doOnNext(ok -> {
+                    Cache<String, Object> local = local(cacheName);
+                    if (local != null) {
+                        if (Boolean.TRUE.equals(ok)) {
+                            local.put(key, value);
+                        } else {
+                            local.invalidate(key);
+                        }
+                    }
+                })
+                .flatMap(ok -> broadcast(cacheName, key).thenReturn(ok));
+    }
+
+    /**
+     * Removes a value from both tiers on every node.
+     */
+    public Mono<Void> evict(String cacheName, String key) {
+        Cache<String, Object> local = local(cacheName);
+        if (local != null) {
+            local.invalidate(key);
+        }
+        return redis.delete(redisKey(cacheName, key))
+                .doOnNext(deleted -> {
+                    if (deleted > 0) {
+                        countRedisEviction(cacheName);
+                    }
+                })
+                .then(broadcast(cacheName, key));
+    }
+
+    Mono<Void> broadcast(String cacheName, String key) {
+        return send(nodeId + SEPARATOR + cacheName + SEPARATOR + key, cacheName + ":" + key);
+    }
+
+    /**
+     * Tells other nodes to drop their whole local tier of a cache.
+     */
+    Mono<Void> broadcastClear(String cacheName) {
+        return send(nodeId + SEPARATOR + cacheName, cacheName);
+    }
+
+    private Mono<Void> send(String message, String what) {
+        if (!properties.isEnabled()) {
+            return Mono.empty();
+        }
+        return pubSub.convertAndSend(properties.getInvalidationChannel(), message)
+                .onErrorResume(err -> {
+                    log.warn("Could not broadcast invalidation of {}: {}", what, err.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private void onInvalidation(String message) {
+        String[] parts = message.split(SEPARATOR, 3);
+        if (parts.length < 2 || nodeId.equals(parts[0])) {
+            return;
+        }
+        Cache<String, Object> local = locals.get(parts[1]);
+        if (local != null) {
+            if (parts.length == 3) {
+                local.invalidate(parts[2]);
+            } else {
+                local.invalidateAll();
+            }
+            meterRegistry.counter("cache.near.invalidations", "cache", parts[1]).increment();
+        }
+    }
+
+    Cache<String, Object> local(String cacheName) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        return locals.computeIfAbsent(cacheName, name -> {
+            Duration ttl = properties.ttlFor(name).compareTo(properties.getLocalTtl()) < 0
+                    ? properties.ttlFor(name)
+                    : properties.getLocalTtl();
+            Cache<String, Object> cache = Caffeine.newBuilder()
+                    .maximumWeight(properties.getLocalMaxBytes())
+                    .weigher(this::weigh)
+                    .expireAfterWrite(ttl)
+                    .recordStats()
+                    .build();
+            // local tier: cache.gets{result}, cache.evictions, cache.size with tier=local
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, name, "tier", "local");
+            return cache;
+        });
+    }
+
+    private int weigh(String key, Object value) {
+        long weight = 2L * key.length() + estimateSize(value);
+        return (int) Math.min(weight, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Rough size of a value in bytes, without serializing it on every put:
+     * strings and arrays by length, collections and maps by their elements,
+     * anything else by the JSON size of the first instance seen of its class.
+     */
+    private long estimateSize(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof CharSequence text) {
+            return 2L * text.length();
+        }
+        if (value instanceof byte[] bytes) {
+            return bytes.length;
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Enum<?>) {
+            return 16;
+        }
+        if (value instanceof Collection<?> collection) {
+            long size = 16;
+            for (Object element : collection) {
+                size += estimateSize(element);
+            }
+            return size;
+        }
+        if (value instanceof Map<?, ?> map) {
+            long size = 16;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                size += estimateSize(entry.getKey()) + estimateSize(entry.getValue());
+            }
+            return size;
+        }
+        return sizeByClass.computeIfAbsent(value.getClass(), type -> {
+            try {
+                return objectMapper.writeValueAsBytes(value).length;
+            } catch (JsonProcessingException e) {
+                return 1024;
+            }
+        });
+    }
+
+    void countRedis(String cacheName, String result) {
+        counters.computeIfAbsent(cacheName + SEPARATOR + result, k -> Counter.builder("cache.gets")
+                        .tag("cache", cacheName)
+                        .tag("tier", "redis")
+                        .tag("result", result)
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    void countRedisEviction(String cacheName) {
+        counters.computeIfAbsent(cacheName + SEPARATOR + "evicted", k -> Counter.builder("cache.evictions")
+                        .tag("cache", cacheName)
+                        .tag("tier", "redis")
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    private static String redisKey(String cacheName, String key) {
+        return cacheName + ":" + key;
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (invalidations != null) {
+            invalidations.dispose();
+        }
+        if (container != null) {
+            container.destroy();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.banenor.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.lang.NonNull;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Puts the local tier of {@link NearCache} in front of every cache of a
+ * Redis-backed {@link CacheManager}, so @Cacheable reads are served locally
+ * and writes and evictions are broadcast to the other nodes just like
+ * {@link NearCache} writes. Local entries are shared with NearCache by cache
+ * name and key.
+ */
+public class NearCacheManager implements CacheManager {
+
+    private final CacheManager redisManager;
+    private final NearCache nearCache;
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public NearCacheManager(CacheManager redisManager, NearCache nearCache) {
+        this.redisManager = redisManager;
+        this.nearCache = nearCache;
+    }
+
+    @Override
+    public Cache getCache(@NonNull String name) {
+        Cache cached = caches.get(name);
+        if (cached != null) {
+            return cached;
+        }
+        Cache redisCache = redisManager.getCache(name);
+        return redisCache == null ? null : caches.computeIfAbsent(name, n -> new TwoTierCache(redisCache, nearCache));
+    }
+
+    @Override
+    @NonNull
+    public Collection<String> getCacheNames() {
+        return redisManager.getCacheNames();
+    }
+
+    /**
+     * One Redis cache behind its local tier. Keys are compared in their string
+     * form, as the Redis cache stores them.
+     */
+    static final class TwoTierCache implements Cache {
+
+        private final Cache redis;
+        private final NearCache nearCache;
+        private final String name;
+
+        TwoTierCache(Cache redis, NearCache nearCache) {
+            this.redis = redis;
+            this.nearCache = nearCache;
+            this.name = redis.getName();
+        }
+
+        @Override
+        @NonNull
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        @NonNull
+        public Object getNativeCache() {
+            return redis.getNativeCache();
+        }
+
+        @Override
+        public ValueWrapper get(@NonNull Object key) {
+            com.github.benmanes.caffeine.cache.Cache<String, Object> local = nearCache.local(name);
+            if (local != null) {
+                Object value = local.getIfPresent(key.toString());
+                if (value != null) {
+                    return () -> value;
+                }
+            }
+            ValueWrapper wrapper = redis.get(key);
+            nearCache.countRedis(name, wrapper != null ? "hit" : "miss");
+            if (wrapper != null && wrapper.get() != null && local != null) {
+                local.put(key.toString(), wrapper.get());
+            }
+            return wrapper;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T get(@NonNull Object key, Class<T> type) {
+            ValueWrapper wrapper = get(key);
+            Object value = wrapper != null ? wrapper.get() : null;
+            if (value != null && type != null && !type.isInstance(value)) {
+                throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+            }
+            return (T) value;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T get(@NonNull Object key, @NonNull Callable<T> valueLoader) {
+            ValueWrapper wrapper = get(key);
+            if (wrapper != null) {
+                return (T) wrapper.get();
+            }
+            T value = redis.get(key, valueLoader);
+            putLocal(key, value);
+            nearCache.broadcast(name, key.toString()).subscribe();
+            return value;
+        }
+
+        @Override
+        public void put(@NonNull Object key, Object value) {
+            redis.put(key, value);
+            putLocal(key, value);
+            nearCache.broadcast(name, key.toString()).subscribe();
+        }
+
+        @Override
+        public ValueWrapper putIfAbsent(@NonNull Object key, Object value) {
+            ValueWrapper existing = redis.putIfAbsent(key, value);
+            putLocal(key, existing != null ? existing.get() : value);
+            if (existing == null) {
+                nearCache.broadcast(name, key.toString()).subscribe();
+            }
+            return existing;
+        }
+
+        @Override
+        public void evict(@NonNull Object key) {
+            invalidateLocal(key);
+            redis.evict(key);
+            nearCache.countRedisEviction(name);
+            nearCache.broadcast(name, key.toString()).subscribe();
+        }
+
+        @Override
+        public boolean evictIfPresent(@NonNull Object key) {
+            invalidateLocal(key);
+            boolean evicted = redis.evictIfPresent(key);
+            if (evicted) {
+                nearCache.countRedisEviction(name);
+            }
+            nearCache.broadcast(name, key.toString()).subscribe();
+            return evicted;
+        }
+
+        @Override
+        public void clear() {
+            com.github.benmanes.caffeine.cache.Cache<String, Object> local = nearCache.local(name);
+            if (local != null) {
+                local.invalidateAll();
+            }
+            redis.clear();
+            nearCache.countRedisEviction(name);
+            nearCache.broadcastClear(name).subscribe();
+        }
+
+        private void putLocal(Object key, Object value) {
+            com.github.benmanes.caffeine.cache.Cache<String, Object> local = nearCache.local(name);
+            if (local == null) {
+                return;
+            }
+            if (value != null) {
+                local.put(key.toString(), value);
+            } else {
+                local.invalidate(key.toString());
+            }
+        }
+
+        private void invalidateLocal(Object key) {
+            com.github.benmanes.caffeine.cache.Cache<String, Object> local = nearCache.local(name);
+            if (local != null) {
+                local.invalidate(key.toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.banenor.cache;
+
+import com.banenor.config.StampedeProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Keeps expensive cache entries from being recomputed by many callers at once.
+ * <ul>
+ *   <li>Callers missing the same key on one node share a single computation.</li>
+ *   <li>Across nodes a short Redis lock picks one node to compute; the others
+ *       poll the cache until its value appears, the lock is released without
+ *       one (nothing was stored) or they give up waiting.</li>
+ *   <li>Each computed entry records its expiry and how long it took. Hits close
+ *       to expiry refresh it in the background with a probability that grows as
+ *       expiry nears (XFetch), so hot keys rarely expire at all. Nodes keep that
+ *       record locally, so the check on a hit needs no Redis round trip; Redis
+ *       is only asked when a key has no local record yet or looks due.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class RecomputeCoordinator {
+
+    private static final String LOCK_PREFIX = "lock:";
+    private static final String META_PREFIX = "refresh:";
+    private static final long[] NO_META = new long[0];
+    private static final RedisScript<Long> UNLOCK = RedisScript.of(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final ReactiveRedisTemplate<String, String> redis;
+    private final StampedeProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Mono<?>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, String> localLocks = new ConcurrentHashMap<>();
+    private final Map<String, Counter> outcomes = new ConcurrentHashMap<>();
+    /** Per key: {expiresAtMillis, tookMillis}, or {@link #NO_META} while Redis has none. */
+    private final Cache<String, long[]> refreshMeta;
+    private final Counter earlyRefreshes;
+
+    public RecomputeCoordinator(ReactiveRedisTemplate<String, String> reactiveStringRedisTemplate,
+                                StampedeProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.redis = reactiveStringRedisTemplate;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.earlyRefreshes = meterRegistry.counter("cache.refresh.early");
+        long missNanos = properties.getLockTtl().toNanos();
+        this.refreshMeta = Caffeine.newBuilder()
+                .maximumSize(properties.getRefreshMetaCacheSize())
+                .expireAfter(new Expiry<String, long[]>() {
+                    @Override
+                    public long expireAfterCreate(String key, long[] meta, long currentTime) {
+                        // a key without a record is asked about again after a while
+                        return meta == NO_META
+                                ? missNanos
+                                : TimeUnit.MILLISECONDS.toNanos(Math.max(0, meta[0] - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, long[] meta, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, meta, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, long[] meta, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        meterRegistry.gauge("cache.recompute.inflight", inFlight, Map::size);
+    }
+
+    /**
+     * Reads a cached value, recomputing it under stampede protection on a miss
+     * and refreshing it early in the background on a hit.
+     *
+     * @param read    reads the cached value, empty on a miss
+     * @param write   stores a computed value with the given TTL
+     * @param compute the expensive computation
+     */
+    public <T> Mono<T> getOrCompute(String key,
+                                    Duration ttl,
+                                    Mono<T> read,
+                                    Function<T, Mono<?>> write,
+                                    Mono<T> compute) {
+        Mono<T> computeAndStore = computeAndStore(key, ttl, write, compute);
+        return read
+                .doOnNext(hit -> refreshIfDue(key, token ->
+                        computeAndStore.doFinally(sig -> release(key, token))))
+                .switchIfEmpty(singleFlight(key, () -> acquire(key)
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty())
+                        .flatMap(lease -> lease.isPresent()
+                                // another node may have stored it while we were missing
+                                ? read.switchIfEmpty(computeAndStore)
+                                        .doFinally(sig -> release(key, lease.get()))
+                                : awaitOrCompute(key, read, computeAndStore))));
+    }
+
+    /**
+     * Runs the work once per key on this node; callers arriving while it is in
+     * flight share its result.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> singleFlight(String key, Supplier<Mono<T>> work) {
+        return Mono.defer(() -> {
+            boolean[] leader = new boolean[1];
+            Mono<T> shared = (Mono<T>) inFlight.computeIfAbsent(key, k -> {
+                leader[0] = true;
+                return work.get()
+                        .doFinally(sig -> inFlight.remove(k))
+                        .cache();
+            });
+            count(leader[0] ? "leader" : "coalesced");
+            return shared;
+        });
+    }
+
+    /**
+     * Takes the recompute lock for a key.
+     *
+     * @return a token to hand back to {@link #release}, or empty if someone else holds it
+     */
+    public Mono<String> acquire(String key) {
+        String token = UUID.randomUUID().toString();
+        if (!properties.isDistributed()) {
+            return localLocks.putIfAbsent(key, token) == null ? Mono.just(token) : Mono.empty();
+        }
+        return redis.opsForValue().setIfAbsent(LOCK_PREFIX + key, token, properties.getLockTtl())
+                .onErrorResume(e -> {
+                    // without Redis there is nothing to coordinate with; compute uncoordinated
+                    log.warn("Recompute lock for [{}] unavailable: {}", key, e.getMessage());
+                    return Mono.just(true);
+                })
+                .filter(Boolean::booleanValue)
+                .map(ok -> token);
+    }
+
+    /**
+     * Releases a lock taken by {@link #acquire}, unless it has since expired and been taken by someone else.
+     */
+    public void release(String key, String token) {
+        if (!properties.isDistributed()) {
+            localLocks.remove(key, token);
+            return;
+        }
+        redis.execute(UNLOCK, List.of(LOCK_PREFIX + key), List.of(token))
+                .subscribe(null, e -> log.debug("Could not release recompute lock [{}]: {}", key, e.getMessage()));
+    }
+
+    /**
+     * Polls the read until it yields a value or the configured wait elapses.
+     * Completes empty as soon as the lock is released with nothing to read,
+     * e.g. when the computing caller stored no value.
+     */
+    public <T> Mono<T> await(String key, Mono<T> read) {
+        // the read is repeated after seeing the lock released: the holder may have stored just before releasing
+        Mono<Optional<T>> attempt = read.map(Optional::of)
+                .switchIfEmpty(Mono.defer(() -> isLocked(key)
+                        .flatMap(locked -> locked
+                                ? Mono.<Optional<T>>empty()
+                                : read.map(Optional::of).switchIfEmpty(Mono.fromSupplier(() -> {
+                                    count("released");
+                                    return Optional.empty();
+                                })))));
+        return attempt
+                .repeatWhenEmpty(attempts -> attempts.delayElements(properties.getPollInterval()))
+                .timeout(properties.getLockWait(), Mono.defer(() -> {
+                    count("timeout");
+                    return Mono.just(Optional.<T>empty());
+                }))
+                .flatMap(value -> {
+                    if (value.isEmpty()) {
+                        return Mono.empty();
+                    }
+                    count("waited");
+                    return Mono.just(value.get());
+                });
+    }
+
+    private Mono<Boolean> isLocked(String key) {
+        if (!properties.isDistributed()) {
+            return Mono.just(localLocks.containsKey(key));
+        }
+        return redis.hasKey(LOCK_PREFIX + key)
+                .onErrorResume(e -> Mono.just(false));
+    }
+
+    /**
+     * Records that a key was just computed, for early-refresh decisions.
+     */
+    public Mono<Void> recordComputed(String key, Duration ttl, Duration took) {
+        if (properties.getEarlyRefreshBeta() <= 0) {
+            return Mono.empty();
+        }
+        long expiresAt = System.currentTimeMillis() + ttl.toMillis();
+        refreshMeta.put(key, new long[]{expiresAt, took.toMillis()});
+        return redis.opsForValue().set(META_PREFIX + key, expiresAt + ":" + took.toMillis(), ttl)
+                .onErrorResume(e -> Mono.just(false))
+                .then();
+    }
+
+    /**
+     * Starts a background refresh of a cached key if it is due, i.e. if
+     * now + took * beta * -ln(rand) has reached its expiry, and no one else is
+     * refreshing it. The refresh receives the lock token and must release it.
+     * The expiry is taken from this node's record of the key; Redis is only
+     * read when there is none yet, or to confirm a due key has not been
+     * refreshed by another node meanwhile.
+     */
+    public void refreshIfDue(String key, Function<String, Mono<?>> refresh) {
+        if (properties.getEarlyRefreshBeta() <= 0) {
+            return;
+        }
+        long[] known = refreshMeta.getIfPresent(key);
+        if (known == NO_META || (known != null && !isDue(known[0], known[1]))) {
+            return;
+        }
+        redis.opsForValue().get(META_PREFIX + key)
+                .map(RecomputeCoordinator::parseMeta)
+                .defaultIfEmpty(NO_META)
+                .doOnNext(meta -> refreshMeta.put(key, meta))
+                .filter(meta -> meta != NO_META && isDue(meta[0], meta[1]))
+                .subscribe(meta -> startRefresh(key, refresh),
+                        e -> log.warn("Early refresh of [{}] failed: {}", key, e.getMessage()));
+    }
+
+    /**
+     * Like {@link #refreshIfDue(String, Function)}, for callers that keep the
+     * expiry and compute time alongside the cached value themselves.
+     */
+    public void refreshIfDue(String key, long expiresAtMillis, long tookMillis, Function<String, Mono<?>> refresh) {
+        if (properties.getEarlyRefreshBeta() > 0 && isDue(expiresAtMillis, tookMillis)) {
+            startRefresh(key, refresh);
+        }
+    }
+
+    private void startRefresh(String key, Function<String, Mono<?>> refresh) {
+        acquire(key)
+                .flatMap(token -> {
+                    earlyRefreshes.increment();
+                    log.debug("Refreshing [{}] ahead of expiry", key);
+                    return refresh.apply(token).then();
+                })
+                .subscribe(null, e -> log.warn("Early refresh of [{}] failed: {}", key, e.getMessage()));
+    }
+
+    private boolean isDue(long expiresAt, long took) {
+        double gap = took * properties.getEarlyRefreshBeta()
+                * -Math.log(ThreadLocalRandom.current().nextDouble());
+        return System.currentTimeMillis() + gap >= expiresAt;
+    }
+
+    private static long[] parseMeta(String meta) {
+        String[] parts = meta.split(":", 2);
+        if (parts.length != 2) {
+            return NO_META;
+        }
+        try {
+            return new long[]{Long.parseLong(parts[0]), Long.parseLong(parts[1])};
+        } catch (NumberFormatException e) {
+            return NO_META;
+        }
+    }
+
+    private <T> Mono<T> awaitOrCompute(String key, Mono<T> read, Mono<T> computeAndStore) {
+        return await(key, read)
+                .switchIfEmpty(computeAndStore);
+    }
+
+    private <T> Mono<T> computeAndStore(String key, Duration ttl, Function<T, Mono<?>> write, Mono<T> compute) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return compute.flatMap(value -> write.apply(value)
+                    .then(recordComputed(key, ttl, Duration.ofNanos(System.nanoTime() - start)))
+                    .thenReturn(value));
+        });
+    }
+
+    private void count(String outcome) {
+        outcomes.computeIfAbsent(outcome, o -> Counter.builder("cache.recompute")
+                        .description("Cache misses by how their value was obtained")
+                        .tag("outcome", o)
+                        .register(meterRegistry))
+                .increment();
+    }
+}
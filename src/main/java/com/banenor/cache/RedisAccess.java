@@ -0,0 +1,202 @@
+package com.banenor.cache;
+
+import com.banenor.config.RedisClientProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Batched access to Redis values on the shared connection.
+ * <ul>
+ *   <li>{@link #get} coalesces the single-key reads issued by concurrent
+ *       requests (blacklist checks, cache lookups) into one MGET per batch.</li>
+ *   <li>{@link #mget} reads many keys in MGETs of at most
+ *       {@code redis.client.max-batch-size} keys.</li>
+ *   <li>{@link #pipeline} issues one command per key without waiting for each
+ *       reply, so they go out back to back on the multiplexed connection.</li>
+ * </ul>
+ * Every command is timed (redis.commands{command}) and counted while in
+ * flight (redis.commands.inflight{command}).
+ */
+@Slf4j
+@Component
+public class RedisAccess {
+
+    private final ReactiveRedisTemplate<String, Object> redis;
+    private final RedisClientProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    private final Object lock = new Object();
+    private Map<String, List<Sinks.One<Object>>> pending = new LinkedHashMap<>();
+    private Disposable scheduledFlush;
+
+    public RedisAccess(ReactiveRedisTemplate<String, Object> reactiveRedisTemplate,
+                       RedisClientProperties properties,
+                       MeterRegistry meterRegistry) {
+        this.redis = reactiveRedisTemplate;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Reads one key, batched with the other reads pending at the same moment.
+     */
+    public Mono<Object> get(String key) {
+        return Mono.defer(() -> {
+            Sinks.One<Object> sink = Sinks.one();
+            Map<String, List<Sinks.One<Object>>> full = null;
+            synchronized (lock) {
+                pending.computeIfAbsent(key, k -> new ArrayList<>()).add(sink);
+                if (pending.size() >= properties.getMaxBatchSize()) {
+                    full = takePending();
+                } else if (scheduledFlush == null) {
+                    // flush on the next tick: reads issued by the requests in flight right now share it
+                    scheduledFlush = Schedulers.parallel().schedule(this::flushPending);
+                }
+            }
+            if (full != null) {
+                dispatch(full);
+            }
+            return sink.asMono();
+        });
+    }
+
+    /**
+     * Reads many keys; absent keys are left out of the result.
+     */
+    public Mono<Map<String, Object>> mget(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        List<String> all = List.copyOf(keys);
+        int size = properties.getMaxBatchSize();
+        List<List<String>> chunks = new ArrayList<>();
+        for (int i = 0; i < all.size(); i += size) {
+            chunks.add(all.subList(i, Math.min(all.size(), i + size)));
+        }
+        return Flux.fromIterable(chunks)
+                .flatMap(chunk -> timed("mget", redis.opsForValue().multiGet(chunk))
+                        .map(values -> {
+                            Map<String, Object> found = new HashMap<>();
+                            for (int i = 0; i < chunk.size(); i++) {
+                                if (values.get(i) != null) {
+                                    found.put(chunk.get(i), values.get(i));
+                                }
+                            }
+                            return found;
+                        }))
+                .reduceWith(HashMap::new, (acc, part) -> {
+                    acc.putAll(part);
+                    return acc;
+                });
+    }
+
+    /**
+     * Runs one command per key without awaiting each reply before sending the
+     * next; results come back in key order.
+     *
+     * @param command name used for the metrics tags
+     */
+    public <K, T> Flux<T> pipeline(String command, Collection<K> keys, Function<K, Mono<T>> operation) {
+        return Flux.fromIterable(keys)
+                .flatMapSequential(k -> timed(command, operation.apply(k)), properties.getMaxBatchSize());
+    }
+
+    /**
+     * Times a command and tracks it as in flight until it terminates.
+     */
+    public <T> Mono<T> timed(String command, Mono<T> operation) {
+        Timer timer = timers.computeIfAbsent(command, c -> Timer.builder("redis.commands")
+                .description("Latency of Redis commands issued through RedisAccess")
+                .tag("command", c)
+                .register(meterRegistry));
+        AtomicInteger active = inFlight.computeIfAbsent(command, c ->
+                meterRegistry.gauge("redis.commands.inflight",
+                        List.of(Tag.of("command", c)),
+                        new AtomicInteger()));
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start();
+            active.incrementAndGet();
+            return operation.doFinally(sig -> {
+                active.decrementAndGet();
+                sample.stop(timer);
+            });
+        });
+    }
+
+    private void flushPending() {
+        Map<String, List<Sinks.One<Object>>> batch;
+        synchronized (lock) {
+            batch = takePending();
+        }
+        if (!batch.isEmpty()) {
+            dispatch(batch);
+        }
+    }
+
+    // callers hold the lock
+    private Map<String, List<Sinks.One<Object>>> takePending() {
+        Map<String, List<Sinks.One<Object>>> batch = pending;
+        pending = new LinkedHashMap<>();
+        if (scheduledFlush != null) {
+            scheduledFlush.dispose();
+            scheduledFlush = null;
+        }
+        return batch;
+    }
+
+    private void dispatch(Map<String, List<Sinks.One<Object>>> batch) {
+        List<String> keys = List.copyOf(batch.keySet());
+        Mono<List<Object>> read = keys.size() == 1
+                ? timed("get", redis.opsForValue().get(keys.get(0)))
+                        .map(v -> {
+                            List<Object> single = new ArrayList<>(1);
+                            single.add(v);
+                            return single;
+                        })
+                        .defaultIfEmpty(singleNull())
+                : timed("mget", redis.opsForValue().multiGet(keys));
+        read.subscribe(values -> {
+            for (int i = 0; i < keys.size(); i++) {
+                Object value = i < values.size() ? values.get(i) : null;
+                for (Sinks.One<Object> sink : batch.get(keys.get(i))) {
+                    if (value != null) {
+                        sink.tryEmitValue(value);
+                    } else {
+                        sink.tryEmitEmpty();
+                    }
+                }
+            }
+        }, err -> {
+            log.warn("Batched Redis read of {} keys failed: {}", keys.size(), err.getMessage());
+            batch.values().forEach(sinks -> sinks.forEach(s -> s.tryEmitError(err)));
+        });
+    }
+
+    private static List<Object> singleNull() {
+        List<Object> single = new ArrayList<>(1);
+        single.add(null);
+        return single;
+    }
+}
@@ -0,0 +1,144 @@
+package com.banenor.cache;
+
+import com.banenor.events.TrainDataIngestedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Per-train data versions, bumped whenever new rows for a train are persisted.
+ * Cache keys embed the version of the data they were computed from, so a
+ * cached result stays valid until its train receives new data. This allows
+ * long TTLs without serving stale results.
+ * <p>
+ * Versions live in Redis (INCR) and are mirrored locally; bumps are
+ * broadcast so other nodes update their mirror without a round-trip.
+ * Mirrored versions expire after cache.data-version.local-ttl and are then
+ * re-read from Redis, so a missed broadcast (e.g. while the subscription
+ * reconnects) leaves a node stale for at most that long.
+ * A "global" version is bumped on every ingest, for fleet-wide results.
+ */
+@Slf4j
+@Component
+public class TrainDataVersions {
+
+    public static final String GLOBAL = "global";
+    private static final String KEY_PREFIX = "dataVersion:";
+
+    private final ReactiveRedisTemplate<String, String> redis;
+    private final ReactiveRedisConnectionFactory connectionFactory;
+    private final String channel;
+    private final Cache<String, Long> local;
+    private final Counter bumps;
+    private ReactiveRedisMessageListenerContainer container;
+    private Disposable subscription;
+
+    public TrainDataVersions(ReactiveRedisTemplate<String, String> reactiveStringRedisTemplate,
+                             ReactiveRedisConnectionFactory connectionFactory,
+                             @Value("${cache.data-version.channel:data-version}") String channel,
+                             @Value("${cache.data-version.local-ttl:5s}") Duration localTtl,
+                             MeterRegistry meterRegistry) {
+        this.redis = reactiveStringRedisTemplate;
+        this.local = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(localTtl)
+                .build();
+        this.connectionFactory = connectionFactory;
+        this.channel = channel;
+        this.bumps = meterRegistry.counter("cache.data.version.bumps");
+    }
+
+    @PostConstruct
+    public void start() {
+        container = new ReactiveRedisMessageListenerContainer(connectionFactory);
+        subscription = container.receive(ChannelTopic.of(channel))
+                .subscribe(m -> onBump(m.getMessage()),
+                        err -> log.error("Data version subscription failed: {}", err.getMessage(), err));
+    }
+
+    /**
+     * Current data version of a train; null selects the global version.
+     */
+    public Mono<Long> current(Integer trainNo) {
+        String id = id(trainNo);
+        Long cached = local.getIfPresent(id);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return redis.opsForValue().get(KEY_PREFIX + id)
+                .map(Long::parseLong)
+                .defaultIfEmpty(0L)
+                .doOnNext(v -> raise(id, v));
+    }
+
+    /**
+     * Marks the data of a train (and the global version) as changed.
+     */
+    public Mono<Void> bump(Integer trainNo) {
+        return Mono.when(increment(id(trainNo)), increment(GLOBAL))
+                .doOnSuccess(v -> bumps.increment());
+    }
+
+    @EventListener
+    public void onTrainDataIngested(TrainDataIngestedEvent event) {
+        if (event.getTrainNo() == null) {
+            return;
+        }
+        bump(event.getTrainNo())
+                .subscribe(null, err -> log.warn("Could not bump data version of train {}: {}",
+                        event.getTrainNo(), err.getMessage()));
+    }
+
+    private Mono<Void> increment(String id) {
+        return redis.opsForValue().increment(KEY_PREFIX + id)
+                .doOnNext(v -> raise(id, v))
+                .flatMap(v -> redis.convertAndSend(channel, id + ":" + v))
+                .then();
+    }
+
+    private void onBump(String message) {
+        int sep = message.lastIndexOf(':');
+        if (sep <= 0) {
+            return;
+        }
+        try {
+            raise(message.substring(0, sep), Long.parseLong(message.substring(sep + 1)));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed data version message '{}'", message);
+        }
+    }
+
+    // versions only move forward, whatever order bumps and reads arrive in
+    private void raise(String id, long version) {
+        local.asMap().merge(id, version, Math::max);
+    }
+
+    private static String id(Integer trainNo) {
+        return trainNo == null ? GLOBAL : "train:" + trainNo;
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+        if (container != null) {
+            container.destroy();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.banenor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Concurrency-based admission control for HTTP endpoints, bound from the
+ * "admission" prefix. HTTP requests as a whole may hold at most
+ * {@code db-pool-size - ingest-reserved} concurrent slots and as many R2DBC
+ * connections, leaving the rest of the pool to Kafka ingest; each endpoint
+ * class adapts its own limit within that budget. Streaming responses (SSE,
+ * NDJSON) are never admitted against it, only their connections are counted.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "admission")
+public class AdmissionProperties {
+
+    @Data
+    public static class EndpointClass {
+        /** Path patterns belonging to the class. */
+        private List<String> paths = new ArrayList<>();
+        /** Largest share (0..1) of the HTTP budget the class may occupy. */
+        private double maxShare = 1.0;
+        private int initialLimit = 4;
+        private int minLimit = 1;
+        private int maxLimit = 32;
+    }
+
+    private boolean enabled = true;
+
+    /**
+     * Connections in the R2DBC pool the HTTP budget is carved from.
+     */
+    private int dbPoolSize = 20;
+
+    /**
+     * Connections HTTP traffic never competes for, kept for Kafka ingest.
+     */
+    private int ingestReserved = 6;
+
+    /**
+     * How long an HTTP query waits for a connection within the budget before
+     * its request fails with 503.
+     */
+    private Duration connectionWait = Duration.ofSeconds(2);
+
+    /**
+     * Retry-After sent with a 503.
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    /**
+     * Latency samples between resets of the no-load latency baseline, so the
+     * limits recover after the baseline itself shifts.
+     */
+    private int baselineResetSamples = 1000;
+
+    /**
+     * Endpoint classes, checked in declaration order; the first match wins.
+     */
+    private Map<String, EndpointClass> classes = new LinkedHashMap<>();
+
+    /**
+     * Paths never subject to admission control: auth and the health summary,
+     * which is served from memory. Streaming endpoints need no entry here;
+     * they are recognised by the media types they produce.
+     */
+    private List<String> bypassPaths = new ArrayList<>(List.of(
+            "/api/v1/auth/**",
+            "/api/v1/system/health"));
+
+    /**
+     * Slots and connections HTTP traffic may hold at once.
+     */
+    public int httpBudget() {
+        return Math.max(1, dbPoolSize - ingestReserved);
+    }
+}
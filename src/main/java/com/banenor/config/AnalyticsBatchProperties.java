@@ -0,0 +1,26 @@
+package com.banenor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Batching of concurrent per-train analytics lookups, bound from the "analytics.batch" prefix.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "analytics.batch")
+public class AnalyticsBatchProperties {
+
+    /**
+     * How long the first lookup of a batch waits for others to join it.
+     */
+    private Duration window = Duration.ofMillis(5);
+
+    /**
+     * Distinct trains per query; a full batch is sent without waiting for the window.
+     */
+    private int maxBatchSize = 100;
+}
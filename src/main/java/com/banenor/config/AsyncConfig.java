@@ -1,10 +1,11 @@
 package com.banenor.config;
 
+import com.banenor.scheduler.Workload;
+import com.banenor.scheduler.WorkloadSchedulers;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.retry.annotation.EnableRetry;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import java.util.concurrent.Executor;
 
 @Configuration
@@ -12,14 +13,11 @@ import java.util.concurrent.Executor;
 @EnableRetry  // Enables retry support for both synchronous and asynchronous methods
 public class AsyncConfig {
 
+    /**
+     * @Async work runs on the instrumented blocking-io pool rather than a pool of its own.
+     */
     @Bean(name = "taskExecutor")
-    public Executor taskExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(4);
-        executor.setMaxPoolSize(8);
-        executor.setQueueCapacity(100);
-        executor.setThreadNamePrefix("AsyncThread-");
-        executor.initialize();
-        return executor;
+    public Executor taskExecutor(WorkloadSchedulers schedulers) {
+        return schedulers.executor(Workload.BLOCKING_IO);
     }
 }
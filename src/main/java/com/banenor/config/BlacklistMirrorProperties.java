@@ -0,0 +1,34 @@
+package com.banenor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Local Bloom filter mirror of the Redis JWT blacklist, bound from the
+ * "security.blacklist-mirror" prefix.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "security.blacklist-mirror")
+public class BlacklistMirrorProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Blacklisted tokens the filter is sized for. A resync that finds more
+     * grows the filter to twice the count found.
+     */
+    private long expectedInsertions = 100_000;
+
+    /**
+     * Target share of live tokens that still need a Redis read.
+     */
+    private double falsePositiveRate = 0.001;
+
+    /**
+     * Interval between full rebuilds from Redis, which pick up revocations
+     * missed on the channel and drop tokens whose blacklist entry expired.
+     */
+    private long resyncIntervalMs = 300_000;
+}
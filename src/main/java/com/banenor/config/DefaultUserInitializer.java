@@ -3,10 +3,11 @@ package com.banenor.config;
 
 import com.banenor.model.User;
 import com.banenor.repository.UserRepository;
-import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import reactor.core.publisher.Mono;
 
@@ -33,33 +34,28 @@ public class DefaultUserInitializer {
         this.passwordEncoder = passwordEncoder;
     }
 
-    @PostConstruct
+    /**
+     * Runs once the application is ready rather than during refresh, so the
+     * lookup (and BCrypt hash on first boot) is off the startup critical path.
+     */
+    @EventListener(ApplicationReadyEvent.class)
     public void initDefaultUser() {
-        try {
-            // Block until the default admin user is retrieved or created.
-            User defaultUser = userRepository.findByUsername(defaultUsername)
-                    .switchIfEmpty(Mono.defer(() -> {
-                        User user = User.builder()
-                                .username(defaultUsername)
-                                .email(defaultEmail)
-                                .password(passwordEncoder.encode(defaultPassword))
-                                .role("ADMIN")
-                                .enabled(true)
-                                .locked(false) // Ensure account is not locked
-                                .createdAt(LocalDateTime.now())
-                                .updatedAt(LocalDateTime.now())
-                                .build();
-                        return userRepository.save(user);
-                    }))
-                    .block();
-
-            if (defaultUser != null) {
-                log.info("Default admin user is present with username: {}", defaultUser.getUsername());
-            } else {
-                log.error("Failed to initialize default admin user.");
-            }
-        } catch (Exception e) {
-            log.error("Error during default admin user initialization", e);
-        }
+        userRepository.findByUsername(defaultUsername)
+                .switchIfEmpty(Mono.defer(() -> {
+                    User user = User.builder()
+                            .username(defaultUsername)
+                            .email(defaultEmail)
+                            .password(passwordEncoder.encode(defaultPassword))
+                            .role("ADMIN")
+                            .enabled(true)
+                            .locked(false) // Ensure account is not locked
+                            .createdAt(LocalDateTime.now())
+                            .updatedAt(LocalDateTime.now())
+                            .build();
+                    return userRepository.save(user);
+                }))
+                .subscribe(
+                        user -> log.info("Default admin user is present with username: {}", user.getUsername()),
+                        e -> log.error("Error during default admin user initialization", e));
     }
 }
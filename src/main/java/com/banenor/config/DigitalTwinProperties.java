@@ -0,0 +1,35 @@
+package com.banenor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Persistence settings for digital twin updates, bound from the
+ * "digital-twin" prefix.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "digital-twin")
+public class DigitalTwinProperties {
+
+    /**
+     * How often coalesced twin updates are flushed; updates to the same asset
+     * within one interval result in a single upsert of the latest one.
+     */
+    private long flushIntervalMs = 500;
+
+    /**
+     * Minimum spacing of history snapshots per asset in digital_twins.
+     * Zero records every flushed state.
+     */
+    private Duration historySampleInterval = Duration.ofMinutes(1);
+
+    /**
+     * An asset with no viewers and no update for this long is dropped from
+     * the in-memory state registry; its state stays in storage.
+     */
+    private Duration idleAssetTtl = Duration.ofMinutes(10);
+}
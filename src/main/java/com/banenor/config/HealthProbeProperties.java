@@ -0,0 +1,32 @@
+package com.banenor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Background dependency probes, bound from the "health.probes" prefix.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "health.probes")
+public class HealthProbeProperties {
+
+    /**
+     * Spacing between probe rounds; health requests are served from the last round.
+     */
+    private long intervalMs = 10000;
+
+    /**
+     * A probe that has not answered within this time counts as down.
+     */
+    private Duration timeout = Duration.ofSeconds(3);
+
+    /**
+     * A result older than this is reported stale and the dependency is not
+     * counted as healthy, so a stuck prober cannot keep reporting UP.
+     */
+    private Duration staleAfter = Duration.ofSeconds(30);
+}
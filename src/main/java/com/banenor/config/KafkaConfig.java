@@ -25,6 +25,7 @@ import reactor.kafka.receiver.ReceiverOptions;
 import reactor.kafka.sender.KafkaSender;
 import reactor.kafka.sender.SenderOptions;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -50,6 +51,12 @@ public class KafkaConfig {
     @Value("${spring.kafka.consumer.group-id:banenor-sensor-data-group}")
     private String sensorConsumerGroupId;
 
+    @Value("${kafka.admin.auto-create-topics:true}")
+    private boolean autoCreateTopics;
+
+    @Value("${kafka.consumer.max-rebalance-delay-ms:10000}")
+    private long maxRebalanceDelayMs;
+
     @Value("${spring.kafka.consumer.risk.group-id:maintenance-risk-group}")
     private String riskConsumerGroupId;
 
@@ -92,6 +99,8 @@ public class KafkaConfig {
         props.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         KafkaAdmin admin = new KafkaAdmin(props);
         admin.setFatalIfBrokerNotAvailable(false);
+        // topics already exist in a running cluster; the startup profile skips the admin round trip
+        admin.setAutoCreate(autoCreateTopics);
         return admin;
     }
 
@@ -249,7 +258,19 @@ public class KafkaConfig {
                 ReceiverOptions.<String, RawDataResponse>create(props)
                         .withKeyDeserializer(new StringDeserializer())
                         .withValueDeserializer(sensorDeserializer)
-                        .subscription(Collections.singletonList(sensorTopic));
+                        .subscription(Collections.singletonList(sensorTopic))
+                        // on revocation, hold the rebalance until in-flight records of the revoked
+                        // partitions are acknowledged and committed, so the new owner starts after them
+                        .maxDelayRebalance(Duration.ofMillis(maxRebalanceDelayMs))
+                        .commitIntervalDuringDelay(100)
+                        .addAssignListener(partitions -> {
+                            meterRegistry.counter("sensor.data.consumer.rebalances", "type", "assigned").increment();
+                            log.info("Assigned sensor partitions {}", partitions);
+                        })
+                        .addRevokeListener(partitions -> {
+                            meterRegistry.counter("sensor.data.consumer.rebalances", "type", "revoked").increment();
+                            log.info("Revoked sensor partitions {} after committing acknowledged offsets", partitions);
+                        });
 
         return KafkaReceiver.create(opts);
     }
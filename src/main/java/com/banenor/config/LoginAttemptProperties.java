@@ -0,0 +1,40 @@
+package com.banenor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Failed-login tracking and account lockout, bound from the
+ * "security.login-attempts" prefix.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "security.login-attempts")
+public class LoginAttemptProperties {
+
+    /**
+     * Failures within the window after which the account is locked.
+     */
+    private int maxFailures = 5;
+
+    /**
+     * How long failures are remembered, counted from the first one; the
+     * lockout lifts when the window ends.
+     */
+    private Duration window = Duration.ofMinutes(15);
+
+    /**
+     * Usernames tracked per node. Beyond it the least recently failed are
+     * forgotten, so a flood of made-up usernames cannot grow the heap.
+     */
+    private long maxEntries = 100_000;
+
+    /**
+     * Keep the counts in Redis so a lockout applies on every node. Each node
+     * still counts locally and falls back to that if Redis fails.
+     */
+    private boolean distributed = false;
+}
@@ -7,6 +7,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 
 @Slf4j
 @Configuration
@@ -30,7 +31,11 @@ public class MailConfig {
     @Value("${mail.starttls.required:false}")
     private boolean starttlsRequired;
 
+    /**
+     * Created on the first mail sent; nothing at startup needs it.
+     */
     @Bean
+    @Lazy
     public MailClient mailClient(Vertx vertx) {
         io.vertx.ext.mail.MailConfig cfg = new io.vertx.ext.mail.MailConfig()
                 .setHostname(host)
@@ -48,6 +53,7 @@ public class MailConfig {
     }
 
     @Bean
+    @Lazy
     public Vertx vertx() {
         return Vertx.vertx();
     }
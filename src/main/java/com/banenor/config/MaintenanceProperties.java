@@ -5,6 +5,8 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.cloud.context.config.annotation.RefreshScope;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 /**
  * Externalized maintenance configuration.
  * Annotated with @RefreshScope so that changes (via config server or actuator refresh)
@@ -49,4 +51,7 @@ public class MaintenanceProperties {
     private double realtimeLateralForceRightThreshold = 350.0;
     private double realtimeLateralVibrationLeftThreshold = 2.5;
     private double realtimeLateralVibrationRightThreshold = 2.5;
+
+    // Shared /dashboard/stream: ingest bursts within this window trigger one recomputation
+    private Duration streamCoalesceWindow = Duration.ofSeconds(1);
 }
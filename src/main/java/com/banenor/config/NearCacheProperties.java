@@ -0,0 +1,53 @@
+package com.banenor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Two-tier (local + Redis) cache settings, bound from the "cache.near" prefix.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "cache.near")
+public class NearCacheProperties {
+
+    /**
+     * When false every read goes to Redis, as before the local tier existed.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Approximate bytes each cache may hold in the local tier.
+     */
+    private long localMaxBytes = 8 * 1024 * 1024;
+
+    /**
+     * Upper bound on how long an entry lives locally, as a safety net should
+     * an invalidation message be missed.
+     */
+    private Duration localTtl = Duration.ofSeconds(30);
+
+    /**
+     * Redis TTL for caches without an entry in {@link #ttls}.
+     */
+    private Duration defaultTtl = Duration.ofMinutes(5);
+
+    /**
+     * Redis TTL per cache name, for NearCache and the @Cacheable cache manager alike.
+     */
+    private Map<String, Duration> ttls = new HashMap<>();
+
+    /**
+     * Redis pub/sub channel carrying invalidations between nodes.
+     */
+    private String invalidationChannel = "cache-invalidation";
+
+    public Duration ttlFor(String cacheName) {
+        return ttls.getOrDefault(cacheName, defaultTtl);
+    }
+}
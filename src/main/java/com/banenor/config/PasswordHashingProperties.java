@@ -0,0 +1,24 @@
+package com.banenor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * BCrypt work on login, registration and password changes, bound from the
+ * "security.password.hashing" prefix. The BCrypt cost itself is
+ * {@code security.password.encoder.strength}; the pool it runs on is
+ * {@code schedulers.pools.auth}.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "security.password.hashing")
+public class PasswordHashingProperties {
+
+    /**
+     * Retry-After sent with a 429.
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+}
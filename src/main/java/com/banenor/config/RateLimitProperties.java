@@ -0,0 +1,69 @@
+package com.banenor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * HTTP rate limits, bound from the "rate.limit" prefix. The top-level rate
+ * applies to every path not claimed by one of the named {@link #routes}.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "rate.limit")
+public class RateLimitProperties {
+
+    public enum Mode {
+        /** Each node enforces the limits on its own. */
+        LOCAL,
+        /** Limits are shared by all nodes through Redis; each node still rejects locally first. */
+        CLUSTER
+    }
+
+    public enum KeyBy {
+        /** The authenticated user when the token is already verified, otherwise the client IP. */
+        PRINCIPAL,
+        /** Always the client IP. */
+        IP
+    }
+
+    @Data
+    public static class Route {
+        /** Path pattern, e.g. /api/v1/dashboard/**. */
+        private String path;
+        private int requestsPerMinute = 600;
+        /** Requests allowed back to back on top of the steady rate. */
+        private int burstSize = 100;
+        private KeyBy keyBy = KeyBy.PRINCIPAL;
+    }
+
+    private boolean enabled = true;
+
+    private Mode mode = Mode.LOCAL;
+
+    private int requestsPerMinute = 12_000;
+
+    private int burstSize = 2_000;
+
+    private KeyBy keyBy = KeyBy.PRINCIPAL;
+
+    /**
+     * Route-specific limits, checked in declaration order; the first match wins.
+     */
+    private Map<String, Route> routes = new LinkedHashMap<>();
+
+    /**
+     * Clients tracked per node. The least recently seen are forgotten first,
+     * which only ever hands them a full bucket again.
+     */
+    private long maxKeys = 100_000;
+
+    /**
+     * A client idle this long is forgotten.
+     */
+    private Duration keyIdleTimeout = Duration.ofMinutes(5);
+}
@@ -0,0 +1,42 @@
+package com.banenor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Storage of cached raw-axle result sets, bound from the "cache.raw-axles" prefix.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "cache.raw-axles")
+public class RawAxlesCacheProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Records per compressed chunk; a cache hit decodes one chunk at a time.
+     */
+    private int chunkRecords = 500;
+
+    /**
+     * Chunks fetched per Redis round trip on a hit; small, so reading stays
+     * close to the pace of the consumer.
+     */
+    private int readWindowChunks = 3;
+
+    /**
+     * Result sets whose compressed size exceeds this are not cached.
+     */
+    private long maxCompressedBytes = 16 * 1024 * 1024;
+
+    private Duration ttl = Duration.ofMinutes(5);
+
+    /**
+     * How long the chunks of a replaced or expired result set outlive it, so
+     * that a read already under way can finish.
+     */
+    private Duration readGrace = Duration.ofSeconds(30);
+}
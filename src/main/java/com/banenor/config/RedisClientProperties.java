@@ -0,0 +1,43 @@
+package com.banenor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Sizing of the shared Redis client, bound from the "redis.client" prefix.
+ * Every template, the cache manager and the pub/sub listeners share one
+ * Lettuce client; reactive commands are multiplexed over a single native
+ * connection, so throughput scales with these threads, not with a pool.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "redis.client")
+public class RedisClientProperties {
+
+    /**
+     * Netty event-loop threads for Redis I/O; 0 uses the number of CPUs.
+     */
+    private int ioThreads = 0;
+
+    /**
+     * Threads completing commands and emitting results; 0 uses the number of CPUs.
+     */
+    private int computationThreads = 0;
+
+    private Duration commandTimeout = Duration.ofSeconds(2);
+
+    private Duration shutdownTimeout = Duration.ofMillis(100);
+
+    /**
+     * Maximum keys per MGET issued by {@code RedisAccess}.
+     */
+    private int maxBatchSize = 100;
+
+    /**
+     * Whether to record Lettuce per-command latency timers (lettuce.command.*).
+     */
+    private boolean commandLatencyMetrics = true;
+}
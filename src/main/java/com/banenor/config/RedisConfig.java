@@ -4,11 +4,17 @@ import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.banenor.cache.NearCache;
+import com.banenor.cache.NearCacheManager;
 import com.banenor.dto.AxlesDataDTO;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import io.lettuce.core.metrics.MicrometerCommandLatencyRecorder;
+import io.lettuce.core.metrics.MicrometerOptions;
+import io.lettuce.core.resource.ClientResources;
+import io.lettuce.core.resource.DefaultClientResources;
+import io.micrometer.core.instrument.MeterRegistry;
 
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
@@ -19,6 +25,7 @@ import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.*;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.serializer.*;
@@ -27,28 +34,42 @@ import org.springframework.data.redis.serializer.*;
 @EnableCaching
 public class RedisConfig {
 
-    @Value("${spring.redis.host:localhost}")
+    @Value("${spring.data.redis.host:${spring.redis.host:localhost}}")
     private String redisHost;
 
-    @Value("${spring.redis.port:6379}")
+    @Value("${spring.data.redis.port:${spring.redis.port:6379}}")
     private int redisPort;
 
-    /** Reactive connection factory (primary). */
-    @Bean
-    @Primary
-    public ReactiveRedisConnectionFactory reactiveRedisConnectionFactory() {
-        var cfg = new RedisStandaloneConfiguration(redisHost, redisPort);
-        var factory = new LettuceConnectionFactory(cfg);
-        factory.afterPropertiesSet();
-        return factory;
+    /** Event loops and command-latency recording shared by every Redis connection. */
+    @Bean(destroyMethod = "shutdown")
+    public ClientResources redisClientResources(RedisClientProperties props, MeterRegistry meterRegistry) {
+        int cpus = Runtime.getRuntime().availableProcessors();
+        var builder = DefaultClientResources.builder()
+                .ioThreadPoolSize(props.getIoThreads() > 0 ? props.getIoThreads() : cpus)
+                .computationThreadPoolSize(props.getComputationThreads() > 0 ? props.getComputationThreads() : cpus);
+        if (props.isCommandLatencyMetrics()) {
+            builder.commandLatencyRecorder(
+                    new MicrometerCommandLatencyRecorder(meterRegistry, MicrometerOptions.create()));
+        }
+        return builder.build();
     }
 
-    /** Blocking connection factory for Spring’s CacheManager. */
+    /**
+     * The single connection factory, serving reactive templates and the
+     * blocking CacheManager alike over one shared native connection.
+     */
     @Bean
-    @Qualifier("blockingRedisConnectionFactory")
-    public RedisConnectionFactory blockingRedisConnectionFactory() {
+    @Primary
+    public LettuceConnectionFactory redisConnectionFactory(ClientResources redisClientResources,
+                                                           RedisClientProperties props) {
         var cfg = new RedisStandaloneConfiguration(redisHost, redisPort);
-        var factory = new LettuceConnectionFactory(cfg);
+        var clientConfig = LettuceClientConfiguration.builder()
+                .clientResources(redisClientResources)
+                .commandTimeout(props.getCommandTimeout())
+                .shutdownTimeout(props.getShutdownTimeout())
+                .build();
+        var factory = new LettuceConnectionFactory(cfg, clientConfig);
+        factory.setShareNativeConnection(true);
         factory.afterPropertiesSet();
         return factory;
     }
@@ -83,6 +104,22 @@ public class RedisConfig {
         return new ReactiveRedisTemplate<>(factory, ctx);
     }
 
+    /** ReactiveRedisTemplate<String, byte[]> for values encoded by the caller (e.g. compressed chunks). */
+    @Bean
+    public ReactiveRedisTemplate<String, byte[]> byteArrayRedisTemplate(
+            ReactiveRedisConnectionFactory factory
+    ) {
+        var str = RedisSerializer.string();
+        var bytes = RedisSerializer.byteArray();
+        var ctx = RedisSerializationContext.<String, byte[]>newSerializationContext()
+                .key(str)
+                .value(bytes)
+                .hashKey(str)
+                .hashValue(bytes)
+                .build();
+        return new ReactiveRedisTemplate<>(factory, ctx);
+    }
+
     /**
      * Dedicated ReactiveRedisTemplate<String,AxlesDataDTO> so that
      * AxlesDataServiceImpl can autowire it directly.
@@ -110,29 +147,30 @@ public class RedisConfig {
         return new ReactiveRedisTemplate<>(factory, ctx);
     }
 
-    /** Primary synchronous CacheManager for @Cacheable, etc. */
+    /**
+     * Primary synchronous CacheManager for @Cacheable, etc. Its Redis caches sit
+     * behind the near-cache local tier and take their TTLs from cache.near.ttls.
+     */
     @Bean
     @Primary
-    public CacheManager cacheManager(
-            @Qualifier("blockingRedisConnectionFactory") RedisConnectionFactory blockingFactory
-    ) {
+    public CacheManager cacheManager(RedisConnectionFactory blockingFactory,
+                                     NearCache nearCache,
+                                     NearCacheProperties nearCacheProperties) {
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofMinutes(60))
+                .entryTtl(nearCacheProperties.getDefaultTtl())
                 .disableCachingNullValues();
 
         Map<String, RedisCacheConfiguration> overrides = new HashMap<>();
+        nearCacheProperties.getTtls().forEach((name, ttl) -> overrides.put(name, defaultConfig.entryTtl(ttl)));
         overrides.put("jwtBlacklist",
-                RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofHours(1)));
-        overrides.put("averages",
-                defaultConfig.entryTtl(Duration.ofMinutes(5)));
-        overrides.put("riskScore",
-                defaultConfig.entryTtl(Duration.ofMinutes(1)));
+                RedisCacheConfiguration.defaultCacheConfig().entryTtl(nearCacheProperties.ttlFor("jwtBlacklist")));
 
-        return RedisCacheManager.builder(
+        CacheManager redisManager = RedisCacheManager.builder(
                         RedisCacheWriter.nonLockingRedisCacheWriter(blockingFactory)
                 )
                 .cacheDefaults(defaultConfig)
                 .withInitialCacheConfigurations(overrides)
                 .build();
+        return new NearCacheManager(redisManager, nearCache);
     }
 }
@@ -0,0 +1,45 @@
+package com.banenor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sizing of the per-workload Reactor schedulers, bound from the "schedulers"
+ * prefix and keyed by workload (ingest, analytics, blocking-io,
+ * notifications, auth). Anything left unset keeps the workload's default.
+ * virtualThreads moves the workloads that block (blocking-io, notifications)
+ * onto virtual threads; a pool's own "virtual" flag overrides it.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "schedulers")
+public class SchedulerProperties {
+
+    public enum OnFull {
+        /** Fail the task; callers map the RejectedExecutionException to 429/503. */
+        REJECT,
+        /** Run the task on the submitting thread, slowing the producer down. */
+        CALLER_RUNS
+    }
+
+    @Data
+    public static class Pool {
+        private Integer threads;
+        private Integer queueCapacity;
+        private OnFull onFull;
+        /** Run on virtual threads; threads + queueCapacity then bounds the tasks in flight. */
+        private Boolean virtual;
+    }
+
+    private Map<String, Pool> pools = new LinkedHashMap<>();
+
+    private boolean virtualThreads = false;
+
+    /** Virtual threads pinned to their carrier for at least this long are recorded. */
+    private Duration pinningThreshold = Duration.ofMillis(20);
+}
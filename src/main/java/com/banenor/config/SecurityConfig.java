@@ -1,5 +1,8 @@
 package com.banenor.config;
 
+import com.banenor.security.CustomReactiveAuthenticationManager;
+import com.banenor.security.PasswordHasher;
+import com.banenor.service.CustomUserDetailsService;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import lombok.extern.slf4j.Slf4j;
@@ -12,11 +15,9 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AbstractAuthenticationToken;
 import org.springframework.security.authentication.ReactiveAuthenticationManager;
-import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
 import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
-import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.jwt.Jwt;
@@ -128,14 +129,15 @@ public class SecurityConfig {
         return new ReactiveJwtAuthenticationConverterAdapter(conv);
     }
 
+    /**
+     * Password logins; BCrypt runs on the bounded hashing pool, not boundedElastic.
+     */
     @Bean
     public ReactiveAuthenticationManager authenticationManager(
-            ReactiveUserDetailsService uds,
-            PasswordEncoder encoder
+            CustomUserDetailsService uds,
+            PasswordHasher passwordHasher
     ) {
-        var mgr = new UserDetailsRepositoryReactiveAuthenticationManager(uds);
-        mgr.setPasswordEncoder(encoder);
-        return mgr;
+        return new CustomReactiveAuthenticationManager(uds, passwordHasher);
     }
 
     @Bean
@@ -0,0 +1,46 @@
+package com.banenor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Coordination of expensive cache recomputations, bound from the "cache.stampede" prefix.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "cache.stampede")
+public class StampedeProperties {
+
+    /**
+     * When true one node recomputes a missing key while the others wait for
+     * its result (Redis lock); when false recomputation is only coalesced per node.
+     */
+    private boolean distributed = true;
+
+    /**
+     * Upper bound on how long a recompute lock is held, should its owner die.
+     */
+    private Duration lockTtl = Duration.ofSeconds(30);
+
+    /**
+     * How long a caller waits for another node's result before computing itself.
+     */
+    private Duration lockWait = Duration.ofSeconds(10);
+
+    private Duration pollInterval = Duration.ofMillis(100);
+
+    /**
+     * Eagerness of probabilistic early refresh; 0 disables it, values above 1
+     * refresh earlier.
+     */
+    private double earlyRefreshBeta = 1.0;
+
+    /**
+     * How many keys' expiry and compute time each node keeps locally for
+     * early-refresh decisions.
+     */
+    private long refreshMetaCacheSize = 10_000;
+}
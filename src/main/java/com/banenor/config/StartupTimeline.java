@@ -0,0 +1,63 @@
+package com.banenor.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cold-start milestones measured from JVM start, so class loading and
+ * context refresh are both counted: time to ready (accepting traffic) and
+ * time to the first consumed Kafka record. Both are logged in a fixed
+ * format read by {@code tools.StartupBenchmark} and published as
+ * startup.time.to.ready and startup.time.to.first.record.
+ */
+@Slf4j
+@Component
+public class StartupTimeline {
+
+    public static final String READY_MARKER = "Startup timeline: ready after ";
+    public static final String FIRST_RECORD_MARKER = "Startup timeline: first record after ";
+
+    private final AtomicLong readyMs = new AtomicLong(-1);
+    private final AtomicLong firstRecordMs = new AtomicLong(-1);
+
+    public StartupTimeline(MeterRegistry meterRegistry) {
+        TimeGauge.builder("startup.time.to.ready", readyMs, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Time from JVM start until the application was ready")
+                .register(meterRegistry);
+        TimeGauge.builder("startup.time.to.first.record", firstRecordMs, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Time from JVM start until the first sensor record was consumed")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        long uptime = uptimeMs();
+        readyMs.set(uptime);
+        log.info(READY_MARKER + "{} ms", uptime);
+    }
+
+    /**
+     * Records the first consumed record; later calls are ignored.
+     */
+    public void recordFirstRecord() {
+        if (firstRecordMs.get() >= 0) {
+            return;
+        }
+        long uptime = uptimeMs();
+        if (firstRecordMs.compareAndSet(-1, uptime)) {
+            log.info(FIRST_RECORD_MARKER + "{} ms", uptime);
+        }
+    }
+
+    private static long uptimeMs() {
+        return ManagementFactory.getRuntimeMXBean().getUptime();
+    }
+}
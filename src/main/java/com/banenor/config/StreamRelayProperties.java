@@ -0,0 +1,43 @@
+package com.banenor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Cross-node relay for live streams (/ws/stream and the axle SSE streams),
+ * bound from the "stream.relay" prefix.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "stream.relay")
+public class StreamRelayProperties {
+
+    public enum Mode {
+        /** Single node: events only reach clients connected to the node that produced them. */
+        LOCAL,
+        /** Events are relayed over Redis pub/sub to the nodes whose clients want them. */
+        REDIS
+    }
+
+    private Mode mode = Mode.LOCAL;
+
+    /**
+     * Prefix of the Redis channels used by the relay.
+     */
+    private String channelPrefix = "stream-relay";
+
+    /**
+     * How many recent sequence numbers per origin node are remembered to drop
+     * the extra copies of a message that matches several patterns.
+     */
+    private int dedupWindow = 1024;
+
+    /**
+     * An origin node not heard from for this long is forgotten, so restarted
+     * nodes (which get a new id) do not accumulate.
+     */
+    private Duration originIdle = Duration.ofMinutes(10);
+}
@@ -0,0 +1,45 @@
+package com.banenor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Cache of verified JWTs in front of the security filter, bound from the
+ * "security.token-cache" prefix.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "security.token-cache")
+public class TokenCacheProperties {
+
+    private boolean enabled = true;
+
+    private long maxEntries = 10_000;
+
+    /**
+     * Longest a verified token is trusted without going back to Redis and the
+     * user store, so a disabled account or changed role takes effect within it
+     * even if a revocation message is missed.
+     */
+    private Duration maxTtl = Duration.ofMinutes(5);
+
+    /**
+     * Redis pub/sub channel carrying token and user revocations between nodes.
+     */
+    private String revocationChannel = "jwt-revocations";
+
+    /**
+     * First and longest delay between attempts to resubscribe to the
+     * revocation channel after the subscription fails.
+     */
+    private Duration resubscribeMinBackoff = Duration.ofSeconds(1);
+    private Duration resubscribeMaxBackoff = Duration.ofSeconds(30);
+
+    /**
+     * Attempts to broadcast a revocation before giving up on it.
+     */
+    private int publishAttempts = 3;
+}
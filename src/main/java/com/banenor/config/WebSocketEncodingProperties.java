@@ -0,0 +1,29 @@
+package com.banenor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Set;
+
+/**
+ * Wire-encoding settings for the /ws/stream endpoint, bound from the
+ * "websocket.encoding" prefix.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "websocket.encoding")
+public class WebSocketEncodingProperties {
+
+    /**
+     * Message types sent to binary (CBOR) sessions as per-train delta frames.
+     */
+    private Set<String> deltaTypes = Set.of("SENSOR_DATA");
+
+    /**
+     * Every N-th published message is encoded in all formats, even without
+     * sessions using them, so "websocket.frame.bytes" always compares JSON and CBOR.
+     * 0 disables sampling.
+     */
+    private int measureEvery = 100;
+}
@@ -0,0 +1,46 @@
+package com.banenor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Set;
+
+/**
+ * Per-session outbound queue settings for the /ws/stream endpoint,
+ * bound from the "websocket.session" prefix.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "websocket.session")
+public class WebSocketSessionProperties {
+
+    public enum OverflowPolicy {
+        /** Keep only the latest pending frame per (type, train); evict the oldest frame when still full. */
+        CONFLATE,
+        /** Evict the oldest pending frame. */
+        DROP_OLDEST,
+        /** Close the session as a slow consumer. */
+        DISCONNECT
+    }
+
+    /**
+     * Frames queued per session before the overflow policy applies.
+     */
+    private int bufferSize = 256;
+
+    /**
+     * What to do when a session's queue is full.
+     */
+    private OverflowPolicy overflowPolicy = OverflowPolicy.CONFLATE;
+
+    /**
+     * Message types that may be conflated; alerts and acknowledgements are never merged.
+     */
+    private Set<String> conflateTypes = Set.of("SENSOR_DATA", "MAINTENANCE_DATA");
+
+    /**
+     * Queue fill ratio (0..1) above which a session is reported as lagging.
+     */
+    private double lagThreshold = 0.5;
+}
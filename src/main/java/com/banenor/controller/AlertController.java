@@ -17,7 +17,6 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 import java.time.LocalDateTime;
 
@@ -52,7 +51,6 @@ public class AlertController {
 
         return alertService.getAlertHistory(trainNo, from, to)
                 .map(this::toDto)
-                .subscribeOn(Schedulers.boundedElastic())
                 .doOnNext(dto -> log.debug("Fetched alert DTO: {}", dto))
                 .doOnError(ex -> log.error("Error retrieving alert history", ex))
                 .onErrorResume(ex -> {
@@ -90,7 +88,6 @@ public class AlertController {
                     log.debug("Computed alert stats: {}", stats);
                     return stats;
                 })
-                .subscribeOn(Schedulers.boundedElastic())
                 .doOnError(ex -> log.error("Error retrieving alert stats", ex));
     }
 
@@ -131,7 +128,6 @@ public class AlertController {
 
                     return ResponseEntity.ok().<Void>build();
                 }))
-                .subscribeOn(Schedulers.boundedElastic())
                 .doOnError(ex -> log.error("Error during acknowledgment of alert id={}", id, ex))
                 .onErrorResume(ex -> {
                     log.error("Acknowledgment failed for alert id={}: {}", id, ex.getMessage());
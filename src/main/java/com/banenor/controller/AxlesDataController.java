@@ -209,25 +209,18 @@ public class AxlesDataController {
         LocalDateTime to   = Optional.ofNullable(end).orElse(LocalDateTime.now());
         log.info("Open station SSE [{}] tp={} {}→{}", s, measurementPoint, from, to);
 
-        Flux<Integer> trainNos;
-        if ("MP1".equals(s)) {
-            trainNos = mp1HeaderRepo.findAll().map(HaugfjellMP1Header::getTrainNo);
-        } else if ("MP3".equals(s)) {
-            trainNos = mp3HeaderRepo.findAll().map(HaugfjellMP3Header::getTrainNo);
-        } else {
+        if (!"MP1".equals(s) && !"MP3".equals(s)) {
             return Flux.error(new IllegalArgumentException("Unknown station: " + station));
         }
 
-        return trainNos.flatMap(trainNo ->
-                ssePublisher.stream(trainNo, measurementPoint)
-                        .doOnNext(dto -> log.debug("SSE [{}|{}] → {}", s, trainNo, dto))
-                        .doOnError(err -> log.error("SSE error [{}|{}]: {}", s, trainNo, err.getMessage()))
-                        .retryWhen(Retry.backoff(Long.MAX_VALUE, SSE_RETRY_BACKOFF)
-                                .maxBackoff(Duration.ofSeconds(60))
-                                .filter(ex -> !(ex instanceof IllegalArgumentException))
-                                .doBeforeRetry(sig -> log.warn("Retry SSE [{}|{}]: {}", s, trainNo, sig.failure().getMessage()))
-                        )
-        );
+        return ssePublisher.streamStation(s, measurementPoint)
+                .doOnNext(dto -> log.debug("SSE [{}|{}] → {}", s, dto.getTrainNo(), dto))
+                .doOnError(err -> log.error("SSE error [{}]: {}", s, err.getMessage()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, SSE_RETRY_BACKOFF)
+                        .maxBackoff(Duration.ofSeconds(60))
+                        .filter(ex -> !(ex instanceof IllegalArgumentException))
+                        .doBeforeRetry(sig -> log.warn("Retry SSE [{}]: {}", s, sig.failure().getMessage()))
+                );
     }
 
     //───────────────────────────────────────────────────────────────────────────────
@@ -6,6 +6,7 @@ import com.banenor.dto.RealtimeAlertRequest;
 import com.banenor.dto.SensorMetricsDTO;
 import com.banenor.dto.SystemDashboardDTO;
 import com.banenor.service.DashboardService;
+import com.banenor.service.MaintenanceStreamHub;
 import com.banenor.service.PredictiveMaintenanceService;
 import com.banenor.service.RealtimeAlertService;
 import io.micrometer.core.instrument.MeterRegistry;
@@ -27,9 +28,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
-import java.time.Duration;
 import java.util.Map;
 import java.util.Optional;
 
@@ -47,6 +46,7 @@ public class DashboardController {
     private final DashboardService dashboardService;
     private final PredictiveMaintenanceService predictiveMaintenanceService;
     private final RealtimeAlertService realtimeAlertService;
+    private final MaintenanceStreamHub maintenanceStreamHub;
     private final Optional<SimpMessagingTemplate> messagingTemplate;
     private final MeterRegistry meterRegistry;
 
@@ -65,7 +65,6 @@ public class DashboardController {
         log.debug("Request GET /latest/{}", analysisId);
         return dashboardService.getLatestMetrics(analysisId)
                 .map(ResponseEntity::ok)
-                .subscribeOn(Schedulers.boundedElastic())
                 .doOnError(ex -> log.error("Error retrieving latest metrics for {}: {}", analysisId, ex.getMessage()));
     }
 
@@ -82,7 +81,6 @@ public class DashboardController {
         log.debug("Request GET /historical/{}", analysisId);
         return dashboardService.getHistoricalData(analysisId)
                 .map(ResponseEntity::ok)
-                .subscribeOn(Schedulers.boundedElastic())
                 .doOnError(ex -> log.error("Error retrieving historical data for {}: {}", analysisId, ex.getMessage()));
     }
 
@@ -97,7 +95,6 @@ public class DashboardController {
         log.debug("Request GET /global");
         return dashboardService.getSystemDashboard()
                 .map(ResponseEntity::ok)
-                .subscribeOn(Schedulers.boundedElastic())
                 .doOnError(ex -> log.error("Error retrieving system dashboard: {}", ex.getMessage()));
     }
 
@@ -118,7 +115,6 @@ public class DashboardController {
         log.debug("Request GET /metrics/{}", analysisId);
 
         return predictiveMaintenanceService.getMaintenanceAnalysis(analysisId, DEFAULT_ALERT_EMAIL)
-                .subscribeOn(Schedulers.boundedElastic())
                 .map(dto -> {
                     meterRegistry.counter("realtime.metrics.success", "analysisId", analysisId.toString()).increment();
                     log.info("Fetched realtime metrics for analysisId={}", analysisId);
@@ -164,7 +160,6 @@ public class DashboardController {
 
         return realtimeAlertService
                 .monitorAndAlert(analysisId, alertEmail, subject, message)
-                .subscribeOn(Schedulers.boundedElastic())
                 .doOnSuccess(v -> {
                     meterRegistry.counter("realtime.alerts.success",
                                     "analysisId", analysisId.toString())
@@ -195,7 +190,7 @@ public class DashboardController {
 
 
     @Operation(summary = "Stream Realtime Metrics (SSE)",
-            description = "Continuously stream predictive maintenance updates every 5 seconds")
+            description = "Stream predictive maintenance updates, recomputed whenever new data for the train is ingested")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "SSE stream opened successfully"),
             @ApiResponse(responseCode = "400", description = "Invalid analysisId")
@@ -206,15 +201,7 @@ public class DashboardController {
     ) {
         log.debug("Request GET /stream?analysisId={}", analysisId);
 
-        return Flux.interval(Duration.ofSeconds(5))
-                .flatMap(tick ->
-                        predictiveMaintenanceService.getMaintenanceAnalysis(analysisId, DEFAULT_ALERT_EMAIL)
-                                .subscribeOn(Schedulers.boundedElastic())
-                                .onErrorResume(ex -> {
-                                    log.error("Error in SSE stream for analysisId {}: {}", analysisId, ex.getMessage(), ex);
-                                    return Mono.empty();
-                                })
-                )
+        return maintenanceStreamHub.stream(analysisId)
                 .map(data -> ServerSentEvent.<PredictiveMaintenanceResponse>builder()
                         .id(Long.toString(System.currentTimeMillis()))
                         .event("predictive-maintenance-update")
@@ -24,7 +24,6 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 import jakarta.validation.constraints.Min;
 import java.time.LocalDateTime;
@@ -55,8 +54,7 @@ public class DataController {
                     return Mono.error(new ResourceNotFoundException(
                             "Analysis ID " + analysisId + " not found."
                     ));
-                }))
-                .subscribeOn(Schedulers.boundedElastic());
+                }));
     }
 
     @Operation(
@@ -81,8 +79,7 @@ public class DataController {
                             .getRawData(analysisId,
                                     request.getSensorType(),
                                     request.getPage(),
-                                    request.getSize())
-                            .subscribeOn(Schedulers.boundedElastic());
+                                    request.getSize());
                     return ResponseEntity.ok(stream);
                 })
                 .onErrorResume(ResourceNotFoundException.class, ex -> {
@@ -112,8 +109,7 @@ public class DataController {
                     Flux<RawDataResponse> stream = dataService
                             .getDetailedSensorData(analysisId,
                                     request.getPage(),
-                                    request.getSize())
-                            .subscribeOn(Schedulers.boundedElastic());
+                                    request.getSize());
                     return ResponseEntity.ok(stream);
                 })
                 .onErrorResume(ResourceNotFoundException.class, ex -> {
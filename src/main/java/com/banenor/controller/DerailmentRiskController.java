@@ -16,7 +16,6 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
-import reactor.core.scheduler.Schedulers;
 
 import jakarta.validation.Valid;
 import java.time.LocalDateTime;
@@ -63,7 +62,6 @@ public class DerailmentRiskController {
                 .doOnError(ex -> log.error(
                         "Error fetching derailment risk for trainNo {}: {}",
                         trainNo, ex.getMessage(), ex
-                ))
-                .subscribeOn(Schedulers.boundedElastic());
+                ));
     }
 }
@@ -16,7 +16,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 import java.util.List;
 
@@ -47,8 +46,7 @@ public class MaintenancePredictionController {
                 .map(ResponseEntity::ok)
                 .switchIfEmpty(Mono.just(ResponseEntity.notFound().build()))
                 .doOnError(ex -> log.error("Error predicting maintenance for analysisId={}", analysisId, ex))
-                .onErrorResume(ex -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build()))
-                .subscribeOn(Schedulers.boundedElastic());
+                .onErrorResume(ex -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build()));
     }
 
     @Operation(summary = "Get Maintenance Schedule", description = "Retrieve upcoming maintenance tasks")
@@ -70,7 +68,6 @@ public class MaintenancePredictionController {
                 .onErrorResume(ex -> {
                     log.error("Error retrieving maintenance schedule", ex);
                     return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
-                })
-                .subscribeOn(Schedulers.boundedElastic());
+                });
     }
 }
@@ -13,7 +13,6 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
-import reactor.core.scheduler.Schedulers;
 
 @RestController
 @RequestMapping(value = "/api/v1/performance", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -37,7 +36,6 @@ public class PerformanceController {
         log.info("Fetching performance data from {} to {}", from, to);
 
         return performanceService.getPerformanceData(from, to)
-                .doOnError(ex -> log.error("Error fetching performance data from {} to {}", from, to, ex))
-                .subscribeOn(Schedulers.boundedElastic());
+                .doOnError(ex -> log.error("Error fetching performance data from {} to {}", from, to, ex));
     }
 }
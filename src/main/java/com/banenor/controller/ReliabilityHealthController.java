@@ -15,7 +15,6 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 @RestController
 @RequestMapping(
@@ -50,7 +49,6 @@ public class ReliabilityHealthController {
                 .map(ResponseEntity::ok)
                 .doOnError(ex ->
                         log.error("Error fetching reliability health for trainNo={}: {}", trainNo, ex.getMessage(), ex)
-                )
-                .subscribeOn(Schedulers.boundedElastic());
+                );
     }
 }
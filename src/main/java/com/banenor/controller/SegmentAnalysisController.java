@@ -13,7 +13,6 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
-import reactor.core.scheduler.Schedulers;
 
 import java.time.LocalDateTime;
 
@@ -54,7 +53,6 @@ public class SegmentAnalysisController {
                 .analyzeSegmentData(req.getTrainNo(), resolvedStart, resolvedEnd)
                 .doOnError(ex -> log.error(
                         "Error fetching segment analysis for train {}: {}",
-                        req.getTrainNo(), ex.getMessage(), ex))
-                .subscribeOn(Schedulers.boundedElastic());
+                        req.getTrainNo(), ex.getMessage(), ex));
     }
 }
@@ -14,7 +14,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -59,8 +58,7 @@ public class SensorDataAggregationController {
                 .onErrorResume(err -> {
                     log.error("Aggregation failed for range {} → {}", from, to, err);
                     return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
-                })
-                .subscribeOn(Schedulers.boundedElastic());
+                });
     }
 
     //───────────────────────────────────────────────────────────────────────────────
@@ -86,7 +84,7 @@ public class SensorDataAggregationController {
             dto.setMaxSpeed(tuple.getT3());
             dto.setSpeedVariance(tuple.getT4());
             return ResponseEntity.ok(dto);
-        }).subscribeOn(Schedulers.boundedElastic());
+        });
     }
 
     @Operation(summary = "Get AOA Aggregations", description = "Retrieve aggregated Angle of Attack (AOA) metrics for a given analysis ID")
@@ -108,7 +106,7 @@ public class SensorDataAggregationController {
             dto.setMaxAoa(tuple.getT3());
             dto.setAoaVariance(tuple.getT4());
             return ResponseEntity.ok(dto);
-        }).subscribeOn(Schedulers.boundedElastic());
+        });
     }
 
     @Operation(summary = "Get Vibration Left Aggregations", description = "Retrieve left‐side vibration metrics")
@@ -130,7 +128,7 @@ public class SensorDataAggregationController {
             dto.setMaxVibrationLeft(tuple.getT3());
             dto.setVibrationLeftVariance(tuple.getT4());
             return ResponseEntity.ok(dto);
-        }).subscribeOn(Schedulers.boundedElastic());
+        });
     }
 
     @Operation(summary = "Get Vibration Right Aggregations", description = "Retrieve right‐side vibration metrics")
@@ -152,7 +150,7 @@ public class SensorDataAggregationController {
             dto.setMaxVibrationRight(tuple.getT3());
             dto.setVibrationRightVariance(tuple.getT4());
             return ResponseEntity.ok(dto);
-        }).subscribeOn(Schedulers.boundedElastic());
+        });
     }
 
     @Operation(summary = "Get Vertical Force Left Aggregations", description = "Retrieve left‐side vertical force metrics")
@@ -174,7 +172,7 @@ public class SensorDataAggregationController {
             dto.setMaxVerticalForceLeft(tuple.getT3());
             dto.setVerticalForceLeftVariance(tuple.getT4());
             return ResponseEntity.ok(dto);
-        }).subscribeOn(Schedulers.boundedElastic());
+        });
     }
 
     @Operation(summary = "Get Vertical Force Right Aggregations", description = "Retrieve right‐side vertical force metrics")
@@ -196,7 +194,7 @@ public class SensorDataAggregationController {
             dto.setMaxVerticalForceRight(tuple.getT3());
             dto.setVerticalForceRightVariance(tuple.getT4());
             return ResponseEntity.ok(dto);
-        }).subscribeOn(Schedulers.boundedElastic());
+        });
     }
 
     @Operation(summary = "Get Lateral Force Left Aggregations", description = "Retrieve left‐side lateral force metrics")
@@ -218,7 +216,7 @@ public class SensorDataAggregationController {
             dto.setMaxLateralForceLeft(tuple.getT3());
             dto.setLateralForceLeftVariance(tuple.getT4());
             return ResponseEntity.ok(dto);
-        }).subscribeOn(Schedulers.boundedElastic());
+        });
     }
 
     @Operation(summary = "Get Lateral Force Right Aggregations", description = "Retrieve right‐side lateral force metrics")
@@ -240,7 +238,7 @@ public class SensorDataAggregationController {
             dto.setMaxLateralForceRight(tuple.getT3());
             dto.setLateralForceRightVariance(tuple.getT4());
             return ResponseEntity.ok(dto);
-        }).subscribeOn(Schedulers.boundedElastic());
+        });
     }
 
     @Operation(summary = "Get Lateral Vibration Left Aggregations", description = "Retrieve left‐side lateral vibration metrics")
@@ -262,7 +260,7 @@ public class SensorDataAggregationController {
             dto.setMaxLateralVibrationLeft(tuple.getT3());
             dto.setLateralVibrationLeftVariance(tuple.getT4());
             return ResponseEntity.ok(dto);
-        }).subscribeOn(Schedulers.boundedElastic());
+        });
     }
 
     @Operation(summary = "Get Lateral Vibration Right Aggregations", description = "Retrieve right‐side lateral vibration metrics")
@@ -284,7 +282,7 @@ public class SensorDataAggregationController {
             dto.setMaxLateralVibrationRight(tuple.getT3());
             dto.setLateralVibrationRightVariance(tuple.getT4());
             return ResponseEntity.ok(dto);
-        }).subscribeOn(Schedulers.boundedElastic());
+        });
     }
 
     //───────────────────────────────────────────────────────────────────────────────
@@ -411,7 +409,7 @@ public class SensorDataAggregationController {
             dto.setLateralVibrationRightVariance((Double) r[i++]);
 
             return ResponseEntity.ok(dto);
-        }).subscribeOn(Schedulers.boundedElastic());
+        });
     }
 
     //───────────────────────────────────────────────────────────────────────────────
@@ -476,8 +474,7 @@ public class SensorDataAggregationController {
                 .onErrorResume(err -> {
                     log.error("Performance Index calculation failed for train #{}", analysisId, err);
                     return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
-                })
-                .subscribeOn(Schedulers.boundedElastic());
+                });
     }
 
 }
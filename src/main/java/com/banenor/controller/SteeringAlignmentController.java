@@ -13,7 +13,6 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
-import reactor.core.scheduler.Schedulers;
 
 import java.time.LocalDateTime;
 
@@ -47,7 +46,6 @@ public class SteeringAlignmentController {
         log.info("Fetching steering alignment for trainNo={} from {} to {}", trainNo, from, to);
 
         return steeringService.fetchSteeringData(trainNo, from, to)
-                .subscribeOn(Schedulers.boundedElastic())
                 .doOnError(ex -> log.error(
                         "Error fetching steering alignment for trainNo {}: {}", trainNo, ex.getMessage(), ex
                 ));
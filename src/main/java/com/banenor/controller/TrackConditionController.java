@@ -13,7 +13,6 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
-import reactor.core.scheduler.Schedulers;
 
 import jakarta.validation.Valid;
 import java.time.Duration;
@@ -57,7 +56,6 @@ public class TrackConditionController {
                 .doOnError(ex ->
                         log.error("Error streaming track condition for trainNo={}: {}",
                                 req.getTrainNo(), ex.getMessage(), ex)
-                )
-                .subscribeOn(Schedulers.boundedElastic());
+                );
     }
 }
@@ -1,5 +1,7 @@
 package com.banenor.controller;
 
+import com.banenor.scheduler.Workload;
+import com.banenor.scheduler.WorkloadSchedulers;
 import com.banenor.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -12,7 +14,6 @@ import org.springframework.http.codec.multipart.FilePart;
 import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 import java.io.IOException;
 import java.nio.file.*;
@@ -25,6 +26,7 @@ import java.util.UUID;
 public class UserAvatarController {
 
     private final UserService userService;
+    private final WorkloadSchedulers schedulers;
 
     @Value("${app.upload.dir:uploads/avatars}")
     private String uploadDir;
@@ -56,7 +58,7 @@ public class UserAvatarController {
                     Files.createDirectories(baseDir);
                     return target;
                 })
-                .publishOn(Schedulers.boundedElastic())
+                .publishOn(schedulers.get(Workload.BLOCKING_IO))
                 .flatMap(path ->
                         DataBufferUtils.write(
                                         filePart.content(),
@@ -14,7 +14,6 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
-import reactor.core.scheduler.Schedulers;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -53,7 +52,6 @@ public class WheelConditionController {
                 .fetchWheelConditionData(trainNo, from, to)
                 .doOnError(ex ->
                         log.error("Error fetching wheel condition [trainNo={}]: {}", trainNo, ex.getMessage(), ex)
-                )
-                .subscribeOn(Schedulers.boundedElastic());
+                );
     }
 }
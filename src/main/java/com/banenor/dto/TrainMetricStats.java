@@ -0,0 +1,32 @@
+package com.banenor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Overall per-train aggregates of every sensor field, as loaded in one batch
+ * query. Values are keyed "avg_spd", "min_spd", "max_spd", "avgsq_spd" and so
+ * on for each field prefix; a value is null when the train has no readings.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrainMetricStats {
+
+    private Integer trainNo;
+    private String station;
+    private long samples;
+
+    @Builder.Default
+    private Map<String, Double> values = new HashMap<>();
+
+    public Double value(String stat) {
+        return values.get(stat);
+    }
+}
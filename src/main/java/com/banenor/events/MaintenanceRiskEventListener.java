@@ -1,5 +1,6 @@
 package com.banenor.events;
 
+import com.banenor.websocket.StreamTopic;
 import com.banenor.websocket.WebSocketBroadcaster;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -20,7 +21,7 @@ public class MaintenanceRiskEventListener {
     public void onRisk(MaintenanceRiskEvent event) {
         log.debug("Received MaintenanceRiskEvent: {}", event);
         try {
-            broadcaster.publish(event, "MAINTENANCE_DATA");
+            broadcaster.publish(event, StreamTopic.of("MAINTENANCE_DATA", event.getAnalysisId()));
             log.debug("Successfully published MaintenanceRiskEvent to WebSocket");
         } catch (Exception ex) {
             log.error("Error publishing MaintenanceRiskEvent: {}", ex.getMessage(), ex);
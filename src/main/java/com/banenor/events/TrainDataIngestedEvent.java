@@ -0,0 +1,21 @@
+package com.banenor.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Event raised once new sensor data for a train has been persisted.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TrainDataIngestedEvent {
+    private Integer trainNo;
+    private String station;
+    private Instant ingestedAt;
+}
@@ -2,6 +2,7 @@ package com.banenor.exception;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -13,6 +14,7 @@ import reactor.core.publisher.Mono;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
 @Slf4j
 @RestControllerAdvice
@@ -35,6 +37,7 @@ public class ApiErrorHandler {
 
         log.warn("ResponseStatusException [cid={}]: {} {}", cid, status, ex.getMessage());
         exchange.getResponse().setStatusCode(status);
+        exchange.getResponse().getHeaders().addAll(ex.getHeaders());
 
         String message = ex.getReason() != null ? ex.getReason() : status.getReasonPhrase();
         return Mono.just(new ApiError(
@@ -46,6 +49,22 @@ public class ApiErrorHandler {
         ));
     }
 
+    @ExceptionHandler(RejectedExecutionException.class)
+    public Mono<ApiError> handleRejected(RejectedExecutionException ex, ServerWebExchange exchange) {
+        String cid = newCorrelationId();
+        log.warn("Work rejected, scheduler saturated [cid={}]: {}", cid, ex.getMessage());
+        exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+
+        return Mono.just(new ApiError(
+                "ERR-503",
+                "Server busy, retry shortly",
+                List.of(),
+                LocalDateTime.now(),
+                cid
+        ));
+    }
+
     @ExceptionHandler(Throwable.class)
     public Mono<ApiError> handleAll(Throwable ex, ServerWebExchange exchange) {
         String cid = newCorrelationId();
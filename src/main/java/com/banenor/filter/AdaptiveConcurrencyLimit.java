@@ -0,0 +1,94 @@
+package com.banenor.filter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that follows latency, TCP Vegas style. The shortest
+ * latency seen is taken as the no-load baseline; the share of each sample
+ * above it estimates how many requests are queueing (in the DB pool, mostly).
+ * Little queueing grows the limit, a lot shrinks it, and a failed request
+ * backs it off by 10%.
+ */
+class AdaptiveConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int baselineResetSamples;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private long minRttNanos = Long.MAX_VALUE;
+    private int samples;
+
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, int baselineResetSamples) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.baselineResetSamples = Math.max(1, baselineResetSamples);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+    }
+
+    /**
+     * Takes a slot if fewer than the current limit are in use.
+     */
+    boolean tryAcquire() {
+        int cap = getLimit();
+        while (true) {
+            int current = inFlight.get();
+            if (current >= cap) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns a slot taken without recording a sample, e.g. when another
+     * check rejected the request after this one admitted it.
+     */
+    void cancel() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Returns a slot and feeds the request's latency into the limit.
+     */
+    void release(long rttNanos, boolean failed) {
+        int current = inFlight.getAndDecrement();
+        update(rttNanos, failed, current);
+    }
+
+    int getLimit() {
+        return (int) limit;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void update(long rttNanos, boolean failed, int inFlightAtRelease) {
+        double l = limit;
+        if (failed) {
+            limit = Math.max(minLimit, l * 0.9);
+            return;
+        }
+        if (++samples >= baselineResetSamples) {
+            samples = 0;
+            minRttNanos = rttNanos;
+        } else if (rttNanos < minRttNanos) {
+            minRttNanos = rttNanos;
+        }
+        double queue = l * (1 - (double) minRttNanos / Math.max(1, rttNanos));
+        double log = Math.max(1, Math.log10(l));
+        if (queue <= 3 * log) {
+            // only grow while the limit is actually being used
+            if (inFlightAtRelease * 2 >= l) {
+                l += log;
+            }
+        } else if (queue >= 6 * log) {
+            l -= log;
+        }
+        limit = Math.min(maxLimit, Math.max(minLimit, l));
+    }
+}
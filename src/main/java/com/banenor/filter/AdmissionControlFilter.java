@@ -0,0 +1,293 @@
+package com.banenor.filter;
+
+import com.banenor.config.AdmissionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.reactive.result.method.RequestMappingInfo;
+import org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Sheds HTTP load before it queues for database connections. Requests are
+ * sorted into endpoint classes, each with an {@link AdaptiveConcurrencyLimit};
+ * all classes together stay within the HTTP budget (pool size minus the
+ * connections reserved for ingest) and a class never takes more than its
+ * share of it, so heavy analytics cannot crowd out lighter reads. A request
+ * that does not fit is answered 503 with Retry-After at once rather than
+ * waiting into a timeout.
+ * <p>
+ * Streaming responses (SSE, NDJSON) hold their connection for as long as a
+ * dashboard is open, so they are recognised by the media types their handler
+ * produces and never take a slot. Every HTTP request, streaming or not, is
+ * marked in its subscriber context so that its database connections count
+ * against the {@link ConnectionBudget}.
+ */
+@Slf4j
+@Component
+public class AdmissionControlFilter implements WebFilter {
+
+    private static final List<MediaType> STREAMING_TYPES = List.of(
+            MediaType.TEXT_EVENT_STREAM,
+            MediaType.APPLICATION_NDJSON,
+            new MediaType("application", "stream+json"));
+
+    /**
+     * A handler mapping that can answer with a streaming media type.
+     */
+    private static final class StreamingRoute {
+        final Set<PathPattern> patterns;
+        final Set<RequestMethod> methods;
+        final boolean streamingOnly;
+        final Set<MediaType> produces;
+
+        StreamingRoute(Set<PathPattern> patterns, Set<RequestMethod> methods, boolean streamingOnly,
+                       Set<MediaType> produces) {
+            this.patterns = patterns;
+            this.methods = methods;
+            this.streamingOnly = streamingOnly;
+            this.produces = produces;
+        }
+
+        boolean matches(PathContainer path, HttpMethod method) {
+            if (!methods.isEmpty() && methods.stream().noneMatch(m -> m.asHttpMethod().equals(method))) {
+                return false;
+            }
+            for (PathPattern p : patterns) {
+                if (p.matches(path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class EndpointClass {
+        final String name;
+        final List<PathPattern> patterns;
+        final AdaptiveConcurrencyLimit limit;
+        final int shareCap;
+        final Counter admitted;
+        final Counter shed;
+        final Timer latency;
+
+        EndpointClass(String name, List<PathPattern> patterns, AdaptiveConcurrencyLimit limit, int shareCap,
+                      MeterRegistry registry) {
+            this.name = name;
+            this.patterns = patterns;
+            this.limit = limit;
+            this.shareCap = shareCap;
+            this.admitted = registry.counter("admission.requests", "class", name, "outcome", "admitted");
+            this.shed = registry.counter("admission.requests", "class", name, "outcome", "shed");
+            this.latency = registry.timer("admission.latency", "class", name);
+        }
+
+        boolean matches(PathContainer path) {
+            for (PathPattern p : patterns) {
+                if (p.matches(path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private final AdmissionProperties properties;
+    private final RequestMappingHandlerMapping handlerMapping;
+    private volatile List<StreamingRoute> streamingRoutes;
+    private final Counter streamingBypassed;
+    private final List<EndpointClass> classes = new ArrayList<>();
+    private final List<PathPattern> bypass = new ArrayList<>();
+    private final AtomicInteger httpInFlight = new AtomicInteger();
+    private final int budget;
+    private final byte[] shedBody;
+
+    public AdmissionControlFilter(AdmissionProperties properties,
+                                  @Qualifier("requestMappingHandlerMapping") RequestMappingHandlerMapping handlerMapping,
+                                  MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.handlerMapping = handlerMapping;
+        this.budget = properties.httpBudget();
+        this.streamingBypassed = meterRegistry.counter("admission.requests", "class", "streaming", "outcome", "bypassed");
+        PathPatternParser parser = PathPatternParser.defaultInstance;
+        properties.getBypassPaths().forEach(p -> bypass.add(parser.parse(p)));
+        properties.getClasses().forEach((name, cfg) -> {
+            List<PathPattern> patterns = cfg.getPaths().stream().map(parser::parse).toList();
+            int shareCap = Math.max(1, (int) Math.floor(budget * cfg.getMaxShare()));
+            AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(cfg.getInitialLimit(),
+                    cfg.getMinLimit(), Math.min(cfg.getMaxLimit(), shareCap), properties.getBaselineResetSamples());
+            EndpointClass cls = new EndpointClass(name, patterns, limit, shareCap, meterRegistry);
+            classes.add(cls);
+            Gauge.builder("admission.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                    .description("Current adaptive concurrency limit of an endpoint class")
+                    .tag("class", name)
+                    .register(meterRegistry);
+            Gauge.builder("admission.inflight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                    .description("Requests of an endpoint class being served")
+                    .tag("class", name)
+                    .register(meterRegistry);
+        });
+        meterRegistry.gauge("admission.budget.inflight", httpInFlight);
+        long retryAfter = Math.max(1, properties.getRetryAfter().toSeconds());
+        this.shedBody = String.format(
+                "{\"error\":\"Service Unavailable\",\"message\":\"Server busy. Retry after %ds.\",\"status\":%d}",
+                retryAfter, HttpStatus.SERVICE_UNAVAILABLE.value()).getBytes(StandardCharsets.UTF_8);
+        log.info("Admission control {}: HTTP budget {} of {} DB connections ({} reserved for ingest), classes {}",
+                properties.isEnabled() ? "enabled" : "disabled", budget, properties.getDbPoolSize(),
+                properties.getIngestReserved(), properties.getClasses().keySet());
+    }
+
+    @Override
+    @NonNull
+    public Mono<Void> filter(@NonNull ServerWebExchange exchange, @NonNull WebFilterChain chain) {
+        if (!properties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+        PathContainer path = exchange.getRequest().getPath().pathWithinApplication();
+        EndpointClass cls = classify(path);
+        if (cls == null) {
+            return withBudget(chain.filter(exchange));
+        }
+        if (isStreaming(exchange, path)) {
+            streamingBypassed.increment();
+            return withBudget(chain.filter(exchange));
+        }
+        if (!admit(cls)) {
+            cls.shed.increment();
+            log.debug("Shedding {} ({} at limit {})", path.value(), cls.name, cls.limit.getLimit());
+            return shed(exchange);
+        }
+        cls.admitted.increment();
+        long start = System.nanoTime();
+        return withBudget(chain.filter(exchange))
+                .doFinally(signal -> {
+                    httpInFlight.decrementAndGet();
+                    long rtt = System.nanoTime() - start;
+                    if (signal == SignalType.CANCEL) {
+                        // client went away: the latency says nothing about the server
+                        cls.limit.cancel();
+                        return;
+                    }
+                    cls.latency.record(rtt, TimeUnit.NANOSECONDS);
+                    cls.limit.release(rtt, signal == SignalType.ON_ERROR);
+                });
+    }
+
+    private static Mono<Void> withBudget(Mono<Void> response) {
+        return response.contextWrite(ctx -> ctx.put(ConnectionBudget.HTTP_CONTEXT_KEY, true));
+    }
+
+    /**
+     * True if the handler for this request answers with a stream: either it
+     * only produces streaming types, or it can and the client asked for one.
+     */
+    private boolean isStreaming(ServerWebExchange exchange, PathContainer path) {
+        HttpMethod method = exchange.getRequest().getMethod();
+        List<MediaType> accept = exchange.getRequest().getHeaders().getAccept();
+        for (StreamingRoute route : streamingRoutes()) {
+            if (!route.matches(path, method)) {
+                continue;
+            }
+            if (route.streamingOnly) {
+                return true;
+            }
+            for (MediaType requested : accept) {
+                if (!requested.isWildcardType() && !requested.isWildcardSubtype()
+                        && route.produces.stream().anyMatch(requested::equalsTypeAndSubtype)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private List<StreamingRoute> streamingRoutes() {
+        List<StreamingRoute> routes = streamingRoutes;
+        if (routes == null) {
+            routes = new ArrayList<>();
+            for (RequestMappingInfo info : handlerMapping.getHandlerMethods().keySet()) {
+                Set<MediaType> produces = info.getProducesCondition().getProducibleMediaTypes();
+                Set<MediaType> streaming = produces.stream().filter(AdmissionControlFilter::isStreamingType)
+                        .collect(Collectors.toSet());
+                if (!streaming.isEmpty()) {
+                    routes.add(new StreamingRoute(info.getPatternsCondition().getPatterns(),
+                            info.getMethodsCondition().getMethods(), streaming.size() == produces.size(), streaming));
+                }
+            }
+            streamingRoutes = routes;
+            log.info("Admission control: {} streaming route(s) bypass the endpoint limits", routes.size());
+        }
+        return routes;
+    }
+
+    private static boolean isStreamingType(MediaType type) {
+        return STREAMING_TYPES.stream().anyMatch(type::equalsTypeAndSubtype);
+    }
+
+    private EndpointClass classify(PathContainer path) {
+        for (PathPattern p : bypass) {
+            if (p.matches(path)) {
+                return null;
+            }
+        }
+        for (EndpointClass cls : classes) {
+            if (cls.matches(path)) {
+                return cls;
+            }
+        }
+        return null;
+    }
+
+    private boolean admit(EndpointClass cls) {
+        if (!cls.limit.tryAcquire()) {
+            return false;
+        }
+        if (cls.limit.getInFlight() > cls.shareCap) {
+            cls.limit.cancel();
+            return false;
+        }
+        while (true) {
+            int current = httpInFlight.get();
+            if (current >= budget) {
+                cls.limit.cancel();
+                return false;
+            }
+            if (httpInFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private Mono<Void> shed(ServerWebExchange exchange) {
+        exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        exchange.getResponse().getHeaders().set("Retry-After",
+                String.valueOf(Math.max(1, properties.getRetryAfter().toSeconds())));
+        return exchange.getResponse()
+                .writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(shedBody)));
+    }
+}
@@ -0,0 +1,79 @@
+package com.banenor.filter;
+
+import io.r2dbc.spi.Closeable;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.Wrapped;
+import org.reactivestreams.Publisher;
+import org.springframework.util.ClassUtils;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+
+/**
+ * Charges connections opened on behalf of HTTP requests to the
+ * {@link ConnectionBudget}; the slot is returned when the connection is
+ * closed. Everything else (ingest, schedulers, probes) goes straight to the pool.
+ */
+class BudgetedConnectionFactory implements ConnectionFactory, Wrapped<ConnectionFactory>, AutoCloseable {
+
+    private final ConnectionFactory delegate;
+    private final ConnectionBudget budget;
+
+    BudgetedConnectionFactory(ConnectionFactory delegate, ConnectionBudget budget) {
+        this.delegate = delegate;
+        this.budget = budget;
+    }
+
+    @Override
+    public Publisher<? extends Connection> create() {
+        return Mono.deferContextual(ctx -> {
+            if (!budget.isEnabled() || !ctx.getOrDefault(ConnectionBudget.HTTP_CONTEXT_KEY, false)) {
+                return Mono.<Connection>from(delegate.create());
+            }
+            return budget.acquire().flatMap(permit -> Mono.<Connection>from(delegate.create())
+                    .map(connection -> charged(connection, permit))
+                    .doOnError(e -> permit.release())
+                    .doOnCancel(permit::release)
+                    .switchIfEmpty(Mono.fromRunnable(permit::release)));
+        });
+    }
+
+    @Override
+    public ConnectionFactoryMetadata getMetadata() {
+        return delegate.getMetadata();
+    }
+
+    @Override
+    public ConnectionFactory unwrap() {
+        return delegate;
+    }
+
+    @Override
+    public void close() {
+        if (delegate instanceof Disposable disposable) {
+            disposable.dispose();
+        } else if (delegate instanceof Closeable closeable) {
+            Mono.from(closeable.close()).block();
+        }
+    }
+
+    private static Connection charged(Connection connection, ConnectionBudget.Permit permit) {
+        return (Connection) Proxy.newProxyInstance(
+                BudgetedConnectionFactory.class.getClassLoader(),
+                ClassUtils.getAllInterfacesForClass(connection.getClass()),
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                        return Mono.from(connection.close()).doFinally(sig -> permit.release());
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
@@ -0,0 +1,54 @@
+package com.banenor.filter;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GCRA shared by every node: the theoretical arrival time lives in Redis and
+ * is read, checked and advanced by one Lua script, timed by the Redis clock
+ * so node clock skew does not matter. Times are in microseconds.
+ */
+@Slf4j
+@Component
+public class ClusterRateLimiter {
+
+    private static final String PREFIX = "ratelimit:";
+
+    // returns remaining requests (>= 0) when admitted, or -(microseconds until allowed) - 1 when not
+    private static final RedisScript<Long> GCRA = RedisScript.of("""
+            local t = redis.call('TIME')
+            local now = tonumber(t[1]) * 1000000 + tonumber(t[2])
+            local interval = tonumber(ARGV[1])
+            local tolerance = tonumber(ARGV[2])
+            local tat = tonumber(redis.call('GET', KEYS[1]) or now)
+            if tat < now then tat = now end
+            local nxt = tat + interval
+            local allowAt = nxt - tolerance - interval
+            if now < allowAt then return -(allowAt - now) - 1 end
+            redis.call('SET', KEYS[1], nxt, 'PX', math.ceil((nxt - now) / 1000) + 1)
+            return math.floor((tolerance + interval - (nxt - now)) / interval)
+            """, Long.class);
+
+    private final ReactiveRedisTemplate<String, String> redis;
+
+    public ClusterRateLimiter(ReactiveRedisTemplate<String, String> reactiveStringRedisTemplate) {
+        this.redis = reactiveStringRedisTemplate;
+    }
+
+    Mono<GcraLimiter.Decision> tryAcquire(String key, long intervalNanos, long toleranceNanos) {
+        long intervalMicros = Math.max(1, TimeUnit.NANOSECONDS.toMicros(intervalNanos));
+        long toleranceMicros = TimeUnit.NANOSECONDS.toMicros(toleranceNanos);
+        return redis.execute(GCRA, List.of(PREFIX + key),
+                        List.of(Long.toString(intervalMicros), Long.toString(toleranceMicros)))
+                .next()
+                .map(result -> result >= 0
+                        ? new GcraLimiter.Decision(true, result, 0)
+                        : new GcraLimiter.Decision(false, 0, TimeUnit.MICROSECONDS.toNanos(-result - 1)));
+    }
+}
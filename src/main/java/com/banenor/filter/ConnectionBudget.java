@@ -0,0 +1,138 @@
+package com.banenor.filter;
+
+import com.banenor.config.AdmissionProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The R2DBC connections HTTP traffic may hold at once: the pool size minus
+ * the connections reserved for Kafka ingest. Admission control limits
+ * requests, but one admitted request can fan out into many queries; this
+ * budget is taken per connection, so however requests fan out, the reserved
+ * connections stay free for ingest. Connections are charged to it when the
+ * subscriber context carries {@link #HTTP_CONTEXT_KEY}, which
+ * {@link AdmissionControlFilter} sets for every HTTP request.
+ */
+@Slf4j
+@Component
+public class ConnectionBudget {
+
+    public static final String HTTP_CONTEXT_KEY = "admission.http";
+
+    /**
+     * One granted connection slot; released exactly once.
+     */
+    final class Permit {
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                ConnectionBudget.this.release();
+            }
+        }
+    }
+
+    private static final class Waiter {
+        static final int WAITING = 0;
+        static final int GRANTED = 1;
+        static final int CANCELLED = 2;
+
+        final MonoSink<Permit> sink;
+        final AtomicInteger state = new AtomicInteger(WAITING);
+
+        Waiter(MonoSink<Permit> sink) {
+            this.sink = sink;
+        }
+    }
+
+    private final AdmissionProperties properties;
+    private final int capacity;
+    private final Deque<Waiter> waiters = new ArrayDeque<>();
+    private int held;
+
+    public ConnectionBudget(AdmissionProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.capacity = properties.httpBudget();
+        Gauge.builder("admission.connections.held", this, ConnectionBudget::held)
+                .description("R2DBC connections currently held by HTTP requests")
+                .register(meterRegistry);
+        Gauge.builder("admission.connections.waiting", this, ConnectionBudget::waiting)
+                .description("HTTP queries waiting for a connection within the HTTP budget")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Waits for a free slot, up to admission.connection-wait; after that the
+     * query fails with a {@link RejectedExecutionException}, answered as 503.
+     */
+    Mono<Permit> acquire() {
+        return Mono.<Permit>create(sink -> {
+                    Waiter waiter = null;
+                    synchronized (this) {
+                        if (held < capacity) {
+                            held++;
+                        } else {
+                            waiter = new Waiter(sink);
+                            waiters.addLast(waiter);
+                        }
+                    }
+                    if (waiter == null) {
+                        sink.success(new Permit());
+                        return;
+                    }
+                    Waiter w = waiter;
+                    sink.onCancel(() -> {
+                        if (w.state.compareAndSet(Waiter.WAITING, Waiter.CANCELLED)) {
+                            synchronized (this) {
+                                waiters.remove(w);
+                            }
+                        } else {
+                            // the slot was handed over while we were cancelled
+                            release();
+                        }
+                    });
+                })
+                .timeout(properties.getConnectionWait(), Mono.error(() -> new RejectedExecutionException(
+                        "No database connection free within the HTTP budget of " + capacity)));
+    }
+
+    private void release() {
+        while (true) {
+            Waiter next;
+            synchronized (this) {
+                next = waiters.pollFirst();
+                if (next == null) {
+                    held--;
+                    return;
+                }
+            }
+            // the slot passes straight to the next waiter; held stays the same
+            if (next.state.compareAndSet(Waiter.WAITING, Waiter.GRANTED)) {
+                next.sink.success(new Permit());
+                return;
+            }
+        }
+    }
+
+    private synchronized int held() {
+        return held;
+    }
+
+    private synchronized int waiting() {
+        return waiters.size();
+    }
+}
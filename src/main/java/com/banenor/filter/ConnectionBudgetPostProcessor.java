@@ -0,0 +1,28 @@
+package com.banenor.filter;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Puts the application's R2DBC connection factory behind the {@link ConnectionBudget}.
+ */
+@Component
+public class ConnectionBudgetPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<ConnectionBudget> budget;
+
+    public ConnectionBudgetPostProcessor(ObjectProvider<ConnectionBudget> budget) {
+        this.budget = budget;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof ConnectionFactory factory && !(bean instanceof BudgetedConnectionFactory)
+                && "connectionFactory".equals(beanName)) {
+            return new BudgetedConnectionFactory(factory, budget.getObject());
+        }
+        return bean;
+    }
+}
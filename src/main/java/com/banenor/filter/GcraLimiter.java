@@ -0,0 +1,67 @@
+package com.banenor.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generic cell rate algorithm (GCRA): a token bucket stored as a single
+ * "theoretical arrival time" per key. A request is admitted if it would not
+ * push that time further than the burst tolerance ahead of now; admitting it
+ * advances the time by one emission interval. Each key is updated with a CAS
+ * loop, so concurrent requests never block, and keys live in a bounded
+ * Caffeine cache instead of a map cleared on a timer.
+ */
+class GcraLimiter {
+
+    /**
+     * Outcome of one admission check.
+     */
+    static final class Decision {
+        final boolean allowed;
+        final long remaining;
+        final long retryAfterNanos;
+
+        Decision(boolean allowed, long remaining, long retryAfterNanos) {
+            this.allowed = allowed;
+            this.remaining = remaining;
+            this.retryAfterNanos = retryAfterNanos;
+        }
+    }
+
+    private final Cache<String, AtomicLong> arrivals;
+
+    GcraLimiter(long maxKeys, Duration idleTimeout) {
+        this.arrivals = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleTimeout)
+                .build();
+    }
+
+    /**
+     * @param intervalNanos time between requests at the steady rate
+     * @param toleranceNanos burst allowance, burst size times the interval
+     */
+    Decision tryAcquire(String key, long intervalNanos, long toleranceNanos) {
+        long now = System.nanoTime();
+        AtomicLong tat = arrivals.get(key, k -> new AtomicLong(now));
+        while (true) {
+            long current = tat.get();
+            long base = Math.max(current, now);
+            long next = base + intervalNanos;
+            long allowAt = next - toleranceNanos - intervalNanos;
+            if (now < allowAt) {
+                return new Decision(false, 0, allowAt - now);
+            }
+            if (tat.compareAndSet(current, next)) {
+                return new Decision(true, (toleranceNanos + intervalNanos - (next - now)) / intervalNanos, 0);
+            }
+        }
+    }
+
+    long size() {
+        return arrivals.estimatedSize();
+    }
+}
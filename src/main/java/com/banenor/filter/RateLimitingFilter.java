@@ -1,52 +1,92 @@
 package com.banenor.filter;
 
+import com.banenor.config.RateLimitProperties;
+import com.banenor.config.RateLimitProperties.KeyBy;
+import com.banenor.config.RateLimitProperties.Mode;
+import com.banenor.security.VerifiedTokenCache;
 import com.banenor.util.IPUtils;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.TimeUnit;
 
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
 import org.springframework.lang.NonNull;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
+import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
+/**
+ * Per-route, per-client rate limiting with GCRA buckets. Every request is
+ * first checked against this node's buckets on the calling thread; in CLUSTER
+ * mode the requests that pass are then checked against the bucket shared in
+ * Redis, so a client already over its limit never costs a Redis call. If Redis
+ * is unreachable the local decision stands.
+ */
 @Slf4j
 @Component
 public class RateLimitingFilter implements WebFilter {
 
-    private final ConcurrentHashMap<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
-    private final MeterRegistry meterRegistry;
-
-    @Value("${rate.limit.requests-per-minute:12000}")
-    private int maxRequestsPerMinute;
-
-    @Value("${rate.limit.burst-size:2000}")
-    private int burstSize;
-
-    @Value("${rate.limit.enabled:true}")
-    private boolean rateLimitingEnabled;
-
-    @Value("${rate.limit.cleanup-threshold:10000}")
-    private int cleanupThreshold;
+    private static final class Rule {
+        final String name;
+        final PathPattern pattern;
+        final int requestsPerMinute;
+        final long intervalNanos;
+        final long toleranceNanos;
+        final KeyBy keyBy;
+
+        Rule(String name, PathPattern pattern, int requestsPerMinute, int burstSize, KeyBy keyBy) {
+            this.name = name;
+            this.pattern = pattern;
+            this.requestsPerMinute = requestsPerMinute;
+            this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(1, requestsPerMinute);
+            this.toleranceNanos = intervalNanos * Math.max(0, burstSize);
+            this.keyBy = keyBy;
+        }
+    }
 
-    @Value("${rate.limit.cleanup-interval-ms:300000}")
-    private long cleanupInterval;
+    private final RateLimitProperties properties;
+    private final ClusterRateLimiter clusterLimiter;
+    private final VerifiedTokenCache tokenCache;
+    private final MeterRegistry meterRegistry;
 
-    public RateLimitingFilter(MeterRegistry meterRegistry) {
+    private final GcraLimiter localLimiter;
+    private final List<Rule> routes = new ArrayList<>();
+    private final Rule defaultRule;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public RateLimitingFilter(RateLimitProperties properties,
+                              ClusterRateLimiter clusterLimiter,
+                              VerifiedTokenCache tokenCache,
+                              MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.clusterLimiter = clusterLimiter;
+        this.tokenCache = tokenCache;
         this.meterRegistry = meterRegistry;
-        meterRegistry.gauge("rate_limiting.active_clients", requestCounts, ConcurrentHashMap::size);
+        this.localLimiter = new GcraLimiter(properties.getMaxKeys(), properties.getKeyIdleTimeout());
+        PathPatternParser parser = PathPatternParser.defaultInstance;
+        properties.getRoutes().forEach((name, route) -> routes.add(new Rule(name, parser.parse(route.getPath()),
+                route.getRequestsPerMinute(), route.getBurstSize(), route.getKeyBy())));
+        this.defaultRule = new Rule("default", null,
+                properties.getRequestsPerMinute(), properties.getBurstSize(), properties.getKeyBy());
+        meterRegistry.gauge("rate_limiting.active_clients", localLimiter, GcraLimiter::size);
+        log.info("Rate limiting {} in {} mode: {}/min (burst {}), {} route rule(s)",
+                properties.isEnabled() ? "enabled" : "disabled", properties.getMode(),
+                properties.getRequestsPerMinute(), properties.getBurstSize(), routes.size());
     }
 
     @Override
@@ -65,47 +105,76 @@ public class RateLimitingFilter implements WebFilter {
             return chain.filter(exchange);
         }
 
-        if (!rateLimitingEnabled || shouldSkipRateLimit(exchange)) {
+        if (!properties.isEnabled() || shouldSkipRateLimit(exchange)) {
             return chain.filter(exchange);
         }
 
-        return Mono.defer(() -> {
-            String clientIP;
-            try {
-                String xff = exchange.getRequest().getHeaders().getFirst("X-Forwarded-For");
-                String xri = exchange.getRequest().getHeaders().getFirst("X-Real-IP");
-                String remote = exchange.getRequest().getRemoteAddress() != null
-                        ? exchange.getRequest().getRemoteAddress().getAddress().getHostAddress()
-                        : "unknown";
-                clientIP = IPUtils.extractClientIP(xff, xri, remote);
-
-                log.debug("Processing request from client IP: {}", clientIP);
-
-                requestCounts.putIfAbsent(clientIP, new AtomicInteger(0));
-                int requests = requestCounts.get(clientIP).incrementAndGet();
-                meterRegistry.counter("rate_limiting.requests", "client_ip", IPUtils.maskIP(clientIP)).increment();
-
-                if (requests > maxRequestsPerMinute) {
-                    if (requests <= maxRequestsPerMinute + burstSize) {
-                        addRateLimitHeaders(exchange, requests);
-                        log.debug("Client IP {} within burst limit: {} requests", IPUtils.maskIP(clientIP), requests);
-                        return chain.filter(exchange)
-                                .doOnError(e -> handleFilterError(e, clientIP));
+        Rule rule = resolve(exchange.getRequest().getPath().pathWithinApplication());
+        String client = clientKey(exchange, rule);
+        String key = rule.name + ":" + client;
+
+        GcraLimiter.Decision local = localLimiter.tryAcquire(key, rule.intervalNanos, rule.toleranceNanos);
+        if (!local.allowed) {
+            count(rule, "rejected_local");
+            return handleRateLimitExceeded(exchange, rule, client, local);
+        }
+        if (properties.getMode() != Mode.CLUSTER) {
+            return admit(exchange, chain, rule, client, local);
+        }
+        return clusterLimiter.tryAcquire(key, rule.intervalNanos, rule.toleranceNanos)
+                .onErrorResume(e -> {
+                    log.debug("Cluster rate limit check failed, using local decision: {}", e.getMessage());
+                    meterRegistry.counter("rate_limiting.cluster_errors").increment();
+                    return Mono.just(local);
+                })
+                .defaultIfEmpty(local)
+                .flatMap(decision -> {
+                    if (!decision.allowed) {
+                        count(rule, "rejected_cluster");
+                        return handleRateLimitExceeded(exchange, rule, client, decision);
                     }
-                    log.warn("Rate limit exceeded for client IP: {} ({} requests)", IPUtils.maskIP(clientIP), requests);
-                    return handleRateLimitExceeded(exchange, clientIP);
-                }
+                    return admit(exchange, chain, rule, client, decision);
+                });
+    }
+
+    private Mono<Void> admit(ServerWebExchange exchange, WebFilterChain chain, Rule rule,
+                             String client, GcraLimiter.Decision decision) {
+        count(rule, "allowed");
+        addRateLimitHeaders(exchange, rule, decision.remaining);
+        return chain.filter(exchange)
+                .doOnError(e -> handleFilterError(e, rule, client));
+    }
 
-                addRateLimitHeaders(exchange, requests);
-                return chain.filter(exchange)
-                        .doOnError(e -> handleFilterError(e, clientIP));
+    private Rule resolve(PathContainer path) {
+        for (Rule rule : routes) {
+            if (rule.pattern.matches(path)) {
+                return rule;
+            }
+        }
+        return defaultRule;
+    }
 
-            } catch (Exception e) {
-                log.error("Unexpected error in rate limiting filter: {}", e.getMessage(), e);
-                meterRegistry.counter("rate_limiting.unexpected_errors").increment();
-                return chain.filter(exchange);
+    /**
+     * The authenticated user if this token was already verified by the JWT
+     * filter, otherwise the client IP. Unverified tokens are never trusted for
+     * the key, so a forged subject cannot borrow another user's bucket.
+     */
+    private String clientKey(ServerWebExchange exchange, Rule rule) {
+        if (rule.keyBy == KeyBy.PRINCIPAL) {
+            String auth = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+            if (auth != null && auth.startsWith("Bearer ")) {
+                VerifiedTokenCache.VerifiedToken verified = tokenCache.get(auth.substring(7));
+                if (verified != null) {
+                    return "user:" + verified.getUser().getUsername();
+                }
             }
-        }).subscribeOn(Schedulers.boundedElastic());
+        }
+        String xff = exchange.getRequest().getHeaders().getFirst("X-Forwarded-For");
+        String xri = exchange.getRequest().getHeaders().getFirst("X-Real-IP");
+        String remote = exchange.getRequest().getRemoteAddress() != null
+                ? exchange.getRequest().getRemoteAddress().getAddress().getHostAddress()
+                : "unknown";
+        return "ip:" + IPUtils.extractClientIP(xff, xri, remote);
     }
 
     private boolean shouldSkipRateLimit(ServerWebExchange exchange) {
@@ -113,65 +182,49 @@ public class RateLimitingFilter implements WebFilter {
         return path.startsWith("/actuator/health") || path.startsWith("/actuator/info");
     }
 
-    private Mono<Void> handleRateLimitExceeded(ServerWebExchange exchange, String clientIP) {
-        meterRegistry.counter("rate_limiting.exceeded", "client_ip", IPUtils.maskIP(clientIP)).increment();
-        log.warn("Responding 429 for IP: {}", IPUtils.maskIP(clientIP));
+    private Mono<Void> handleRateLimitExceeded(ServerWebExchange exchange, Rule rule, String client,
+                                               GcraLimiter.Decision decision) {
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(decision.retryAfterNanos + 999_999_999L));
+        log.debug("Responding 429 for {} on rule {}; retry in {}s", mask(client), rule.name, retryAfter);
 
         exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
         exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
-        exchange.getResponse().getHeaders().set("X-RateLimit-Limit", String.valueOf(maxRequestsPerMinute));
+        exchange.getResponse().getHeaders().set("X-RateLimit-Limit", String.valueOf(rule.requestsPerMinute));
         exchange.getResponse().getHeaders().set("X-RateLimit-Remaining", "0");
-        exchange.getResponse().getHeaders().set("Retry-After", "60");
+        exchange.getResponse().getHeaders().set("Retry-After", String.valueOf(retryAfter));
 
         String body = String.format(
-                "{\"error\":\"Too Many Requests\",\"message\":\"Rate limit exceeded. Retry after 60s.\",\"status\":%d}",
-                HttpStatus.TOO_MANY_REQUESTS.value()
+                "{\"error\":\"Too Many Requests\",\"message\":\"Rate limit exceeded. Retry after %ds.\",\"status\":%d}",
+                retryAfter, HttpStatus.TOO_MANY_REQUESTS.value()
         );
         byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
 
         return exchange.getResponse()
-                .writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(bytes)))
-                .subscribeOn(Schedulers.boundedElastic());
+                .writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(bytes)));
     }
 
-    private void addRateLimitHeaders(ServerWebExchange exchange, int requests) {
-        exchange.getResponse().getHeaders().set("X-RateLimit-Limit", String.valueOf(maxRequestsPerMinute));
-        exchange.getResponse().getHeaders().set("X-RateLimit-Remaining",
-                String.valueOf(Math.max(0, maxRequestsPerMinute - requests)));
+    private void addRateLimitHeaders(ServerWebExchange exchange, Rule rule, long remaining) {
+        exchange.getResponse().getHeaders().set("X-RateLimit-Limit", String.valueOf(rule.requestsPerMinute));
+        exchange.getResponse().getHeaders().set("X-RateLimit-Remaining", String.valueOf(Math.max(0, remaining)));
     }
 
-    private void handleFilterError(Throwable e, String clientIP) {
-        log.error("Error processing request for IP {}: {}", IPUtils.maskIP(clientIP), e.getMessage());
+    private void handleFilterError(Throwable e, Rule rule, String client) {
+        log.error("Error processing request for {}: {}", mask(client), e.getMessage());
         meterRegistry.counter("rate_limiting.errors",
-                        "client_ip", IPUtils.maskIP(clientIP),
+                        "rule", rule.name,
                         "error", e.getClass().getSimpleName())
                 .increment();
     }
 
-    @Scheduled(fixedRate = 60000)
-    public void resetCounts() {
-        try {
-            int prev = requestCounts.size();
-            requestCounts.clear();
-            log.debug("Rate limit counters reset; cleared {} entries", prev);
-            meterRegistry.counter("rate_limiting.resets").increment();
-        } catch (Exception e) {
-            log.error("Error during rate limit reset: {}", e.getMessage(), e);
-            meterRegistry.counter("rate_limiting.reset_errors").increment();
-        }
+    private void count(Rule rule, String outcome) {
+        counters.computeIfAbsent(rule.name + "|" + outcome, k -> Counter.builder("rate_limiting.requests")
+                        .tag("rule", rule.name)
+                        .tag("outcome", outcome)
+                        .register(meterRegistry))
+                .increment();
     }
 
-    @Scheduled(fixedRateString = "#{${rate.limit.cleanup-interval-ms:300000}}")
-    public void cleanup() {
-        try {
-            if (requestCounts.size() > cleanupThreshold) {
-                log.warn("High entries ({})—performing emergency cleanup", requestCounts.size());
-                requestCounts.clear();
-                meterRegistry.counter("rate_limiting.emergency_cleanups").increment();
-            }
-        } catch (Exception e) {
-            log.error("Error during rate limit cleanup: {}", e.getMessage(), e);
-            meterRegistry.counter("rate_limiting.cleanup_errors").increment();
-        }
+    private static String mask(String client) {
+        return client.startsWith("ip:") ? "ip:" + IPUtils.maskIP(client.substring(3)) : client;
     }
 }
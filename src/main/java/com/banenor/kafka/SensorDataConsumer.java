@@ -1,11 +1,18 @@
 package com.banenor.kafka;
 
+import com.banenor.config.StartupTimeline;
 import com.banenor.dto.RawDataResponse;
+import com.banenor.scheduler.Workload;
+import com.banenor.scheduler.WorkloadSchedulers;
 import com.banenor.service.DataService;
 import com.banenor.service.RealtimeAlertService;
+import com.banenor.service.TrainStationResolver;
+import com.banenor.websocket.StreamTopic;
 import com.banenor.websocket.WebSocketBroadcaster;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
@@ -19,9 +26,9 @@ import org.springframework.boot.context.event.ApplicationStartedEvent;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 import reactor.kafka.receiver.KafkaReceiver;
 import reactor.kafka.receiver.ReceiverOffset;
 import reactor.kafka.receiver.ReceiverRecord;
@@ -30,6 +37,8 @@ import reactor.util.retry.Retry;
 import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Slf4j
 @Component
@@ -42,6 +51,9 @@ public class SensorDataConsumer {
     private final WebSocketBroadcaster broadcaster;
     private final MeterRegistry meterRegistry;
     private final ObjectMapper objectMapper;
+    private final WorkloadSchedulers schedulers;
+    private final StartupTimeline startupTimeline;
+    private final TrainStationResolver stationResolver;
 
     @Value("${kafka.sensor.topic:sensor-data-topic}")
     private String sensorTopic;
@@ -64,6 +76,12 @@ public class SensorDataConsumer {
     private final AtomicBoolean healthy    = new AtomicBoolean(true);
     private volatile     Throwable  lastError;
     private             Timer      processingTimer;
+    private             Timer      drainTimer;
+    private             Counter    abandonedCounter;
+    private volatile     AtomicInteger inFlight = new AtomicInteger();
+    private volatile     Disposable subscription;
+    // committing any offset commits everything acknowledged before it
+    private final AtomicReference<ReceiverOffset> lastAcknowledged = new AtomicReference<>();
 
     @PostConstruct
     public void init() {
@@ -71,29 +89,93 @@ public class SensorDataConsumer {
                 .description("Latency of sensor data processing pipeline")
                 .publishPercentiles(0.5, 0.95, 0.99)
                 .register(meterRegistry);
+        this.drainTimer = Timer.builder("sensor.data.consumer.drain.duration")
+                .description("Time taken to drain in-flight records on shutdown")
+                .register(meterRegistry);
+        this.abandonedCounter = Counter.builder("sensor.data.consumer.drain.abandoned")
+                .description("Records still in flight when the shutdown drain timed out")
+                .register(meterRegistry);
+        Gauge.builder("sensor.data.consumer.inflight", this, c -> c.inFlight.get())
+                .description("Records received but not yet processed")
+                .register(meterRegistry);
         log.debug("SensorDataConsumer initialized");
     }
 
+    /**
+     * Drains the consumer instead of sleeping out a fixed timeout: fetching is
+     * paused, records already received are given up to the shutdown timeout
+     * to finish and be acknowledged, the acknowledged offsets are committed
+     * and waited for, and only then is the receiver closed. Records still in
+     * flight at the deadline are not acknowledged and are redelivered to the
+     * next owner of their partition.
+     */
     @PreDestroy
     public void shutdown() {
-        if (isRunning.compareAndSet(true, false)) {
-            log.info("Stopping consumer, waiting up to {}s for in-flight work …", shutdownTimeoutSeconds);
-            try {
-                Thread.sleep(Duration.ofSeconds(shutdownTimeoutSeconds).toMillis());
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                log.warn("Interrupted while waiting for shutdown", e);
-            }
+        if (!isRunning.compareAndSet(true, false)) {
+            return;
+        }
+        long start = System.nanoTime();
+        log.info("Draining consumer: {} record(s) in flight, waiting up to {}s", inFlight.get(), shutdownTimeoutSeconds);
+
+        kafkaReceiver.doOnConsumer(consumer -> {
+                    consumer.pause(consumer.assignment());
+                    return consumer.assignment().size();
+                })
+                .timeout(Duration.ofSeconds(5))
+                .onErrorResume(e -> {
+                    log.warn("Could not pause consumer before draining: {}", e.getMessage());
+                    return Mono.empty();
+                })
+                .block();
+
+        Boolean drained = Flux.interval(Duration.ZERO, Duration.ofMillis(50))
+                .map(tick -> inFlight.get() == 0)
+                .filter(Boolean::booleanValue)
+                .next()
+                .timeout(Duration.ofSeconds(shutdownTimeoutSeconds), Mono.just(false))
+                .block();
+
+        int abandoned = inFlight.get();
+        commitAcknowledged();
+        Disposable running = subscription;
+        if (running != null) {
+            running.dispose();
         }
+        long elapsed = System.nanoTime() - start;
+        drainTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        if (Boolean.TRUE.equals(drained)) {
+            log.info("Consumer drained in {} ms", TimeUnit.NANOSECONDS.toMillis(elapsed));
+        } else {
+            abandonedCounter.increment(abandoned);
+            log.warn("Drain timed out after {}s; {} record(s) left unacknowledged for redelivery",
+                    shutdownTimeoutSeconds, abandoned);
+        }
+    }
+
+    /**
+     * Commits the acknowledged offsets while the consumer is still open;
+     * disposing the subscription would only start an asynchronous commit
+     * that the JVM may not wait for.
+     */
+    private void commitAcknowledged() {
+        ReceiverOffset last = lastAcknowledged.getAndSet(null);
+        if (last == null) {
+            return;
+        }
+        last.commit()
+                .timeout(Duration.ofSeconds(5))
+                .doOnSuccess(v -> log.info("Committed acknowledged offsets before closing the consumer"))
+                .onErrorResume(e -> {
+                    log.warn("Could not commit acknowledged offsets on shutdown: {}", e.getMessage());
+                    return Mono.empty();
+                })
+                .block();
     }
 
     @EventListener(ApplicationStartedEvent.class)
     public void startConsumer() {
         if (!isRunning.getAndSet(true)) {
-            kafkaReceiver.receive()
-                    .publishOn(Schedulers.boundedElastic())
-                    .bufferTimeout(batchSize, Duration.ofSeconds(5))
-                    .flatMap(batch -> Flux.fromIterable(batch).flatMap(this::processRecord))
+            subscription = Flux.defer(this::consume)
                     .doOnError(this::handleConsumerError)
                     .doOnNext(ignored -> healthy.set(true))
                     .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
@@ -110,6 +192,22 @@ public class SensorDataConsumer {
         }
     }
 
+    /**
+     * One subscription to the receiver. Each gets its own in-flight counter,
+     * so records lost with a failed subscription do not hold up a later drain.
+     */
+    private Flux<Void> consume() {
+        AtomicInteger pending = new AtomicInteger();
+        inFlight = pending;
+        return kafkaReceiver.receive()
+                .doOnNext(record -> pending.incrementAndGet())
+                .publishOn(schedulers.get(Workload.INGEST))
+                .bufferTimeout(batchSize, Duration.ofSeconds(5))
+                .flatMap(batch -> Flux.fromIterable(batch)
+                        .flatMap(record -> processRecord(record)
+                                .doFinally(sig -> pending.decrementAndGet())));
+    }
+
     @Bean
     @ConditionalOnProperty(value = "kafka.consumer.health-check-enabled", havingValue = "true")
     public HealthIndicator kafkaConsumerHealthIndicator() {
@@ -153,10 +251,15 @@ public class SensorDataConsumer {
                         return Mono.empty();
                     }
                     return dataService.processSensorData(payload)
-                            .then(Mono.fromRunnable(() -> {
-                                broadcaster.publish(m, "SENSOR_DATA");
-                                log.debug("Broadcasted SENSOR_DATA for trainNo={}", m.getTrainNo());
-                            }))
+                            .then(stationResolver.resolve(m.getTrainNo())
+                                    .onErrorResume(ex -> {
+                                        log.warn("Station lookup failed for trainNo={} : {}", m.getTrainNo(), ex.getMessage());
+                                        return Mono.just(TrainStationResolver.UNKNOWN);
+                                    })
+                                    .doOnNext(station -> {
+                                        broadcaster.publish(m, StreamTopic.of("SENSOR_DATA", m.getTrainNo(), station));
+                                        log.debug("Broadcasted SENSOR_DATA for trainNo={}", m.getTrainNo());
+                                    }))
                             .then(alertService.monitorAndAlert(m.getTrainNo(), defaultAlertEmail, null, null)
                                     .onErrorResume(ex -> {
                                         log.warn("Alert dispatch failed for trainNo={} : {}", m.getTrainNo(), ex.getMessage());
@@ -170,7 +273,10 @@ public class SensorDataConsumer {
                 .doOnError(e -> {
                     handlingProcessingError(record, e);
                 })
-                .doOnSuccess(ignored -> acknowledge(record))
+                .doOnSuccess(ignored -> {
+                    acknowledge(record);
+                    startupTimeline.recordFirstRecord();
+                })
                 .doFinally(sig -> {
                     long latency = System.nanoTime() - start;
                     processingTimer.record(latency, TimeUnit.NANOSECONDS);
@@ -180,6 +286,7 @@ public class SensorDataConsumer {
     private void acknowledge(ReceiverRecord<String, ?> record) {
         ReceiverOffset offset = record.receiverOffset();
         offset.acknowledge();
+        lastAcknowledged.set(offset);
         meterRegistry.counter("sensor.data.processed",
                         "partition", String.valueOf(record.partition()),
                         "topic",     record.topic())
@@ -0,0 +1,39 @@
+package com.banenor.relay;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.Set;
+
+/**
+ * Single-node relay: nothing leaves or enters the process.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "stream.relay.mode", havingValue = "LOCAL", matchIfMissing = true)
+public class LocalStreamRelay implements StreamRelay {
+
+    public LocalStreamRelay() {
+        log.info("Live stream relay: local only");
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+
+    @Override
+    public void publish(RelayMessage message) {
+    }
+
+    @Override
+    public Flux<RelayMessage> inbound(RelayScope scope) {
+        return Flux.never();
+    }
+
+    @Override
+    public void setInterest(RelayScope scope, Set<String> keys) {
+    }
+}
@@ -0,0 +1,204 @@
+package com.banenor.relay;
+
+import com.banenor.config.StreamRelayProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Relays live-stream events over Redis pub/sub. Every event is published on a
+ * channel named after its routing key, and each node pattern-subscribes only
+ * to the keys its local clients want, so uninteresting traffic never reaches it.
+ * An event matching several of a node's patterns is delivered once.
+ * <p>
+ * Publishes complete asynchronously and may reach Redis out of order, so
+ * duplicates are recognised by remembering a window of recent sequence
+ * numbers per origin rather than the highest one seen.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "stream.relay.mode", havingValue = "REDIS")
+public class RedisStreamRelay implements StreamRelay {
+
+    private final ReactiveRedisTemplate<String, String> redis;
+    private final ReactiveRedisMessageListenerContainer container;
+    private final ObjectMapper objectMapper;
+    private final String prefix;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicLong seq = new AtomicLong();
+
+    private final Map<RelayScope, Sinks.Many<RelayMessage>> inbound = new EnumMap<>(RelayScope.class);
+    // scope → channel pattern → active subscription
+    private final Map<RelayScope, Map<String, Disposable>> subscriptions = new EnumMap<>(RelayScope.class);
+    // recent sequences seen per origin node; one pmessage arrives per matching pattern
+    private final Cache<String, SeenWindow> seenByOrigin;
+
+    private final Function<String, SeenWindow> seenFactory;
+
+    private final Counter published;
+    private final Counter received;
+    private final Counter duplicates;
+    private final Counter failures;
+
+    public RedisStreamRelay(ReactiveRedisConnectionFactory connectionFactory,
+                            ReactiveRedisTemplate<String, String> reactiveStringRedisTemplate,
+                            ObjectMapper objectMapper,
+                            StreamRelayProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.redis = reactiveStringRedisTemplate;
+        this.container = new ReactiveRedisMessageListenerContainer(connectionFactory);
+        this.objectMapper = objectMapper;
+        this.prefix = properties.getChannelPrefix();
+        int window = Math.max(1, properties.getDedupWindow());
+        this.seenByOrigin = Caffeine.newBuilder()
+                .expireAfterAccess(properties.getOriginIdle())
+                .build();
+        this.seenFactory = origin -> new SeenWindow(window);
+        for (RelayScope scope : RelayScope.values()) {
+            inbound.put(scope, Sinks.many().multicast().directBestEffort());
+            subscriptions.put(scope, new HashMap<>());
+        }
+        this.published = meterRegistry.counter("stream.relay.published");
+        this.received = meterRegistry.counter("stream.relay.received");
+        this.duplicates = meterRegistry.counter("stream.relay.duplicates");
+        this.failures = meterRegistry.counter("stream.relay.errors");
+        meterRegistry.gauge("stream.relay.patterns", subscriptions,
+                m -> m.values().stream().mapToInt(Map::size).sum());
+        log.info("Live stream relay: Redis pub/sub on '{}:*' as node {}", prefix, nodeId);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void publish(RelayMessage message) {
+        message.setOrigin(nodeId);
+        message.setSeq(seq.incrementAndGet());
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            failures.increment();
+            log.error("Could not serialize relay message {}: {}", message.getType(), e.getMessage());
+            return;
+        }
+        redis.convertAndSend(channel(message.getScope(), RelayKeys.of(message)), json)
+                .subscribe(n -> published.increment(), err -> {
+                    failures.increment();
+                    log.warn("Relay publish failed: {}", err.getMessage());
+                });
+    }
+
+    @Override
+    public Flux<RelayMessage> inbound(RelayScope scope) {
+        return inbound.get(scope).asFlux();
+    }
+
+    @Override
+    public synchronized void setInterest(RelayScope scope, Set<String> keys) {
+        Set<String> wanted = new HashSet<>();
+        if (keys == null) {
+            wanted.add(channel(scope, RelayKeys.ANY));
+        } else {
+            keys.forEach(k -> wanted.add(channel(scope, k)));
+        }
+        Map<String, Disposable> current = subscriptions.get(scope);
+        current.entrySet().removeIf(e -> {
+            if (wanted.contains(e.getKey())) {
+                return false;
+            }
+            e.getValue().dispose();
+            return true;
+        });
+        for (String pattern : wanted) {
+            current.computeIfAbsent(pattern, p -> container.receive(PatternTopic.of(p))
+                    .subscribe(m -> onMessage(scope, m.getMessage()),
+                            err -> log.error("Relay subscription {} failed: {}", p, err.getMessage())));
+        }
+        log.debug("Relay interest for {} now {}", scope, wanted);
+    }
+
+    /**
+     * The copies of one message arrive back to back, one per matching
+     * pattern, so a sequence number still in the origin's window is a duplicate.
+     */
+    private synchronized void onMessage(RelayScope scope, String json) {
+        RelayMessage message;
+        try {
+            message = objectMapper.readValue(json, RelayMessage.class);
+        } catch (JsonProcessingException e) {
+            failures.increment();
+            log.warn("Discarding malformed relay message: {}", e.getMessage());
+            return;
+        }
+        if (nodeId.equals(message.getOrigin())) {
+            return;
+        }
+        if (!seenByOrigin.get(message.getOrigin(), seenFactory).markSeen(message.getSeq())) {
+            duplicates.increment();
+            return;
+        }
+        received.increment();
+        inbound.get(scope).tryEmitNext(message);
+    }
+
+    /**
+     * The last sequence numbers of one origin, each in the slot seq % size;
+     * a slot is overwritten once the origin has published size more messages.
+     */
+    private static final class SeenWindow {
+        private final long[] slots;
+
+        SeenWindow(int size) {
+            this.slots = new long[size];
+            Arrays.fill(slots, -1L);
+        }
+
+        /** False if seq was already seen. */
+        boolean markSeen(long seq) {
+            int slot = (int) Math.floorMod(seq, (long) slots.length);
+            if (slots[slot] == seq) {
+                return false;
+            }
+            slots[slot] = seq;
+            return true;
+        }
+    }
+
+    private String channel(RelayScope scope, String key) {
+        return prefix + ":" + scope.name().toLowerCase(Locale.ROOT) + ":" + key;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        subscriptions.values().forEach(m -> m.values().forEach(Disposable::dispose));
+        container.destroy();
+    }
+}
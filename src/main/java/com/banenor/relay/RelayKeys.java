@@ -0,0 +1,42 @@
+package com.banenor.relay;
+
+import java.util.Locale;
+
+/**
+ * Routing keys of relayed events and of node interest. A "*" segment in an
+ * interest key matches any value.
+ * <ul>
+ *   <li>WEBSOCKET: {@code <trainNo>}, or {@code all} for events without a train</li>
+ *   <li>AXLES: {@code <station>:<trainNo>:<TP>}, station {@code unknown} if unresolved</li>
+ * </ul>
+ */
+public final class RelayKeys {
+
+    public static final String ANY = "*";
+    public static final String NO_TRAIN = "all";
+    public static final String UNKNOWN_STATION = "unknown";
+
+    private RelayKeys() {
+    }
+
+    public static String of(RelayMessage message) {
+        return switch (message.getScope()) {
+            case WEBSOCKET -> websocket(message.getTrainNo());
+            case AXLES -> axles(message.getStation(), message.getTrainNo(), message.getMeasurementPoint());
+        };
+    }
+
+    public static String websocket(Integer trainNo) {
+        return trainNo == null ? NO_TRAIN : trainNo.toString();
+    }
+
+    public static String axles(String station, Integer trainNo, String measurementPoint) {
+        return (station == null ? UNKNOWN_STATION : upper(station)) + ":"
+                + (trainNo == null ? ANY : trainNo) + ":"
+                + (measurementPoint == null ? ANY : upper(measurementPoint));
+    }
+
+    private static String upper(String value) {
+        return value.trim().toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,26 @@
+package com.banenor.relay;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A live-stream event as it travels between nodes. The routing attributes
+ * mirror those the local hubs dispatch on; the payload is the event as JSON.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RelayMessage {
+    private String origin;
+    private long seq;
+    private RelayScope scope;
+    private String type;
+    private Integer trainNo;
+    private String station;
+    private String measurementPoint;
+    private JsonNode payload;
+}
@@ -0,0 +1,11 @@
+package com.banenor.relay;
+
+/**
+ * The local hub a relayed event is delivered to on the receiving node.
+ */
+public enum RelayScope {
+    /** /ws/stream sessions, via WebSocketBroadcaster. */
+    WEBSOCKET,
+    /** Axle SSE subscribers, via AxleStreamHub. */
+    AXLES
+}
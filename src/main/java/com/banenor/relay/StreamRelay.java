@@ -0,0 +1,35 @@
+package com.banenor.relay;
+
+import reactor.core.publisher.Flux;
+
+import java.util.Set;
+
+/**
+ * Carries live-stream events between application nodes, so a client sees
+ * events consumed on any node. Each node declares the routing keys its own
+ * clients want and only receives those.
+ */
+public interface StreamRelay {
+
+    /**
+     * False in single-node mode, where publishing and interest are no-ops.
+     */
+    boolean isEnabled();
+
+    /**
+     * Sends a locally published event to the other interested nodes.
+     */
+    void publish(RelayMessage message);
+
+    /**
+     * Events published by other nodes for the given scope.
+     */
+    Flux<RelayMessage> inbound(RelayScope scope);
+
+    /**
+     * Replaces this node's interest for a scope.
+     *
+     * @param keys routing keys (see {@link RelayKeys}); null means every event of the scope
+     */
+    void setInterest(RelayScope scope, Set<String> keys);
+}
@@ -0,0 +1,104 @@
+package com.banenor.relay;
+
+import com.banenor.dto.AxlesDataDTO;
+import com.banenor.service.AxleStreamHub;
+import com.banenor.service.AxleStreamKey;
+import com.banenor.websocket.SessionSubscription.Dimension;
+import com.banenor.websocket.StreamTopic;
+import com.banenor.websocket.SubscriptionRegistry;
+import com.banenor.websocket.WebSocketBroadcaster;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Connects the local hubs to the {@link StreamRelay}: delivers events relayed
+ * from other nodes to local clients, and keeps this node's relay interest in
+ * line with what its clients are subscribed to.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StreamRelayBridge {
+
+    private final StreamRelay relay;
+    private final WebSocketBroadcaster broadcaster;
+    private final SubscriptionRegistry subscriptions;
+    private final AxleStreamHub axleHub;
+    private final ObjectMapper objectMapper;
+    private final Disposable.Composite inbound = Disposables.composite();
+
+    @PostConstruct
+    public void start() {
+        if (!relay.isEnabled()) {
+            return;
+        }
+        inbound.add(relay.inbound(RelayScope.WEBSOCKET).subscribe(this::deliverWebSocket,
+                err -> log.error("WebSocket relay stream failed: {}", err.getMessage(), err)));
+        inbound.add(relay.inbound(RelayScope.AXLES).subscribe(this::deliverAxles,
+                err -> log.error("Axle relay stream failed: {}", err.getMessage(), err)));
+        subscriptions.addChangeListener(this::refreshWebSocketInterest);
+        axleHub.addKeyListener(this::refreshAxleInterest);
+        refreshWebSocketInterest();
+        refreshAxleInterest();
+    }
+
+    private void deliverWebSocket(RelayMessage message) {
+        StreamTopic topic = StreamTopic.builder()
+                .type(message.getType())
+                .trainNo(message.getTrainNo())
+                .station(message.getStation())
+                .build();
+        broadcaster.publishLocal(message.getPayload(), topic);
+    }
+
+    private void deliverAxles(RelayMessage message) {
+        try {
+            AxlesDataDTO event = objectMapper.treeToValue(message.getPayload(), AxlesDataDTO.class);
+            axleHub.publish(event, message.getStation());
+        } catch (JsonProcessingException e) {
+            log.warn("Discarding relayed axle event for train {}: {}", message.getTrainNo(), e.getMessage());
+        }
+    }
+
+    /**
+     * Sessions without a train filter want every event; otherwise only their
+     * trains plus the events that carry no train at all.
+     */
+    private void refreshWebSocketInterest() {
+        if (subscriptions.activeSessions() == 0) {
+            relay.setInterest(RelayScope.WEBSOCKET, Set.of());
+        } else if (subscriptions.hasWildcard(Dimension.TRAIN)) {
+            relay.setInterest(RelayScope.WEBSOCKET, null);
+        } else {
+            Set<String> keys = new HashSet<>();
+            keys.add(RelayKeys.websocket(null));
+            keys.addAll(subscriptions.subscribedValues(Dimension.TRAIN));
+            relay.setInterest(RelayScope.WEBSOCKET, keys);
+        }
+    }
+
+    private void refreshAxleInterest() {
+        Set<String> keys = new HashSet<>();
+        for (AxleStreamKey key : axleHub.keys()) {
+            keys.add(key.isStationWide()
+                    ? RelayKeys.axles(key.getStation(), null, key.getMeasurementPoint())
+                    : RelayKeys.ANY + ":" + key.getTrainNo() + ":" + key.getMeasurementPoint());
+        }
+        relay.setInterest(RelayScope.AXLES, keys);
+    }
+
+    @PreDestroy
+    public void stop() {
+        inbound.dispose();
+    }
+}
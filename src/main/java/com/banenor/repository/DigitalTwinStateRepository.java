@@ -0,0 +1,9 @@
+package com.banenor.repository;
+
+import com.banenor.model.DigitalTwinState;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+
+public interface DigitalTwinStateRepository
+        extends R2dbcRepository<DigitalTwinState, Integer>,
+        DigitalTwinStateRepositoryCustom {
+}
@@ -0,0 +1,19 @@
+package com.banenor.repository;
+
+import com.banenor.model.DigitalTwinState;
+import reactor.core.publisher.Mono;
+
+/**
+ * Upsert for the latest-state table, which the derived save() cannot do
+ * since the asset id is assigned rather than generated.
+ */
+public interface DigitalTwinStateRepositoryCustom {
+
+    /**
+     * Inserts or replaces the state of an asset. An older recordedAt never
+     * overwrites a newer one.
+     *
+     * @return rows affected (0 if the stored state was newer)
+     */
+    Mono<Long> upsert(DigitalTwinState state);
+}
@@ -0,0 +1,52 @@
+package com.banenor.repository;
+
+import com.banenor.model.DigitalTwinState;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+@RequiredArgsConstructor
+public class DigitalTwinStateRepositoryCustomImpl implements DigitalTwinStateRepositoryCustom {
+
+    private static final String UPSERT = """
+            INSERT INTO digital_twin_state
+                   (asset_id, recorded_at, metric_value, metric_type,
+                    component_name, location, status, risk_score, updated_at)
+            VALUES (:assetId, :recordedAt, :metricValue, :metricType,
+                    :componentName, :location, :status, :riskScore, CURRENT_TIMESTAMP)
+            ON CONFLICT (asset_id) DO UPDATE
+               SET recorded_at    = EXCLUDED.recorded_at,
+                   metric_value   = EXCLUDED.metric_value,
+                   metric_type    = EXCLUDED.metric_type,
+                   component_name = EXCLUDED.component_name,
+                   location       = EXCLUDED.location,
+                   status         = EXCLUDED.status,
+                   risk_score     = EXCLUDED.risk_score,
+                   updated_at     = CURRENT_TIMESTAMP
+             WHERE digital_twin_state.recorded_at <= EXCLUDED.recorded_at
+            """;
+
+    private final DatabaseClient client;
+
+    @Override
+    public Mono<Long> upsert(DigitalTwinState state) {
+        var spec = client.sql(UPSERT)
+                .bind("assetId", state.getAssetId())
+                .bind("recordedAt", state.getRecordedAt())
+                .bind("metricValue", state.getMetricValue())
+                .bind("metricType", state.getMetricType())
+                .bind("componentName", state.getComponentName());
+        spec = state.getLocation() != null
+                ? spec.bind("location", state.getLocation())
+                : spec.bindNull("location", String.class);
+        spec = state.getStatus() != null
+                ? spec.bind("status", state.getStatus())
+                : spec.bindNull("status", String.class);
+        spec = state.getRiskScore() != null
+                ? spec.bind("riskScore", state.getRiskScore())
+                : spec.bindNull("riskScore", Double.class);
+        return spec.fetch().rowsUpdated();
+    }
+}
@@ -0,0 +1,109 @@
+package com.banenor.repository;
+
+import com.banenor.dto.TrainMetricStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Loads the overall aggregates of many trains of one station in a single
+ * {@code train_no = ANY(:ids)} query. Trains come from the header table, so a
+ * known train without readings is still returned (with zero samples), and an
+ * unknown train is simply absent.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TrainMetricsBatchRepository {
+
+    private static final List<String> SIX_TPS = List.of("tp1", "tp2", "tp3", "tp5", "tp6", "tp8");
+    private static final List<String> FIVE_TPS = List.of("tp1", "tp2", "tp3", "tp5", "tp6");
+
+    // field prefix → TP columns aggregated, mirroring the findOverall*ByTrainNo queries
+    private static final Map<String, List<String>> FIELDS = new LinkedHashMap<>();
+
+    static {
+        for (String f : List.of("spd", "aoa", "vvibl", "vvibr", "vfrcl", "vfrcr")) {
+            FIELDS.put(f, SIX_TPS);
+        }
+        for (String f : List.of("lfrcl", "lfrcr", "lvibl", "lvibr")) {
+            FIELDS.put(f, FIVE_TPS);
+        }
+    }
+
+    private static final String SQL_TEMPLATE = """
+            SELECT h.train_no AS train_no,
+                   COUNT(a.train_no) AS samples,
+                   %s
+              FROM haugfjell_%s_header h
+              LEFT JOIN haugfjell_%s_axles a ON a.train_no = h.train_no
+             WHERE h.train_no = ANY(:ids)
+             GROUP BY h.train_no
+            """;
+
+    private static final Map<String, String> SQL_BY_STATION = Map.of(
+            "MP1", buildSql("mp1"),
+            "MP3", buildSql("mp3"));
+
+    private final DatabaseClient client;
+
+    /**
+     * @param station MP1 or MP3
+     */
+    public Flux<TrainMetricStats> findStatsByTrainNos(String station, Collection<Integer> trainNos) {
+        String sql = SQL_BY_STATION.get(station);
+        if (sql == null) {
+            return Flux.error(new IllegalArgumentException("Unknown station: " + station));
+        }
+        if (trainNos.isEmpty()) {
+            return Flux.empty();
+        }
+        return client.sql(sql)
+                .bind("ids", trainNos.toArray(Integer[]::new))
+                .map((row, meta) -> {
+                    Map<String, Double> values = new HashMap<>();
+                    for (String field : FIELDS.keySet()) {
+                        for (String agg : List.of("avg", "min", "max", "avgsq")) {
+                            String alias = agg + "_" + field;
+                            Number n = row.get(alias, Number.class);
+                            values.put(alias, n != null ? n.doubleValue() : null);
+                        }
+                    }
+                    Number samples = row.get("samples", Number.class);
+                    return TrainMetricStats.builder()
+                            .trainNo(row.get("train_no", Integer.class))
+                            .station(station)
+                            .samples(samples != null ? samples.longValue() : 0L)
+                            .values(values)
+                            .build();
+                })
+                .all();
+    }
+
+    private static String buildSql(String station) {
+        String columns = FIELDS.entrySet().stream()
+                .map(e -> aggregates(e.getKey(), e.getValue()))
+                .collect(Collectors.joining(",\n       "));
+        return String.format(Locale.ROOT, SQL_TEMPLATE, columns, station, station);
+    }
+
+    private static String aggregates(String field, List<String> tps) {
+        List<String> cols = tps.stream().map(tp -> "a." + field + "_" + tp).toList();
+        String sum = String.join("+", cols);
+        String sumSq = cols.stream().map(c -> c + "*" + c).collect(Collectors.joining("+"));
+        String list = String.join(",", cols);
+        double n = cols.size();
+        return String.format(Locale.ROOT,
+                "AVG((%1$s)/%2$.1f) AS avg_%5$s, MIN(LEAST(%3$s)) AS min_%5$s, "
+                        + "MAX(GREATEST(%3$s)) AS max_%5$s, AVG((%4$s)/%2$.1f) AS avgsq_%5$s",
+                sum, n, list, sumSq, field);
+    }
+}
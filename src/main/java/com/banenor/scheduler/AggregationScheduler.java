@@ -10,7 +10,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 @Slf4j
 @Component
@@ -30,12 +29,11 @@ public class AggregationScheduler {
         Mono<Double> avgSpeedMono = aggregateSpeedMetric();
 
         avgSpeedMono.doOnNext(avg -> {
-                    // Cache the average speed under the key "avgSpeed"
-                    cacheService.cacheAverage("avgSpeed", avg).subscribe();
+                    // Cache the fleet-wide average speed (global data version)
+                    cacheService.cacheAverage("avgSpeed", null, avg).subscribe();
                     meterRegistry.counter("aggregation.avgSpeed.executions").increment();
                     log.info("Aggregated avgSpeed: {}", avg);
                 })
-                .subscribeOn(Schedulers.boundedElastic())
                 .doOnError(e -> {
                     meterRegistry.counter("aggregation.errors").increment();
                     log.error("Error aggregating sensor data", e);
@@ -0,0 +1,90 @@
+package com.banenor.scheduler;
+
+import com.banenor.config.SchedulerProperties.OnFull;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs every task on its own virtual thread, with at most a fixed number of
+ * tasks in flight. Nothing waits in a queue for a thread; once the bound is
+ * reached the pool's {@link OnFull} policy applies, the same as a full
+ * platform pool.
+ */
+final class VirtualThreadExecutor extends AbstractExecutorService {
+
+    private final ExecutorService delegate;
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private final OnFull onFull;
+    private final String name;
+
+    VirtualThreadExecutor(String name, int maxConcurrency, OnFull onFull) {
+        this.name = name;
+        this.maxConcurrency = maxConcurrency;
+        this.onFull = onFull;
+        this.permits = new Semaphore(maxConcurrency);
+        this.delegate = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-v-", 0).factory());
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (!permits.tryAcquire()) {
+            if (onFull == OnFull.CALLER_RUNS && !delegate.isShutdown()) {
+                task.run();
+                return;
+            }
+            throw new RejectedExecutionException(
+                    "Scheduler " + name + " at its limit of " + maxConcurrency + " concurrent tasks");
+        }
+        try {
+            delegate.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Tasks currently running.
+     */
+    int active() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+}
@@ -0,0 +1,108 @@
+package com.banenor.scheduler;
+
+import com.banenor.config.SchedulerProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Streams the JFR events that show virtual threads misbehaving while any
+ * workload runs on them. A virtual thread that blocks inside a synchronized
+ * block or a native frame stays pinned to its carrier, and with only as many
+ * carriers as cores a few of those stall every other virtual thread.
+ * Pinned time is published as jvm.threads.virtual.pinned. Each new pinning
+ * site is logged once with the application frame that caused it.
+ */
+@Slf4j
+@Component
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED = "jdk.VirtualThreadPinned";
+    private static final String SUBMIT_FAILED = "jdk.VirtualThreadSubmitFailed";
+    private static final int MAX_REPORTED_SITES = 256;
+
+    private final WorkloadSchedulers schedulers;
+    private final SchedulerProperties properties;
+    private final Timer pinned;
+    private final Counter submitFailed;
+    private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(WorkloadSchedulers schedulers, SchedulerProperties properties,
+                                       MeterRegistry meterRegistry) {
+        this.schedulers = schedulers;
+        this.properties = properties;
+        this.pinned = Timer.builder("jvm.threads.virtual.pinned")
+                .description("Time virtual threads were pinned to their carrier while blocked")
+                .register(meterRegistry);
+        this.submitFailed = Counter.builder("jvm.threads.virtual.submit.failed")
+                .description("Virtual threads that could not be started or unparked")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!schedulers.usesVirtualThreads()) {
+            return;
+        }
+        try {
+            RecordingStream rs = new RecordingStream();
+            rs.enable(PINNED).withThreshold(properties.getPinningThreshold()).withStackTrace();
+            rs.enable(SUBMIT_FAILED);
+            rs.onEvent(PINNED, this::onPinned);
+            rs.onEvent(SUBMIT_FAILED, e -> submitFailed.increment());
+            rs.startAsync();
+            stream = rs;
+            log.info("Virtual thread pinning monitor started (threshold {})", properties.getPinningThreshold());
+        } catch (RuntimeException e) {
+            // JFR can be unavailable (e.g. disabled or a stripped runtime); the schedulers work regardless
+            log.warn("Virtual thread pinning monitor unavailable: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.record(event.getDuration());
+        String site = applicationFrame(event);
+        if (reportedSites.size() < MAX_REPORTED_SITES && reportedSites.add(site)) {
+            log.warn("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(), site);
+        }
+    }
+
+    /**
+     * The innermost frame from our own code, or the top frame if none is.
+     */
+    private static String applicationFrame(RecordedEvent event) {
+        if (event.getStackTrace() == null || event.getStackTrace().getFrames().isEmpty()) {
+            return "unknown";
+        }
+        RecordedFrame top = event.getStackTrace().getFrames().get(0);
+        for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+            if (frame.isJavaFrame() && frame.getMethod().getType().getName().startsWith("com.banenor.")) {
+                return describe(frame);
+            }
+        }
+        return describe(top);
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+}
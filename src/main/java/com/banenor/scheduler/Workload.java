@@ -0,0 +1,62 @@
+package com.banenor.scheduler;
+
+import com.banenor.config.SchedulerProperties.OnFull;
+
+/**
+ * Kinds of work that get their own scheduler, with default sizing.
+ */
+public enum Workload {
+
+    /** Kafka records: parsing and persisting. A full queue pushes back on the consumer. */
+    INGEST("ingest", cores(), 1024, OnFull.CALLER_RUNS, false),
+    /** CPU-heavy aggregation and scoring behind the analytics endpoints. */
+    ANALYTICS("analytics", cores(), 256, OnFull.REJECT, false),
+    /** Calls that really block: Kafka admin/producer probes, file I/O, legacy clients. */
+    BLOCKING_IO("blocking-io", 4 * cores(), 512, OnFull.REJECT, true),
+    /** Mail and other outbound notifications. */
+    NOTIFICATIONS("notifications", 2, 256, OnFull.REJECT, true),
+    /** Password hashing and token signing. */
+    AUTH("auth", Math.max(1, cores() / 2), 64, OnFull.REJECT, false);
+
+    private final String key;
+    private final int threads;
+    private final int queueCapacity;
+    private final OnFull onFull;
+    private final boolean blocking;
+
+    Workload(String key, int threads, int queueCapacity, OnFull onFull, boolean blocking) {
+        this.key = key;
+        this.threads = threads;
+        this.queueCapacity = queueCapacity;
+        this.onFull = onFull;
+        this.blocking = blocking;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    int defaultThreads() {
+        return threads;
+    }
+
+    int defaultQueueCapacity() {
+        return queueCapacity;
+    }
+
+    OnFull defaultOnFull() {
+        return onFull;
+    }
+
+    /**
+     * True if the tasks spend their time waiting rather than computing, so
+     * they gain from virtual threads when those are switched on.
+     */
+    boolean blocking() {
+        return blocking;
+    }
+
+    private static int cores() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -0,0 +1,125 @@
+package com.banenor.scheduler;
+
+import com.banenor.config.SchedulerProperties;
+import com.banenor.config.SchedulerProperties.OnFull;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One bounded, named Reactor scheduler per {@link Workload}, so ingest,
+ * analytics, blocking calls, notifications and auth no longer queue behind
+ * each other on boundedElastic. Each pool is published through Micrometer's
+ * executor metrics tagged name=workload-&lt;key&gt;: executor.active,
+ * executor.queued, executor.idle (time spent queued) and executor (run time).
+ * Workloads switched to virtual threads start a virtual thread per task
+ * instead, bounded to threads + queue-capacity tasks in flight.
+ */
+@Slf4j
+@Component
+public class WorkloadSchedulers {
+
+    private final Map<Workload, ExecutorService> executors = new EnumMap<>(Workload.class);
+    private final Map<Workload, Scheduler> schedulers = new EnumMap<>(Workload.class);
+    private final Set<Workload> virtualWorkloads = EnumSet.noneOf(Workload.class);
+
+    public WorkloadSchedulers(SchedulerProperties properties, MeterRegistry meterRegistry) {
+        for (Workload workload : Workload.values()) {
+            SchedulerProperties.Pool pool = properties.getPools().get(workload.key());
+            int threads = pool != null && pool.getThreads() != null
+                    ? pool.getThreads() : workload.defaultThreads();
+            int queue = pool != null && pool.getQueueCapacity() != null
+                    ? pool.getQueueCapacity() : workload.defaultQueueCapacity();
+            OnFull onFull = pool != null && pool.getOnFull() != null
+                    ? pool.getOnFull() : workload.defaultOnFull();
+
+            boolean virtual = pool != null && pool.getVirtual() != null
+                    ? pool.getVirtual() : properties.isVirtualThreads() && workload.blocking();
+
+            String name = "workload-" + workload.key();
+            ExecutorService executor;
+            if (virtual) {
+                int inFlight = Math.max(1, threads) + Math.max(0, queue);
+                VirtualThreadExecutor vte = new VirtualThreadExecutor(workload.key(), inFlight, onFull);
+                // ExecutorServiceMetrics only reads active/queued from a ThreadPoolExecutor
+                Gauge.builder("executor.active", vte, VirtualThreadExecutor::active)
+                        .description("The approximate number of threads that are actively executing tasks")
+                        .tag("name", name)
+                        .baseUnit("threads")
+                        .register(meterRegistry);
+                executor = vte;
+                virtualWorkloads.add(workload);
+                log.info("Scheduler {}: virtual threads, up to {} task(s) in flight, {} when full",
+                        workload.key(), inFlight, onFull);
+            } else {
+                ThreadPoolExecutor tpe = new ThreadPoolExecutor(
+                        Math.max(1, threads), Math.max(1, threads), 60L, TimeUnit.SECONDS,
+                        new ArrayBlockingQueue<>(Math.max(1, queue)),
+                        threadFactory(workload), rejection(onFull));
+                tpe.allowCoreThreadTimeOut(true);
+                executor = tpe;
+                log.info("Scheduler {}: {} thread(s), queue {}, {} when full", workload.key(), threads, queue, onFull);
+            }
+            ExecutorService monitored = ExecutorServiceMetrics.monitor(meterRegistry, executor, name, Tags.empty());
+            executors.put(workload, monitored);
+            schedulers.put(workload, Schedulers.fromExecutorService(monitored, workload.key()));
+        }
+    }
+
+    public Scheduler get(Workload workload) {
+        return schedulers.get(workload);
+    }
+
+    /**
+     * The instrumented executor behind a workload's scheduler, for code that
+     * needs a plain {@link java.util.concurrent.Executor}.
+     */
+    public ExecutorService executor(Workload workload) {
+        return executors.get(workload);
+    }
+
+    /**
+     * True if the workload runs on virtual threads.
+     */
+    public boolean isVirtual(Workload workload) {
+        return virtualWorkloads.contains(workload);
+    }
+
+    public boolean usesVirtualThreads() {
+        return !virtualWorkloads.isEmpty();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        schedulers.values().forEach(Scheduler::dispose);
+    }
+
+    private static CustomizableThreadFactory threadFactory(Workload workload) {
+        CustomizableThreadFactory factory = new CustomizableThreadFactory(workload.key() + "-");
+        factory.setDaemon(true);
+        return factory;
+    }
+
+    private static RejectedExecutionHandler rejection(OnFull onFull) {
+        return onFull == OnFull.CALLER_RUNS
+                ? new ThreadPoolExecutor.CallerRunsPolicy()
+                : new ThreadPoolExecutor.AbortPolicy();
+    }
+}
@@ -0,0 +1,202 @@
+package com.banenor.security;
+
+import com.banenor.cache.RedisAccess;
+import com.banenor.config.BlacklistMirrorProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Local Bloom filter of blacklisted token hashes in front of the Redis
+ * blacklist. A token the filter has never seen is answered without any I/O;
+ * only a filter hit (a blacklisted token or a false positive) costs a Redis
+ * read, so a false positive can never let a revoked token through.
+ * <p>
+ * The filter is fed by the revocation channel of {@link VerifiedTokenCache}
+ * and rebuilt from a SCAN of the blacklist every
+ * {@code security.blacklist-mirror.resync-interval-ms}, which both catches
+ * messages missed while disconnected and sheds expired entries. It is also
+ * rebuilt at once when the revocation channel reconnects or a revocation
+ * could not be broadcast. Until the first rebuild completes every lookup
+ * goes to Redis.
+ */
+@Slf4j
+@Component
+public class BlacklistMirror {
+
+    static final String PREFIX = "jwtBlacklist:";
+
+    private final BlacklistMirrorProperties properties;
+    private final ReactiveRedisTemplate<String, String> redis;
+    private final RedisAccess redisAccess;
+    private final VerifiedTokenCache tokenCache;
+
+    private final Object lock = new Object();
+    private volatile BloomFilter filter;
+    private volatile boolean synced;
+    private volatile long lastResyncMillis;
+    // hashes revoked while a rebuild is scanning, replayed into the new filter
+    private Set<String> revokedDuringResync;
+    private final AtomicBoolean resyncing = new AtomicBoolean();
+    // a resync was asked for while one was running; its scan may have missed the change
+    private final AtomicBoolean resyncAgain = new AtomicBoolean();
+
+    private final Counter negatives;
+    private final Counter truePositives;
+    private final Counter falsePositives;
+    private final Timer syncLag;
+    private final MeterRegistry meterRegistry;
+
+    public BlacklistMirror(BlacklistMirrorProperties properties,
+                           ReactiveRedisTemplate<String, String> reactiveStringRedisTemplate,
+                           RedisAccess redisAccess,
+                           VerifiedTokenCache tokenCache,
+                           MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.redis = reactiveStringRedisTemplate;
+        this.redisAccess = redisAccess;
+        this.tokenCache = tokenCache;
+        this.meterRegistry = meterRegistry;
+        this.filter = new BloomFilter(properties.getExpectedInsertions(), properties.getFalsePositiveRate());
+        this.negatives = lookups("negative");
+        this.truePositives = lookups("true_positive");
+        this.falsePositives = lookups("false_positive");
+        this.syncLag = Timer.builder("jwt.blacklist.sync.lag")
+                .description("Delay between a token being revoked and this node's filter learning of it")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            log.info("JWT blacklist mirror disabled; every blacklist check reads Redis");
+            return;
+        }
+        Gauge.builder("jwt.blacklist.filter.fpp.expected", this, m -> m.filter.expectedFpp())
+                .description("False-positive probability of the filter at its current fill")
+                .register(meterRegistry);
+        Gauge.builder("jwt.blacklist.filter.fpp.observed", this, BlacklistMirror::observedFpp)
+                .description("Share of non-blacklisted tokens the filter sent to Redis")
+                .register(meterRegistry);
+        Gauge.builder("jwt.blacklist.sync.age", this,
+                        m -> m.lastResyncMillis == 0 ? Double.NaN
+                                : (System.currentTimeMillis() - m.lastResyncMillis) / 1000.0)
+                .description("Seconds since the filter was last rebuilt from Redis")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        tokenCache.addRevocationListener(this::onRevoked);
+        tokenCache.addResyncListener(this::resync);
+        resync();
+    }
+
+    /**
+     * True if the token is on the Redis blacklist. Tokens the filter rules out
+     * are answered locally.
+     */
+    public Mono<Boolean> isBlacklisted(String token) {
+        if (!properties.isEnabled() || !synced) {
+            return readRedis(token);
+        }
+        if (!filter.mightContain(VerifiedTokenCache.hash(token))) {
+            negatives.increment();
+            return Mono.just(false);
+        }
+        return readRedis(token)
+                .doOnNext(blacklisted -> (blacklisted ? truePositives : falsePositives).increment());
+    }
+
+    @Scheduled(fixedDelayString = "${security.blacklist-mirror.resync-interval-ms:300000}")
+    public void scheduledResync() {
+        if (properties.isEnabled()) {
+            resync();
+        }
+    }
+
+    private void resync() {
+        if (!resyncing.compareAndSet(false, true)) {
+            resyncAgain.set(true);
+            return;
+        }
+        resyncAgain.set(false);
+        synchronized (lock) {
+            revokedDuringResync = ConcurrentHashMap.newKeySet();
+        }
+        long start = System.nanoTime();
+        redis.scan(ScanOptions.scanOptions().match(PREFIX + "*").count(1000).build())
+                .map(key -> VerifiedTokenCache.hash(key.substring(PREFIX.length())))
+                .collectList()
+                .doOnNext(this::swapIn)
+                .doOnError(err -> {
+                    synchronized (lock) {
+                        revokedDuringResync = null;
+                    }
+                })
+                .doFinally(sig -> {
+                    resyncing.set(false);
+                    if (resyncAgain.getAndSet(false)) {
+                        resync();
+                    }
+                })
+                .subscribe(hashes -> log.debug("Rebuilt JWT blacklist filter from {} entries in {} ms",
+                                hashes.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)),
+                        err -> log.warn("JWT blacklist resync failed: {}", err.getMessage()));
+    }
+
+    private void swapIn(List<String> hashes) {
+        long size = Math.max(properties.getExpectedInsertions(), 2L * hashes.size());
+        BloomFilter rebuilt = new BloomFilter(size, properties.getFalsePositiveRate());
+        hashes.forEach(rebuilt::put);
+        synchronized (lock) {
+            revokedDuringResync.forEach(rebuilt::put);
+            revokedDuringResync = null;
+            filter = rebuilt;
+        }
+        lastResyncMillis = System.currentTimeMillis();
+        if (!synced) {
+            log.info("JWT blacklist mirror ready with {} entries (filter sized for {})", hashes.size(), size);
+        }
+        synced = true;
+    }
+
+    private void onRevoked(String hash, long revokedAtMillis) {
+        synchronized (lock) {
+            filter.put(hash);
+            if (revokedDuringResync != null) {
+                revokedDuringResync.add(hash);
+            }
+        }
+        syncLag.record(Math.max(0, System.currentTimeMillis() - revokedAtMillis), TimeUnit.MILLISECONDS);
+    }
+
+    private Mono<Boolean> readRedis(String token) {
+        return redisAccess.get(PREFIX + token)
+                .map(Boolean.TRUE::equals)
+                .defaultIfEmpty(false);
+    }
+
+    private double observedFpp() {
+        double negative = falsePositives.count() + negatives.count();
+        return negative == 0 ? 0 : falsePositives.count() / negative;
+    }
+
+    private Counter lookups(String result) {
+        return Counter.builder("jwt.blacklist.filter.lookups")
+                .description("Blacklist checks by filter outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
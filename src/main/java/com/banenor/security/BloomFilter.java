@@ -0,0 +1,86 @@
+package com.banenor.security;
+
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter over hex SHA-256 token hashes. The digest is
+ * already uniform, so the k probe positions are derived from its first two
+ * 64-bit words by double hashing instead of rehashing.
+ */
+class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+    private final long capacity;
+
+    BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        double p = Math.min(Math.max(falsePositiveRate, 1e-9), 0.5);
+        long m = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, (m + 63) / 64);
+        this.words = new AtomicLongArray(wordCount);
+        this.bits = wordCount * 64L;
+        this.hashes = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+        this.capacity = n;
+    }
+
+    void put(String hexHash) {
+        long[] h = halves(hexHash);
+        for (int i = 0; i < hashes; i++) {
+            long bit = index(h, i);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = words.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!words.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    boolean mightContain(String hexHash) {
+        long[] h = halves(hexHash);
+        for (int i = 0; i < hashes; i++) {
+            long bit = index(h, i);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * False-positive probability at the current fill, (set bits / m)^k.
+     */
+    double expectedFpp() {
+        long set = 0;
+        for (int i = 0; i < words.length(); i++) {
+            set += Long.bitCount(words.get(i));
+        }
+        return Math.pow((double) set / bits, hashes);
+    }
+
+    long capacity() {
+        return capacity;
+    }
+
+    private long index(long[] h, int i) {
+        return Math.floorMod(h[0] + i * h[1], bits);
+    }
+
+    private static long[] halves(String hexHash) {
+        byte[] digest = HexFormat.of().parseHex(hexHash);
+        long a = 0;
+        long b = 0;
+        for (int i = 0; i < 8; i++) {
+            a = (a << 8) | (digest[i] & 0xff);
+            b = (b << 8) | (digest[i + 8] & 0xff);
+        }
+        // an odd step never cycles early when m is a power of two
+        return new long[]{a, b | 1};
+    }
+}
@@ -2,23 +2,30 @@ package com.banenor.security;
 
 import com.banenor.service.CustomUserDetailsService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.AccountStatusUserDetailsChecker;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.ReactiveAuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.core.userdetails.UserDetailsChecker;
 import reactor.core.publisher.Mono;
 
+/**
+ * Username/password authentication with the BCrypt check run on the
+ * {@link PasswordHasher} pool. Disabled, locked or expired accounts are
+ * rejected before any hashing.
+ */
 @Slf4j
 public class CustomReactiveAuthenticationManager implements ReactiveAuthenticationManager {
 
     private final CustomUserDetailsService userDetailsService;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
+    private final UserDetailsChecker accountChecks = new AccountStatusUserDetailsChecker();
 
     public CustomReactiveAuthenticationManager(CustomUserDetailsService userDetailsService,
-                                               PasswordEncoder passwordEncoder) {
+                                               PasswordHasher passwordHasher) {
         this.userDetailsService = userDetailsService;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
     }
 
     @Override
@@ -31,17 +38,21 @@ public class CustomReactiveAuthenticationManager implements ReactiveAuthenticati
         String password = authentication.getCredentials().toString();
         log.debug("Authenticating user: {}", username);
         return userDetailsService.findByUsername(username)
-                .flatMap(userDetails -> {
-                    if (passwordEncoder.matches(password, userDetails.getPassword())) {
-                        UsernamePasswordAuthenticationToken authToken =
-                                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                        log.debug("Authentication successful for user: {}", username);
-                        return Mono.just((Authentication) authToken);
-                    } else {
-                        log.error("Authentication failed for user: {}. Invalid credentials.", username);
-                        return Mono.error(new BadCredentialsException("Invalid credentials"));
-                    }
-                })
+                .doOnNext(accountChecks::check)
+                .flatMap(userDetails -> passwordHasher.matches(password, userDetails.getPassword())
+                        .flatMap(matches -> {
+                            if (matches) {
+                                UsernamePasswordAuthenticationToken authToken =
+                                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                                log.debug("Authentication successful for user: {}", username);
+                                return userDetailsService.loginSucceeded(username)
+                                        .thenReturn((Authentication) authToken);
+                            } else {
+                                log.warn("Authentication failed for user: {}. Invalid credentials.", username);
+                                return userDetailsService.loginFailed(username)
+                                        .then(Mono.error(new BadCredentialsException("Invalid credentials")));
+                            }
+                        }))
                 .switchIfEmpty(Mono.error(new BadCredentialsException("User not found")));
     }
 }
@@ -1,9 +1,9 @@
 package com.banenor.security;
 
 import com.banenor.service.CustomUserDetailsService;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.http.HttpCookie;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -11,6 +11,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
@@ -28,7 +29,8 @@ public class JwtRequestFilter implements WebFilter {
 
     private final CustomUserDetailsService userDetailsService;
     private final JwtTokenUtil jwtTokenUtil;
-    private final ReactiveRedisTemplate<String, Object> redisTemplate;
+    private final BlacklistMirror blacklistMirror;
+    private final VerifiedTokenCache tokenCache;
 
     // Map of path prefixes to roles allowed
     private static final Map<String, List<String>> roleAccessMap = Map.of(
@@ -65,11 +67,14 @@ public class JwtRequestFilter implements WebFilter {
         String token = authHeader.substring(7);
         log.debug("Token received: {}", mask(token));
 
-        // Check blacklist reactively
-        String blackKey = "jwtBlacklist:" + token;
-        return redisTemplate.opsForValue().get(blackKey)
-                .cast(Boolean.class)
-                .defaultIfEmpty(false)
+        // Steady state: a token verified before costs one local lookup
+        VerifiedTokenCache.VerifiedToken cached = tokenCache.get(token);
+        if (cached != null) {
+            return authenticate(exchange, chain, cached.getUser(), path);
+        }
+
+        // Check blacklist: local filter first, Redis only on a filter hit
+        return blacklistMirror.isBlacklisted(token)
                 .flatMap(blacklisted -> {
                     if (blacklisted) {
                         log.warn("Blacklisted token: {}", mask(token));
@@ -83,13 +88,14 @@ public class JwtRequestFilter implements WebFilter {
                                        WebFilterChain chain,
                                        String token,
                                        String path) {
-        String username;
+        Claims claims;
         try {
-            username = jwtTokenUtil.getUsernameFromToken(token);
+            claims = jwtTokenUtil.getClaims(token);
         } catch (Exception e) {
-            log.error("Failed to parse token: {}", e.getMessage());
-            return unauthorized(exchange, "Invalid token format");
+            log.warn("Token validation failed: {}", e.getMessage());
+            return unauthorized(exchange, "Invalid token");
         }
+        String username = claims.getSubject();
         if (username == null || username.isBlank()) {
             log.warn("Token subject empty");
             return unauthorized(exchange, "Invalid token subject");
@@ -102,27 +108,12 @@ public class JwtRequestFilter implements WebFilter {
                         log.warn("Disabled user: {}", userKey);
                         return unauthorized(exchange, "User disabled");
                     }
-                    boolean valid;
-                    try {
-                        valid = jwtTokenUtil.validateToken(token, userKey);
-                    } catch (Exception ex) {
-                        log.error("Token validation exception: {}", ex.getMessage());
-                        return unauthorized(exchange, "Token validation failed");
-                    }
-                    if (!valid) {
+                    if (!userKey.equalsIgnoreCase(user.getUsername())) {
                         log.warn("Invalid token for {}", userKey);
                         return unauthorized(exchange, "Invalid token");
                     }
-                    if (!isAuthorized(path, user.getAuthorities())) {
-                        log.warn("Access denied for {} on {}", userKey, path);
-                        return forbidden(exchange, "Access denied");
-                    }
-                    var auth = new UsernamePasswordAuthenticationToken(
-                            user, null, user.getAuthorities()
-                    );
-                    log.info("Authenticated {} with {}", userKey, user.getAuthorities());
-                    return chain.filter(exchange)
-                            .contextWrite(ReactiveSecurityContextHolder.withAuthentication(auth));
+                    tokenCache.put(token, user, claims.getExpiration().toInstant());
+                    return authenticate(exchange, chain, user, path);
                 })
                 .switchIfEmpty(Mono.defer(() -> {
                     log.warn("User not found: {}", userKey);
@@ -134,6 +125,22 @@ public class JwtRequestFilter implements WebFilter {
                 });
     }
 
+    private Mono<Void> authenticate(ServerWebExchange exchange,
+                                    WebFilterChain chain,
+                                    UserDetails user,
+                                    String path) {
+        if (!isAuthorized(path, user.getAuthorities())) {
+            log.warn("Access denied for {} on {}", user.getUsername(), path);
+            return forbidden(exchange, "Access denied");
+        }
+        var auth = new UsernamePasswordAuthenticationToken(
+                user, null, user.getAuthorities()
+        );
+        log.debug("Authenticated {} with {}", user.getUsername(), user.getAuthorities());
+        return chain.filter(exchange)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(auth));
+    }
+
     private boolean isPublicPath(String path) {
         return path.startsWith("/api/v1/auth/login")
                 || path.startsWith("/api/v1/auth/refresh")
@@ -167,6 +174,9 @@ public class JwtRequestFilter implements WebFilter {
     }
 
     private void logRequestDetails(ServerWebExchange ex) {
+        if (!log.isDebugEnabled()) {
+            return;
+        }
         var sb = new StringBuilder("Request ")
                 .append(ex.getRequest().getMethod())
                 .append(" ")
@@ -190,7 +200,7 @@ public class JwtRequestFilter implements WebFilter {
                                 .orElse("n/a"))
                         .append("\n")
         );
-        log.info(sb.toString());
+        log.debug(sb.toString());
     }
 
     private String mask(String t) {
@@ -106,6 +106,15 @@ public class JwtTokenUtil {
         return resolver.apply(claims);
     }
 
+    /**
+     * Verifies the signature and expiry once and returns all claims.
+     *
+     * @throws JwtException if the token is invalid
+     */
+    public io.jsonwebtoken.Claims getClaims(String token) {
+        return parse(token);
+    }
+
     private io.jsonwebtoken.Claims parse(String token) {
         return Jwts.parserBuilder()
                 .setSigningKey(signingKey)
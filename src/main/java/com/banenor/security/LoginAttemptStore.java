@@ -0,0 +1,124 @@
+package com.banenor.security;
+
+import com.banenor.config.LoginAttemptProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Failed-login counts per username, bounded in size and forgotten when the
+ * lockout window ends. With {@code security.login-attempts.distributed} the
+ * counts live in Redis (one key per user, expiring with the window) so every
+ * node sees the same lockout; the local counts are kept as the fallback.
+ */
+@Slf4j
+@Component
+public class LoginAttemptStore {
+
+    private static final String PREFIX = "loginFailures:";
+
+    // INCR that starts the window on the first failure
+    private static final RedisScript<Long> RECORD = RedisScript.of("""
+            local n = redis.call('INCR', KEYS[1])
+            if n == 1 then redis.call('PEXPIRE', KEYS[1], ARGV[1]) end
+            return n
+            """, Long.class);
+
+    private final LoginAttemptProperties properties;
+    private final ReactiveRedisTemplate<String, String> redis;
+    private final Cache<String, AtomicInteger> failures;
+    private final Counter lockouts;
+    private final Counter redisErrors;
+
+    public LoginAttemptStore(LoginAttemptProperties properties,
+                             ReactiveRedisTemplate<String, String> reactiveStringRedisTemplate,
+                             MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.redis = reactiveStringRedisTemplate;
+        this.failures = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxEntries())
+                .expireAfterWrite(properties.getWindow())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, failures, "loginAttempts");
+        this.lockouts = meterRegistry.counter("user.login.lockouts");
+        this.redisErrors = meterRegistry.counter("user.login.attempts.redis.errors");
+    }
+
+    /**
+     * Counts one failure and returns the failures in the current window.
+     */
+    public Mono<Integer> recordFailure(String username) {
+        // the entry keeps the write time of the first failure, so the window does not slide
+        int local = failures.get(username, k -> new AtomicInteger()).incrementAndGet();
+        Mono<Integer> count = Mono.just(local);
+        if (properties.isDistributed()) {
+            count = redis.execute(RECORD, List.of(PREFIX + username),
+                            List.of(Long.toString(properties.getWindow().toMillis())))
+                    .next()
+                    .map(Long::intValue)
+                    .onErrorResume(e -> fallback("record", e, local))
+                    .defaultIfEmpty(local);
+        }
+        return count.doOnNext(n -> {
+            if (n == properties.getMaxFailures()) {
+                lockouts.increment();
+                log.warn("Locking account {} for {} after {} failed attempts",
+                        username, properties.getWindow(), n);
+            }
+        });
+    }
+
+    public Mono<Integer> attempts(String username) {
+        AtomicInteger entry = failures.getIfPresent(username);
+        int local = entry == null ? 0 : entry.get();
+        if (!properties.isDistributed()) {
+            return Mono.just(local);
+        }
+        return redis.opsForValue().get(PREFIX + username)
+                .map(Integer::parseInt)
+                .defaultIfEmpty(0)
+                .onErrorResume(e -> fallback("read", e, local));
+    }
+
+    public Mono<Boolean> isLocked(String username) {
+        return attempts(username).map(n -> n >= properties.getMaxFailures());
+    }
+
+    public int maxFailures() {
+        return properties.getMaxFailures();
+    }
+
+    public Mono<Void> reset(String username) {
+        failures.invalidate(username);
+        if (!properties.isDistributed()) {
+            return Mono.empty();
+        }
+        return redis.delete(PREFIX + username)
+                .onErrorResume(e -> fallback("reset", e, 0L))
+                .then();
+    }
+
+    /**
+     * Drops local entries whose window has ended.
+     */
+    public void cleanUp() {
+        failures.cleanUp();
+    }
+
+    private <T> Mono<T> fallback(String op, Throwable e, T local) {
+        redisErrors.increment();
+        log.debug("Login attempt {} in Redis failed, using local count: {}", op, e.getMessage());
+        return Mono.just(local);
+    }
+}
@@ -0,0 +1,89 @@
+package com.banenor.security;
+
+import com.banenor.config.PasswordHashingProperties;
+import com.banenor.exception.TooManyRequestsException;
+import com.banenor.scheduler.Workload;
+import com.banenor.scheduler.WorkloadSchedulers;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs BCrypt on the bounded {@link Workload#AUTH} scheduler instead of
+ * boundedElastic, so a login storm is limited to those threads and cannot
+ * slow down other offloaded work. When its queue is full the request fails at
+ * once with {@link TooManyRequestsException} (429).
+ */
+@Slf4j
+@Component
+public class PasswordHasher {
+
+    private final PasswordEncoder encoder;
+    private final PasswordHashingProperties properties;
+    private final Scheduler scheduler;
+
+    private final Timer queueWait;
+    private final Timer matchDuration;
+    private final Timer encodeDuration;
+    private final Counter rejected;
+
+    public PasswordHasher(PasswordEncoder encoder,
+                          PasswordHashingProperties properties,
+                          WorkloadSchedulers schedulers,
+                          MeterRegistry meterRegistry) {
+        this.encoder = encoder;
+        this.properties = properties;
+        this.scheduler = schedulers.get(Workload.AUTH);
+        this.queueWait = Timer.builder("security.password.hash.queue.wait")
+                .description("Time a hash operation waited for a hashing thread")
+                .register(meterRegistry);
+        this.matchDuration = Timer.builder("security.password.hash.duration")
+                .description("Time spent in BCrypt")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        this.encodeDuration = Timer.builder("security.password.hash.duration")
+                .description("Time spent in BCrypt")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.rejected = meterRegistry.counter("security.password.hash.rejected");
+    }
+
+    public Mono<Boolean> matches(CharSequence raw, String encoded) {
+        return submit(() -> encoder.matches(raw, encoded), matchDuration);
+    }
+
+    public Mono<String> encode(CharSequence raw) {
+        return submit(() -> encoder.encode(raw), encodeDuration);
+    }
+
+    private <T> Mono<T> submit(Callable<T> task, Timer duration) {
+        return Mono.defer(() -> {
+                    long queuedAt = System.nanoTime();
+                    return Mono.fromCallable(() -> {
+                                long start = System.nanoTime();
+                                queueWait.record(start - queuedAt, TimeUnit.NANOSECONDS);
+                                try {
+                                    return task.call();
+                                } finally {
+                                    duration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                                }
+                            })
+                            .subscribeOn(scheduler);
+                })
+                .onErrorMap(RejectedExecutionException.class, e -> {
+                    rejected.increment();
+                    log.warn("Password hashing queue full; rejecting");
+                    return new TooManyRequestsException("Too many sign-in attempts in progress, retry shortly",
+                            properties.getRetryAfter());
+                });
+    }
+}
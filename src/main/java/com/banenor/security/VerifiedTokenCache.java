@@ -0,0 +1,290 @@
+package com.banenor.security;
+
+import com.banenor.config.TokenCacheProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+
+/**
+ * Verified tokens keyed by the SHA-256 of the token, so a request carrying a
+ * token seen before is authenticated with one local lookup: no signature
+ * check, blacklist read or user query. Entries expire with the token or after
+ * {@code security.token-cache.max-ttl}, whichever is sooner.
+ * <p>
+ * Logout, blacklisting and account changes evict entries on every node via a
+ * Redis channel. Revoked hashes are remembered for the max TTL so a request
+ * verified just before the revocation cannot put its token back.
+ * <p>
+ * A failed subscription is retried with backoff. Messages may have been
+ * missed meanwhile, so on reconnect all verified tokens are dropped and the
+ * resync listeners are told; they are also told when a revocation could not
+ * be broadcast.
+ */
+@Slf4j
+@Component
+public class VerifiedTokenCache {
+
+    private static final String TOKEN = "token:";
+    private static final String USER = "user:";
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class VerifiedToken {
+        private final UserDetails user;
+        private final Instant expiresAt;
+    }
+
+    private final TokenCacheProperties properties;
+    private final ReactiveRedisTemplate<String, String> pubSub;
+    private final ReactiveRedisConnectionFactory connectionFactory;
+    private final MeterRegistry meterRegistry;
+
+    private final Cache<String, VerifiedToken> verified;
+    private final Cache<String, Boolean> revoked;
+    private final List<BiConsumer<String, Long>> revocationListeners = new CopyOnWriteArrayList<>();
+    private final List<Runnable> resyncListeners = new CopyOnWriteArrayList<>();
+    private volatile ReactiveRedisMessageListenerContainer container;
+    private Disposable revocations;
+
+    public VerifiedTokenCache(TokenCacheProperties properties,
+                              ReactiveRedisTemplate<String, String> reactiveStringRedisTemplate,
+                              ReactiveRedisConnectionFactory connectionFactory,
+                              MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.pubSub = reactiveStringRedisTemplate;
+        this.connectionFactory = connectionFactory;
+        this.meterRegistry = meterRegistry;
+        long maxTtlNanos = properties.getMaxTtl().toNanos();
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxEntries())
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                        long untilExpiry = Duration.between(Instant.now(), value.getExpiresAt()).toNanos();
+                        return Math.max(0, Math.min(untilExpiry, maxTtlNanos));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        this.revoked = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxEntries())
+                .expireAfterWrite(properties.getMaxTtl())
+                .build();
+    }
+
+    @PostConstruct
+    public void start() {
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, "jwtVerified");
+        if (!properties.isEnabled()) {
+            log.info("Verified-token cache disabled; every request is verified in full");
+            return;
+        }
+        AtomicBoolean subscribedBefore = new AtomicBoolean();
+        revocations = Mono.defer(() -> newContainer().receiveLater(ChannelTopic.of(properties.getRevocationChannel())))
+                .flatMapMany(messages -> {
+                    if (subscribedBefore.getAndSet(true)) {
+                        log.info("Token revocation subscription restored");
+                        onMessagesMissed();
+                    }
+                    return messages;
+                })
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, properties.getResubscribeMinBackoff())
+                        .maxBackoff(properties.getResubscribeMaxBackoff())
+                        .transientErrors(true)
+                        .doBeforeRetry(rs -> log.warn("Token revocation subscription failed, resubscribing (attempt {}): {}",
+                                rs.totalRetries() + 1, rs.failure().getMessage())))
+                .subscribe(m -> onRevocation(m.getMessage()),
+                        err -> log.error("Token revocation subscription gave up: {}", err.getMessage(), err));
+    }
+
+    private synchronized ReactiveRedisMessageListenerContainer newContainer() {
+        if (container != null) {
+            container.destroy();
+        }
+        container = new ReactiveRedisMessageListenerContainer(connectionFactory);
+        return container;
+    }
+
+    /**
+     * The verified user for a token, or null if it has to be verified in full.
+     */
+    public VerifiedToken get(String token) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        return verified.getIfPresent(hash(token));
+    }
+
+    public void put(String token, UserDetails user, Instant expiresAt) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        String hash = hash(token);
+        if (revoked.getIfPresent(hash) == null) {
+            verified.put(hash, new VerifiedToken(user, expiresAt));
+        }
+    }
+
+    /**
+     * Evicts a logged-out or blacklisted token here and on every other node.
+     */
+    public Mono<Void> revoke(String token) {
+        String hash = hash(token);
+        long now = System.currentTimeMillis();
+        onTokenRevoked(hash, now);
+        return publish(TOKEN + hash + "@" + now);
+    }
+
+    /**
+     * Registers a callback told of every revoked token hash, local or from
+     * another node, with the time it was revoked.
+     */
+    public void addRevocationListener(BiConsumer<String, Long> listener) {
+        revocationListeners.add(listener);
+    }
+
+    /**
+     * Registers a callback told whenever revocations may have been missed or
+     * not delivered, so that state derived from them can be rebuilt at once.
+     */
+    public void addResyncListener(Runnable listener) {
+        resyncListeners.add(listener);
+    }
+
+    /**
+     * Evicts every token of a user whose account changed, here and on every other node.
+     */
+    public Mono<Void> revokeUser(String username) {
+        if (username == null) {
+            return Mono.empty();
+        }
+        String normalized = username.trim().toLowerCase();
+        evictUser(normalized);
+        return publish(USER + normalized);
+    }
+
+    private Mono<Void> publish(String message) {
+        if (!properties.isEnabled()) {
+            return Mono.empty();
+        }
+        return pubSub.convertAndSend(properties.getRevocationChannel(), message)
+                .retryWhen(Retry.backoff(Math.max(0, properties.getPublishAttempts() - 1),
+                        properties.getResubscribeMinBackoff()))
+                .onErrorResume(err -> {
+                    log.warn("Could not broadcast token revocation: {}", err.getMessage());
+                    notifyResync();
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private void onMessagesMissed() {
+        verified.invalidateAll();
+        notifyResync();
+    }
+
+    private void notifyResync() {
+        for (Runnable listener : resyncListeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                log.warn("Token resync listener failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private void onRevocation(String message) {
+        if (message.startsWith(TOKEN)) {
+            String body = message.substring(TOKEN.length());
+            int at = body.indexOf('@');
+            long revokedAt = System.currentTimeMillis();
+            if (at >= 0) {
+                try {
+                    revokedAt = Long.parseLong(body.substring(at + 1));
+                } catch (NumberFormatException ignored) {
+                    // keep receive time
+                }
+                body = body.substring(0, at);
+            }
+            onTokenRevoked(body, revokedAt);
+        } else if (message.startsWith(USER)) {
+            evictUser(message.substring(USER.length()));
+        }
+    }
+
+    private void onTokenRevoked(String hash, long revokedAt) {
+        revoked.put(hash, Boolean.TRUE);
+        verified.invalidate(hash);
+        for (BiConsumer<String, Long> listener : revocationListeners) {
+            try {
+                listener.accept(hash, revokedAt);
+            } catch (RuntimeException e) {
+                log.warn("Token revocation listener failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private void evictUser(String username) {
+        verified.asMap().entrySet().removeIf(e ->
+                username.equalsIgnoreCase(e.getValue().getUser().getUsername()));
+    }
+
+    /**
+     * Hex SHA-256 of a token, the id under which it is cached and revoked.
+     */
+    public static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (revocations != null) {
+            revocations.dispose();
+        }
+        if (container != null) {
+            container.destroy();
+        }
+    }
+}
@@ -3,27 +3,24 @@ package com.banenor.service;
 import com.banenor.dto.SensorAggregationDTO;
 import com.banenor.repository.HaugfjellMP1AxlesRepository;
 import com.banenor.repository.HaugfjellMP3AxlesRepository;
-import com.banenor.util.RepositoryResolver;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 import java.time.LocalDateTime;
 import java.util.Objects;
-import java.util.function.Function;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class AggregationServiceImpl implements AggregationService {
 
-    private final RepositoryResolver repositoryResolver;
     private final HaugfjellMP1AxlesRepository mp1Repo;
     private final HaugfjellMP3AxlesRepository mp3Repo;
     private final CacheService cacheService;
+    private final TrainMetricsLoader metricsLoader;
 
     //───────────────────────────────────────────────────────────────────────────────
     // COMBINED VIBRATION METRIC (for AdminDashboard "avgVibration")
@@ -41,8 +38,7 @@ public class AggregationServiceImpl implements AggregationService {
                         r.getVit(), r.getAverageSpeed(), r.getMinSpeed(), r.getMaxSpeed()));
 
         return Flux.concat(mp1Flux, mp3Flux)
-                .then()
-                .subscribeOn(Schedulers.boundedElastic());
+                .then();
     }
 
     @Override
@@ -54,7 +50,7 @@ public class AggregationServiceImpl implements AggregationService {
                 )
                 .doOnNext(avg -> {
                     log.debug("Computed combined average vibration for train {} = {}", trainNo, avg);
-                    cacheService.cacheAverage("avgVibration", avg).subscribe();
+                    cacheService.cacheAverage("avgVibration", trainNo, avg).subscribe();
                 })
                 .onErrorResume(e -> {
                     log.warn("Error computing combined average vibration for train {}: {}", trainNo, e.getMessage());
@@ -68,24 +64,19 @@ public class AggregationServiceImpl implements AggregationService {
 
     @Override
     public Mono<Double> getAverageSpeed(Integer trainNo) {
-        return queryMetric(
+        return cachedMetric(
+                "avgSpeed",
                 trainNo,
-                repo -> repo.findOverallAvgSpeedByTrainNo(trainNo),
-                repo -> repo.findOverallAvgSpeedByTrainNo(trainNo),
+                "avg_spd",
                 "average speed"
-        )
-                .doOnNext(avg -> {
-                    log.debug("Caching avgSpeed for train {} = {}", trainNo, avg);
-                    cacheService.cacheAverage("avgSpeed", avg).subscribe();
-                });
+        );
     }
 
     @Override
     public Mono<Double> getMinSpeed(Integer trainNo) {
         return queryMetric(
                 trainNo,
-                repo -> repo.findOverallMinSpeedByTrainNo(trainNo),
-                repo -> repo.findOverallMinSpeedByTrainNo(trainNo),
+                "min_spd",
                 "min speed"
         );
     }
@@ -94,8 +85,7 @@ public class AggregationServiceImpl implements AggregationService {
     public Mono<Double> getMaxSpeed(Integer trainNo) {
         return queryMetric(
                 trainNo,
-                repo -> repo.findOverallMaxSpeedByTrainNo(trainNo),
-                repo -> repo.findOverallMaxSpeedByTrainNo(trainNo),
+                "max_spd",
                 "max speed"
         );
     }
@@ -117,8 +107,7 @@ public class AggregationServiceImpl implements AggregationService {
     private Mono<Double> getAverageSquareSpeed(Integer trainNo) {
         return queryMetric(
                 trainNo,
-                repo -> repo.findOverallAvgSquareSpeedByTrainNo(trainNo),
-                repo -> repo.findOverallAvgSquareSpeedByTrainNo(trainNo),
+                "avgsq_spd",
                 "average square speed"
         );
     }
@@ -129,24 +118,19 @@ public class AggregationServiceImpl implements AggregationService {
 
     @Override
     public Mono<Double> getAverageAoa(Integer trainNo) {
-        return queryMetric(
+        return cachedMetric(
+                "avgAoa",
                 trainNo,
-                repo -> repo.findOverallAvgAoaByTrainNo(trainNo),
-                repo -> repo.findOverallAvgAoaByTrainNo(trainNo),
+                "avg_aoa",
                 "average AOA"
-        )
-                .doOnNext(avg -> {
-                    log.debug("Caching avgAoa for train {} = {}", trainNo, avg);
-                    cacheService.cacheAverage("avgAoa", avg).subscribe();
-                });
+        );
     }
 
     @Override
     public Mono<Double> getMinAoa(Integer trainNo) {
         return queryMetric(
                 trainNo,
-                repo -> repo.findOverallMinAoaByTrainNo(trainNo),
-                repo -> repo.findOverallMinAoaByTrainNo(trainNo),
+                "min_aoa",
                 "min AOA"
         );
     }
@@ -155,8 +139,7 @@ public class AggregationServiceImpl implements AggregationService {
     public Mono<Double> getMaxAoa(Integer trainNo) {
         return queryMetric(
                 trainNo,
-                repo -> repo.findOverallMaxAoaByTrainNo(trainNo),
-                repo -> repo.findOverallMaxAoaByTrainNo(trainNo),
+                "max_aoa",
                 "max AOA"
         );
     }
@@ -178,8 +161,7 @@ public class AggregationServiceImpl implements AggregationService {
     private Mono<Double> getAverageSquareAoa(Integer trainNo) {
         return queryMetric(
                 trainNo,
-                repo -> repo.findOverallAvgSquareAoaByTrainNo(trainNo),
-                repo -> repo.findOverallAvgSquareAoaByTrainNo(trainNo),
+                "avgsq_aoa",
                 "average square AOA"
         );
     }
@@ -190,24 +172,19 @@ public class AggregationServiceImpl implements AggregationService {
 
     @Override
     public Mono<Double> getAverageVibrationLeft(Integer trainNo) {
-        return queryMetric(
+        return cachedMetric(
+                "avgVibrationLeft",
                 trainNo,
-                repo -> repo.findOverallAvgVibrationLeftByTrainNo(trainNo),
-                repo -> repo.findOverallAvgVibrationLeftByTrainNo(trainNo),
+                "avg_vvibl",
                 "average vibration left"
-        )
-                .doOnNext(avg -> {
-                    log.debug("Caching avgVibrationLeft for train {} = {}", trainNo, avg);
-                    cacheService.cacheAverage("avgVibrationLeft", avg).subscribe();
-                });
+        );
     }
 
     @Override
     public Mono<Double> getMinVibrationLeft(Integer trainNo) {
         return queryMetric(
                 trainNo,
-                repo -> repo.findOverallMinVibrationLeftByTrainNo(trainNo),
-                repo -> repo.findOverallMinVibrationLeftByTrainNo(trainNo),
+                "min_vvibl",
                 "min vibration left"
         );
     }
@@ -216,8 +193,7 @@ public class AggregationServiceImpl implements AggregationService {
     public Mono<Double> getMaxVibrationLeft(Integer trainNo) {
         return queryMetric(
                 trainNo,
-                repo -> repo.findOverallMaxVibrationLeftByTrainNo(trainNo),
-                repo -> repo.findOverallMaxVibrationLeftByTrainNo(trainNo),
+                "max_vvibl",
                 "max vibration left"
         );
     }
@@ -239,8 +215,7 @@ public class AggregationServiceImpl implements AggregationService {
     private Mono<Double> getAverageSquareVibrationLeft(Integer trainNo) {
         return queryMetric(
                 trainNo,
-                repo -> repo.findOverallAvgSquareVibrationLeftByTrainNo(trainNo),
-                repo -> repo.findOverallAvgSquareVibrationLeftByTrainNo(trainNo),
+                "avgsq_vvibl",
                 "average square vibration left"
         );
     }
@@ -251,24 +226,19 @@ public class AggregationServiceImpl implements AggregationService {
 
     @Override
     public Mono<Double> getAverageVibrationRight(Integer trainNo) {
-        return queryMetric(
+        return cachedMetric(
+                "avgVibrationRight",
                 trainNo,
-                repo -> repo.findOverallAvgVibrationRightByTrainNo(trainNo),
-                repo -> repo.findOverallAvgVibrationRightByTrainNo(trainNo),
+                "avg_vvibr",
                 "average vibration right"
-        )
-                .doOnNext(avg -> {
-                    log.debug("Caching avgVibrationRight for train {} = {}", trainNo, avg);
-                    cacheService.cacheAverage("avgVibrationRight", avg).subscribe();
-                });
+        );
     }
 
     @Override
     public Mono<Double> getMinVibrationRight(Integer trainNo) {
         return queryMetric(
                 trainNo,
-                repo -> repo.findOverallMinVibrationRightByTrainNo(trainNo),
-                repo -> repo.findOverallMinVibrationRightByTrainNo(trainNo),
+                "min_vvibr",
                 "min vibration right"
         );
     }
@@ -277,8 +247,7 @@ public class AggregationServiceImpl implements AggregationService {
     public Mono<Double> getMaxVibrationRight(Integer trainNo) {
         return queryMetric(
                 trainNo,
-                repo -> repo.findOverallMaxVibrationRightByTrainNo(trainNo),
-                repo -> repo.findOverallMaxVibrationRightByTrainNo(trainNo),
+                "max_vvibr",
                 "max vibration right"
         );
     }
@@ -300,8 +269,7 @@ public class AggregationServiceImpl implements AggregationService {
     private Mono<Double> getAverageSquareVibrationRight(Integer trainNo) {
         return queryMetric(
                 trainNo,
-                repo -> repo.findOverallAvgSquareVibrationRightByTrainNo(trainNo),
-                repo -> repo.findOverallAvgSquareVibrationRightByTrainNo(trainNo),
+                "avgsq_vvibr",
                 "average square vibration right"
         );
     }
@@ -312,24 +280,19 @@ public class AggregationServiceImpl implements AggregationService {
 
     @Override
     public Mono<Double> getAverageVerticalForceLeft(Integer trainNo) {
-        return queryMetric(
+        return cachedMetric(
+                "avgVerticalForceLeft",
                 trainNo,
-                repo -> repo.findOverallAvgVerticalForceLeftByTrainNo(trainNo),
-                repo -> repo.findOverallAvgVerticalForceLeftByTrainNo(trainNo),
+                "avg_vfrcl",
                 "average vertical force left"
-        )
-                .doOnNext(avg -> {
-                    log.debug("Caching avgVerticalForceLeft for train {} = {}", trainNo, avg);
-                    cacheService.cacheAverage("avgVerticalForceLeft", avg).subscribe();
-                });
+        );
     }
 
     @Override
     public Mono<Double> getMinVerticalForceLeft(Integer trainNo) {
         return queryMetric(
                 trainNo,
-                repo -> repo.findOverallMinVerticalForceLeftByTrainNo(trainNo),
-                repo -> repo.findOverallMinVerticalForceLeftByTrainNo(trainNo),
+                "min_vfrcl",
                 "min vertical force left"
         );
     }
@@ -338,8 +301,7 @@ public class AggregationServiceImpl implements AggregationService {
     public Mono<Double> getMaxVerticalForceLeft(Integer trainNo) {
         return queryMetric(
                 trainNo,
-                repo -> repo.findOverallMaxVerticalForceLeftByTrainNo(trainNo),
-                repo -> repo.findOverallMaxVerticalForceLeftByTrainNo(trainNo),
+                "max_vfrcl",
                 "max vertical force left"
         );
     }
@@ -361,8 +323,7 @@ public class AggregationServiceImpl implements AggregationService {
     private Mono<Double> getAverageSquareVerticalForceLeft(Integer trainNo) {
         return queryMetric(
                 trainNo,
-                repo -> repo.findOverallAvgSquareVerticalForceLeftByTrainNo(trainNo),
-                repo -> repo.findOverallAvgSquareVerticalForceLeftByTrainNo(trainNo),
+                "avgsq_vfrcl",
                 "average square vertical force left"
         );
     }
@@ -373,24 +334,19 @@ public class AggregationServiceImpl implements AggregationService {
 
     @Override
     public Mono<Double> getAverageVerticalForceRight(Integer trainNo) {
-        return queryMetric(
+        return cachedMetric(
+                "avgVerticalForceRight",
                 trainNo,
-                repo -> repo.findOverallAvgVerticalForceRightByTrainNo(trainNo),
-                repo -> repo.findOverallAvgVerticalForceRightByTrainNo(trainNo),
+                "avg_vfrcr",
                 "average vertical force right"
-        )
-                .doOnNext(avg -> {
-                    log.debug("Caching avgVerticalForceRight for train {} = {}", trainNo, avg);
-                    cacheService.cacheAverage("avgVerticalForceRight", avg).subscribe();
-                });
+        );
     }
 
     @Override
     public Mono<Double> getMinVerticalForceRight(Integer trainNo) {
         return queryMetric(
                 trainNo,
-                repo -> repo.findOverallMinVerticalForceRightByTrainNo(trainNo),
-                repo -> repo.findOverallMinVerticalForceRightByTrainNo(trainNo),
+                "min_vfrcr",
                 "min vertical force right"
         );
     }
@@ -399,8 +355,7 @@ public class AggregationServiceImpl implements AggregationService {
     public Mono<Double> getMaxVerticalForceRight(Integer trainNo) {
         return queryMetric(
                 trainNo,
-                repo -> repo.findOverallMaxVerticalForceRightByTrainNo(trainNo),
-                repo -> repo.findOverallMaxVerticalForceRightByTrainNo(trainNo),
+                "max_vfrcr",
                 "max vertical force right"
         );
     }
@@ -422,8 +377,7 @@ public class AggregationServiceImpl implements AggregationService {
     private Mono<Double> getAverageSquareVerticalForceRight(Integer trainNo) {
         return queryMetric(
                 trainNo,
-                repo -> repo.findOverallAvgSquareVerticalForceRightByTrainNo(trainNo),
-                repo -> repo.findOverallAvgSquareVerticalForceRightByTrainNo(trainNo),
+                "avgsq_vfrcr",
                 "average square vertical force right"
         );
     }
@@ -434,24 +388,19 @@ public class AggregationServiceImpl implements AggregationService {
 
     @Override
     public Mono<Double> getAverageLateralForceLeft(Integer trainNo) {
-        return queryMetric(
+        return cachedMetric(
+                "avgLateralForceLeft",
                 trainNo,
-                repo -> repo.findOverallAvgLateralForceLeftByTrainNo(trainNo),
-                repo -> repo.findOverallAvgLateralForceLeftByTrainNo(trainNo),
+                "avg_lfrcl",
                 "average lateral force left"
-        )
-                .doOnNext(avg -> {
-                    log.debug("Caching avgLateralForceLeft for train {} = {}", trainNo, avg);
-                    cacheService.cacheAverage("avgLateralForceLeft", avg).subscribe();
-                });
+        );
     }
 
     @Override
     public Mono<Double> getMinLateralForceLeft(Integer trainNo) {
         return queryMetric(
                 trainNo,
-                repo -> repo.findOverallMinLateralForceLeftByTrainNo(trainNo),
-                repo -> repo.findOverallMinLateralForceLeftByTrainNo(trainNo),
+                "min_lfrcl",
                 "min lateral force left"
         );
     }
@@ -460,8 +409,7 @@ public class AggregationServiceImpl implements AggregationService {
     public Mono<Double> getMaxLateralForceLeft(Integer trainNo) {
         return queryMetric(
                 trainNo,
-                repo -> repo.findOverallMaxLateralForceLeftByTrainNo(trainNo),
-                repo -> repo.findOverallMaxLateralForceLeftByTrainNo(trainNo),
+                "max_lfrcl",
                 "max lateral force left"
         );
     }
@@ -483,8 +431,7 @@ public class AggregationServiceImpl implements AggregationService {
     private Mono<Double> getAverageSquareLateralForceLeft(Integer trainNo) {
         return queryMetric(
                 trainNo,
-                repo -> repo.findOverallAvgSquareLateralForceLeftByTrainNo(trainNo),
-                repo -> repo.findOverallAvgSquareLateralForceLeftByTrainNo(trainNo),
+                "avgsq_lfrcl",
                 "average square lateral force left"
         );
     }
@@ -495,24 +442,19 @@ public class AggregationServiceImpl implements AggregationService {
 
     @Override
     public Mono<Double> getAverageLateralForceRight(Integer trainNo) {
-        return queryMetric(
+        return cachedMetric(
+                "avgLateralForceRight",
                 trainNo,
-                repo -> repo.findOverallAvgLateralForceRightByTrainNo(trainNo),
-                repo -> repo.findOverallAvgLateralForceRightByTrainNo(trainNo),
+                "avg_lfrcr",
                 "average lateral force right"
-        )
-                .doOnNext(avg -> {
-                    log.debug("Caching avgLateralForceRight for train {} = {}", trainNo, avg);
-                    cacheService.cacheAverage("avgLateralForceRight", avg).subscribe();
-                });
+        );
     }
 
     @Override
     public Mono<Double> getMinLateralForceRight(Integer trainNo) {
         return queryMetric(
                 trainNo,
-                repo -> repo.findOverallMinLateralForceRightByTrainNo(trainNo),
-                repo -> repo.findOverallMinLateralForceRightByTrainNo(trainNo),
+                "min_lfrcr",
                 "min lateral force right"
         );
     }
@@ -521,8 +463,7 @@ public class AggregationServiceImpl implements AggregationService {
     public Mono<Double> getMaxLateralForceRight(Integer trainNo) {
         return queryMetric(
                 trainNo,
-                repo -> repo.findOverallMaxLateralForceRightByTrainNo(trainNo),
-                repo -> repo.findOverallMaxLateralForceRightByTrainNo(trainNo),
+                "max_lfrcr",
                 "max lateral force right"
         );
     }
@@ -544,8 +485,7 @@ public class AggregationServiceImpl implements AggregationService {
     private Mono<Double> getAverageSquareLateralForceRight(Integer trainNo) {
         return queryMetric(
                 trainNo,
-                repo -> repo.findOverallAvgSquareLateralForceRightByTrainNo(trainNo),
-                repo -> repo.findOverallAvgSquareLateralForceRightByTrainNo(trainNo),
+                "avgsq_lfrcr",
                 "average square lateral force right"
         );
     }
@@ -556,24 +496,19 @@ public class AggregationServiceImpl implements AggregationService {
 
     @Override
     public Mono<Double> getAverageLateralVibrationLeft(Integer trainNo) {
-        return queryMetric(
+        return cachedMetric(
+                "avgLateralVibrationLeft",
                 trainNo,
-                repo -> repo.findOverallAvgLateralVibrationLeftByTrainNo(trainNo),
-                repo -> repo.findOverallAvgLateralVibrationLeftByTrainNo(trainNo),
+                "avg_lvibl",
                 "average lateral vibration left"
-        )
-                .doOnNext(avg -> {
-                    log.debug("Caching avgLateralVibrationLeft for train {} = {}", trainNo, avg);
-                    cacheService.cacheAverage("avgLateralVibrationLeft", avg).subscribe();
-                });
+        );
     }
 
     @Override
     public Mono<Double> getMinLateralVibrationLeft(Integer trainNo) {
         return queryMetric(
                 trainNo,
-                repo -> repo.findOverallMinLateralVibrationLeftByTrainNo(trainNo),
-                repo -> repo.findOverallMinLateralVibrationLeftByTrainNo(trainNo),
+                "min_lvibl",
                 "min lateral vibration left"
         );
     }
@@ -582,8 +517,7 @@ public class AggregationServiceImpl implements AggregationService {
     public Mono<Double> getMaxLateralVibrationLeft(Integer trainNo) {
         return queryMetric(
                 trainNo,
-                repo -> repo.findOverallMaxLateralVibrationLeftByTrainNo(trainNo),
-                repo -> repo.findOverallMaxLateralVibrationLeftByTrainNo(trainNo),
+                "max_lvibl",
                 "max lateral vibration left"
         );
     }
@@ -605,8 +539,7 @@ public class AggregationServiceImpl implements AggregationService {
     private Mono<Double> getAverageSquareLateralVibrationLeft(Integer trainNo) {
         return queryMetric(
                 trainNo,
-                repo -> repo.findOverallAvgSquareLateralVibrationLeftByTrainNo(trainNo),
-                repo -> repo.findOverallAvgSquareLateralVibrationLeftByTrainNo(trainNo),
+                "avgsq_lvibl",
                 "average square lateral vibration left"
         );
     }
@@ -617,24 +550,19 @@ public class AggregationServiceImpl implements AggregationService {
 
     @Override
     public Mono<Double> getAverageLateralVibrationRight(Integer trainNo) {
-        return queryMetric(
+        return cachedMetric(
+                "avgLateralVibrationRight",
                 trainNo,
-                repo -> repo.findOverallAvgLateralVibrationRightByTrainNo(trainNo),
-                repo -> repo.findOverallAvgLateralVibrationRightByTrainNo(trainNo),
+                "avg_lvibr",
                 "average lateral vibration right"
-        )
-                .doOnNext(avg -> {
-                    log.debug("Caching avgLateralVibrationRight for train {} = {}", trainNo, avg);
-                    cacheService.cacheAverage("avgLateralVibrationRight", avg).subscribe();
-                });
+        );
     }
 
     @Override
     public Mono<Double> getMinLateralVibrationRight(Integer trainNo) {
         return queryMetric(
                 trainNo,
-                repo -> repo.findOverallMinLateralVibrationRightByTrainNo(trainNo),
-                repo -> repo.findOverallMinLateralVibrationRightByTrainNo(trainNo),
+                "min_lvibr",
                 "min lateral vibration right"
         );
     }
@@ -643,8 +571,7 @@ public class AggregationServiceImpl implements AggregationService {
     public Mono<Double> getMaxLateralVibrationRight(Integer trainNo) {
         return queryMetric(
                 trainNo,
-                repo -> repo.findOverallMaxLateralVibrationRightByTrainNo(trainNo),
-                repo -> repo.findOverallMaxLateralVibrationRightByTrainNo(trainNo),
+                "max_lvibr",
                 "max lateral vibration right"
         );
     }
@@ -666,40 +593,49 @@ public class AggregationServiceImpl implements AggregationService {
     private Mono<Double> getAverageSquareLateralVibrationRight(Integer trainNo) {
         return queryMetric(
                 trainNo,
-                repo -> repo.findOverallAvgSquareLateralVibrationRightByTrainNo(trainNo),
-                repo -> repo.findOverallAvgSquareLateralVibrationRightByTrainNo(trainNo),
+                "avgsq_lvibr",
                 "average square lateral vibration right"
         );
     }
 
     //───────────────────────────────────────────────────────────────────────────────
-    // GENERIC ROUTING HELPER
+    // GENERIC LOOKUP HELPER
     //───────────────────────────────────────────────────────────────────────────────
 
     /**
-     * Routes to the correct repository implementation,
-     * applies the given function and handles errors uniformly.
+     * Reads one aggregate of a train from the batched loader and handles
+     * errors uniformly. Empty if the train has no readings.
      */
     private Mono<Double> queryMetric(
             Integer trainNo,
-            Function<HaugfjellMP1AxlesRepository, Mono<Double>> mp1Query,
-            Function<HaugfjellMP3AxlesRepository, Mono<Double>> mp3Query,
+            String stat,
             String metricName
     ) {
-        Objects.requireNonNull(trainNo, metricName + " requires a train number");
+        return loadMetric(trainNo, stat, metricName)
+                .doOnError(e -> log.warn("Error fetching {} for train {}: {}", metricName, trainNo, e.getMessage()))
+                .onErrorReturn(0.0);
+    }
 
-        return repositoryResolver.resolveRepository(trainNo)
-                .flatMap(repo -> {
-                    if (repo instanceof HaugfjellMP1AxlesRepository r1) {
-                        return mp1Query.apply(r1);
-                    } else if (repo instanceof HaugfjellMP3AxlesRepository r3) {
-                        return mp3Query.apply(r3);
-                    } else {
-                        return Mono.error(new IllegalStateException("No matching repository for train " + trainNo));
-                    }
-                })
-                .doOnSuccess(v -> log.debug("{} for train {} = {}", metricName, trainNo, v))
+    /**
+     * Like {@link #queryMetric}, but served from the version-keyed cache while
+     * the train has no new data. Failed queries fall back to 0.0 without being cached.
+     */
+    private Mono<Double> cachedMetric(
+            String cacheKey,
+            Integer trainNo,
+            String stat,
+            String metricName
+    ) {
+        return cacheService.cachedAverage(cacheKey, trainNo, loadMetric(trainNo, stat, metricName))
                 .doOnError(e -> log.warn("Error fetching {} for train {}: {}", metricName, trainNo, e.getMessage()))
                 .onErrorReturn(0.0);
     }
+
+    private Mono<Double> loadMetric(Integer trainNo, String stat, String metricName) {
+        Objects.requireNonNull(trainNo, metricName + " requires a train number");
+
+        return metricsLoader.load(trainNo)
+                .flatMap(stats -> Mono.justOrEmpty(stats.value(stat)))
+                .doOnSuccess(v -> log.debug("{} for train {} = {}", metricName, trainNo, v));
+    }
 }
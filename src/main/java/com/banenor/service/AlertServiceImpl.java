@@ -10,6 +10,7 @@ import io.vertx.ext.mail.MailMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
@@ -22,6 +23,7 @@ import java.time.LocalDateTime;
 @RequiredArgsConstructor
 public class AlertServiceImpl implements AlertService {
 
+    @Lazy
     private final MailClient mailClient;
     private final AlertHistoryRepository alertRepo;
     private final AlertHistoryMapper mapper;
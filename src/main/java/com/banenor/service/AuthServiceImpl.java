@@ -8,6 +8,8 @@ import com.banenor.exception.UserNotFoundException;
 import com.banenor.model.User;
 import com.banenor.repository.UserRepository;
 import com.banenor.security.JwtTokenUtil;
+import com.banenor.security.PasswordHasher;
+import com.banenor.security.VerifiedTokenCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
@@ -19,7 +21,6 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
@@ -37,10 +38,11 @@ public class AuthServiceImpl implements AuthService {
     private final ReactiveAuthenticationManager authenticationManager;
     private final ReactiveUserDetailsService userDetailsService;
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final JwtTokenUtil jwtTokenUtil;
     private final EmailService emailService;
     private final ReactiveRedisTemplate<String, Object> redisTemplate;
+    private final VerifiedTokenCache tokenCache;
 
     @Override
     @Audit(action = "User Registration", resource = "User")
@@ -54,11 +56,11 @@ public class AuthServiceImpl implements AuthService {
                 .switchIfEmpty(
                         userRepository.findByEmail(email)
                                 .flatMap(u -> Mono.<User>error(new UserAlreadyExistsException("Email is already registered")))
-                                .switchIfEmpty(Mono.defer(() -> {
+                                .switchIfEmpty(passwordHasher.encode(rawPwd).flatMap(encoded -> {
                                     User user = User.builder()
                                             .username(username)
                                             .email(email)
-                                            .password(passwordEncoder.encode(rawPwd))
+                                            .password(encoded)
                                             .role("USER")
                                             .enabled(false)
                                             .build();
@@ -126,7 +128,7 @@ public class AuthServiceImpl implements AuthService {
         String key = "jwtBlacklist:" + token;
         return redisTemplate.opsForValue()
                 .set(key, Boolean.TRUE, Duration.ofSeconds(ttlSeconds))
-                .then();
+                .then(tokenCache.revoke(token));
     }
 
     @Override
@@ -138,11 +140,12 @@ public class AuthServiceImpl implements AuthService {
 
         return userRepository.findByEmail(email)
                 .switchIfEmpty(Mono.error(new UserNotFoundException("No user with email: " + email)))
-                .flatMap(user -> {
-                    user.setPassword(passwordEncoder.encode(newPwd));
+                .flatMap(user -> passwordHasher.encode(newPwd).flatMap(encoded -> {
+                    user.setPassword(encoded);
                     log.info("Reset password for {}", user.getUsername());
-                    return userRepository.save(user).then();
-                });
+                    return userRepository.save(user)
+                            .then(tokenCache.revokeUser(user.getUsername()));
+                }));
     }
 
     @Override
@@ -156,14 +159,19 @@ public class AuthServiceImpl implements AuthService {
                 .map(Authentication::getName)
                 .flatMap(username -> userRepository.findByUsername(username)
                         .switchIfEmpty(Mono.error(new UserNotFoundException("User not found: " + username)))
-                        .flatMap(user -> {
-                            if (!passwordEncoder.matches(oldPwd, user.getPassword())) {
-                                return Mono.error(new InvalidCredentialsException("Current password is incorrect"));
-                            }
-                            user.setPassword(passwordEncoder.encode(newPwd));
-                            log.info("User {} changed their password", username);
-                            return userRepository.save(user).then();
-                        })
+                        .flatMap(user -> passwordHasher.matches(oldPwd, user.getPassword())
+                                .flatMap(matches -> {
+                                    if (!matches) {
+                                        return Mono.error(new InvalidCredentialsException("Current password is incorrect"));
+                                    }
+                                    return passwordHasher.encode(newPwd);
+                                })
+                                .flatMap(encoded -> {
+                                    user.setPassword(encoded);
+                                    log.info("User {} changed their password", username);
+                                    return userRepository.save(user)
+                                            .then(tokenCache.revokeUser(username));
+                                }))
                 );
     }
 
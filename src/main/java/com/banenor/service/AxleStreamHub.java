@@ -0,0 +1,202 @@
+package com.banenor.service;
+
+import com.banenor.dto.AxlesDataDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fan-out hub for live axle readings. Subscribers are indexed by
+ * {@link AxleStreamKey}, so each event is looked up under its train key and
+ * its station key and handed only to those subscribers, instead of every
+ * subscriber filtering the whole stream. Each subscriber has a bounded
+ * buffer that drops its oldest reading when the client falls behind.
+ */
+@Slf4j
+@Component
+public class AxleStreamHub {
+
+    private static final class Subscriber {
+        final Sinks.Many<AxlesDataDTO> sink = Sinks.many().unicast().onBackpressureError();
+
+        synchronized Sinks.EmitResult emit(AxlesDataDTO event) {
+            return sink.tryEmitNext(event);
+        }
+    }
+
+    private final Map<AxleStreamKey, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final List<Runnable> keyListeners = new CopyOnWriteArrayList<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicInteger stationSubscriberCount = new AtomicInteger();
+    private final int bufferSize;
+    private final Counter dispatched;
+    private final Counter dropped;
+    private final Map<Sinks.EmitResult, Counter> emitFailures = new EnumMap<>(Sinks.EmitResult.class);
+
+    public AxleStreamHub(MeterRegistry meterRegistry,
+                         @Value("${sse.axles.subscriber-buffer-size:256}") int bufferSize) {
+        this.bufferSize = bufferSize;
+        this.dispatched = meterRegistry.counter("sse.axles.events.dispatched");
+        this.dropped = meterRegistry.counter("sse.axles.events.dropped");
+        for (Sinks.EmitResult result : Sinks.EmitResult.values()) {
+            if (result.isFailure()) {
+                emitFailures.put(result, Counter.builder("sse.axles.events.emit.failed")
+                        .description("Axle events a subscriber's sink did not accept")
+                        .tag("reason", result.name())
+                        .register(meterRegistry));
+            }
+        }
+        meterRegistry.gauge("sse.axles.subscribers", subscriberCount);
+        meterRegistry.gauge("sse.axles.keys", subscribers, Map::size);
+    }
+
+    /**
+     * Live readings for one key, buffered up to the configured size per subscriber.
+     */
+    public Flux<AxlesDataDTO> subscribe(AxleStreamKey key) {
+        return Flux.defer(() -> {
+            Subscriber subscriber = new Subscriber();
+            add(key, subscriber);
+            return subscriber.sink.asFlux()
+                    .onBackpressureBuffer(bufferSize,
+                            ignored -> dropped.increment(),
+                            BufferOverflowStrategy.DROP_OLDEST)
+                    .doFinally(sig -> remove(key, subscriber));
+        });
+    }
+
+    /**
+     * True if anyone is subscribed to a whole station, i.e. events need their station resolved.
+     */
+    public boolean hasStationSubscribers() {
+        return stationSubscriberCount.get() > 0;
+    }
+
+    /**
+     * Dispatches one event to the subscribers of its train key and, when the
+     * station is known, its station key.
+     */
+    public void publish(AxlesDataDTO event, String station) {
+        if (event.getTrainNo() == null || event.getMeasurementPoint() == null) {
+            log.debug("Ignoring axle event without trainNo/TP: {}", event);
+            return;
+        }
+        deliver(AxleStreamKey.train(event.getTrainNo(), event.getMeasurementPoint()), event);
+        if (station != null) {
+            publishStation(event, station);
+        }
+    }
+
+    /**
+     * Dispatches an event to the station-wide subscribers only, for events whose
+     * station was resolved after they were handed to their train subscribers.
+     */
+    public void publishStation(AxlesDataDTO event, String station) {
+        if (event.getMeasurementPoint() == null) {
+            return;
+        }
+        deliver(AxleStreamKey.station(station, event.getMeasurementPoint()), event);
+    }
+
+    /**
+     * The keys that currently have at least one subscriber.
+     */
+    public Set<AxleStreamKey> keys() {
+        return Set.copyOf(subscribers.keySet());
+    }
+
+    /**
+     * Registers a callback run when a key gains its first or loses its last subscriber.
+     */
+    public void addKeyListener(Runnable listener) {
+        keyListeners.add(listener);
+    }
+
+    /**
+     * Completes every open subscription.
+     */
+    public void completeAll() {
+        subscribers.values().forEach(set -> set.forEach(s -> s.sink.tryEmitComplete()));
+    }
+
+    private void deliver(AxleStreamKey key, AxlesDataDTO event) {
+        Set<Subscriber> targets = subscribers.get(key);
+        if (targets == null) {
+            return;
+        }
+        for (Subscriber s : targets) {
+            Sinks.EmitResult result = s.emit(event);
+            if (result.isSuccess()) {
+                dispatched.increment();
+                continue;
+            }
+            emitFailures.get(result).increment();
+            if (result == Sinks.EmitResult.FAIL_TERMINATED || result == Sinks.EmitResult.FAIL_CANCELLED) {
+                // the stream is over but its cleanup has not run yet; stop offering it events
+                targets.remove(s);
+            } else {
+                log.debug("Axle event for {} not delivered to a subscriber: {}", key, result);
+            }
+        }
+    }
+
+    private void add(AxleStreamKey key, Subscriber subscriber) {
+        boolean[] created = new boolean[1];
+        subscribers.compute(key, (k, set) -> {
+            if (set == null) {
+                set = ConcurrentHashMap.newKeySet();
+                created[0] = true;
+            }
+            set.add(subscriber);
+            return set;
+        });
+        subscriberCount.incrementAndGet();
+        if (key.isStationWide()) {
+            stationSubscriberCount.incrementAndGet();
+        }
+        log.debug("SSE subscriber added for {}", key);
+        if (created[0]) {
+            fireKeysChanged();
+        }
+    }
+
+    private void remove(AxleStreamKey key, Subscriber subscriber) {
+        boolean[] emptied = new boolean[1];
+        subscribers.computeIfPresent(key, (k, set) -> {
+            set.remove(subscriber);
+            emptied[0] = set.isEmpty();
+            return emptied[0] ? null : set;
+        });
+        subscriberCount.decrementAndGet();
+        if (key.isStationWide()) {
+            stationSubscriberCount.decrementAndGet();
+        }
+        log.debug("SSE subscriber removed for {}", key);
+        if (emptied[0]) {
+            fireKeysChanged();
+        }
+    }
+
+    private void fireKeysChanged() {
+        for (Runnable listener : keyListeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                log.warn("Axle stream key listener failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+}
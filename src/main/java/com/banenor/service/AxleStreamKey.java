@@ -0,0 +1,32 @@
+package com.banenor.service;
+
+import lombok.Value;
+
+import java.util.Locale;
+
+/**
+ * Subscription key of the axle SSE hub. A key names either one train
+ * (station null) or a whole station (trainNo null), always for one TP.
+ */
+@Value
+public class AxleStreamKey {
+    String station;
+    Integer trainNo;
+    String measurementPoint;
+
+    public static AxleStreamKey train(Integer trainNo, String measurementPoint) {
+        return new AxleStreamKey(null, trainNo, normalize(measurementPoint));
+    }
+
+    public static AxleStreamKey station(String station, String measurementPoint) {
+        return new AxleStreamKey(normalize(station), null, normalize(measurementPoint));
+    }
+
+    public boolean isStationWide() {
+        return trainNo == null;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? null : value.trim().toUpperCase(Locale.ROOT);
+    }
+}
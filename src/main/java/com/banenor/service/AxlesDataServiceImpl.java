@@ -1,5 +1,6 @@
 package com.banenor.service;
 
+import com.banenor.cache.RecomputeCoordinator;
 import com.banenor.dto.AxlesDataDTO;
 import com.banenor.model.AbstractAxles;
 import com.banenor.repository.HaugfjellMP1AxlesRepository;
@@ -32,6 +33,7 @@ public class AxlesDataServiceImpl implements AxlesDataService {
     private static final Duration GLOBAL_CACHE_TTL = Duration.ofMinutes(5);
     private final RepositoryResolver repositoryResolver;
     private final ReactiveRedisTemplate<String, AxlesDataDTO> redisTemplate;
+    private final RecomputeCoordinator recomputeCoordinator;
 
     @Override
     public Flux<AxlesDataDTO> getAxlesData(Integer trainNo,
@@ -84,27 +86,21 @@ public class AxlesDataServiceImpl implements AxlesDataService {
         String cacheKey = "axles:global:" + measurementPoint;
         log.debug("Fetching global-aggregations for {}", measurementPoint);
 
-        return redisTemplate
-                .opsForValue()
-                .get(cacheKey)
-                .doOnNext(dto ->
-                        log.debug("Cache hit for global-aggregations {}", measurementPoint))
-                .switchIfEmpty(
-                        computeGlobalAggregation(measurementPoint)
-                                .flatMap(dto ->
-                                        redisTemplate
-                                                .opsForValue()
-                                                .set(cacheKey, dto, GLOBAL_CACHE_TTL)
-                                                .doOnSuccess(ok -> {
-                                                    if (Boolean.TRUE.equals(ok)) {
-                                                        log.debug("Cached global-aggregations {}", cacheKey);
-                                                    } else {
-                                                        log.warn("Failed to cache global-aggregations {}", cacheKey);
-                                                    }
-                                                })
-                                                .thenReturn(dto)
-                                )
-                );
+        return recomputeCoordinator.getOrCompute(
+                cacheKey,
+                GLOBAL_CACHE_TTL,
+                redisTemplate.opsForValue().get(cacheKey)
+                        .doOnNext(dto -> log.debug("Cache hit for global-aggregations {}", measurementPoint)),
+                dto -> redisTemplate.opsForValue()
+                        .set(cacheKey, dto, GLOBAL_CACHE_TTL)
+                        .doOnSuccess(ok -> {
+                            if (Boolean.TRUE.equals(ok)) {
+                                log.debug("Cached global-aggregations {}", cacheKey);
+                            } else {
+                                log.warn("Failed to cache global-aggregations {}", cacheKey);
+                            }
+                        }),
+                computeGlobalAggregation(measurementPoint));
     }
 
     private Mono<AxlesDataDTO> computeGlobalAggregation(String measurementPoint) {
@@ -2,7 +2,22 @@ package com.banenor.service;
 
 import reactor.core.publisher.Mono;
 
+/**
+ * Cached metric averages, keyed by metric, train (null for fleet-wide values)
+ * and the data version of that train, so entries are superseded as soon as
+ * new data for the train is ingested.
+ */
 public interface CacheService {
-    Mono<Void> cacheAverage(String key, Double value);
-    Mono<Double> getCachedAverage(String key);
+
+    Mono<Void> cacheAverage(String metric, Integer trainNo, Double value);
+
+    /**
+     * The cached value for the train's current data version, or empty if none.
+     */
+    Mono<Double> getCachedAverage(String metric, Integer trainNo);
+
+    /**
+     * Read-through: the cached value if present, otherwise the computed one, which is then cached.
+     */
+    Mono<Double> cachedAverage(String metric, Integer trainNo, Mono<Double> compute);
 }
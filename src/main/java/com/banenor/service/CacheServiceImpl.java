@@ -1,51 +1,87 @@
 package com.banenor.service;
 
+import com.banenor.cache.NearCache;
+import com.banenor.cache.TrainDataVersions;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.ReactiveRedisTemplate;
-import org.springframework.data.redis.core.ReactiveValueOperations;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
-import java.time.Duration;
+import java.util.Optional;
 
+/**
+ * Cached aggregate averages, served from the local tier of {@link NearCache}
+ * when possible and from Redis otherwise. Keys carry the train's data
+ * version from {@link TrainDataVersions}, e.g. "avgSpeed:train:12:v7".
+ */
 @Service
 @Slf4j
 public class CacheServiceImpl implements CacheService {
 
-    private static final Duration DEFAULT_TTL = Duration.ofMinutes(5);
-    private final ReactiveValueOperations<String, Object> valueOps;
+    private static final String AVERAGES = "averages";
+    private final NearCache nearCache;
+    private final TrainDataVersions versions;
 
-    public CacheServiceImpl(ReactiveRedisTemplate<String, Object> redisTemplate) {
-        this.valueOps = redisTemplate.opsForValue();
+    public CacheServiceImpl(NearCache nearCache, TrainDataVersions versions) {
+        this.nearCache = nearCache;
+        this.versions = versions;
     }
 
     @Override
-    public Mono<Void> cacheAverage(String key, Double value) {
-        String redisKey = "averages:" + key;
-        return valueOps
-                .set(redisKey, value, DEFAULT_TTL)
-                .doOnSuccess(ok -> {
-                    if (Boolean.TRUE.equals(ok)) {
-                        log.debug("Cached average {} = {} (TTL {}s)", redisKey, value, DEFAULT_TTL.getSeconds());
-                    } else {
-                        log.warn("Failed to cache average for key {}", redisKey);
-                    }
-                })
-                .doOnError(ex -> log.error("Error caching average for key {}", redisKey, ex))
+    public Mono<Void> cacheAverage(String metric, Integer trainNo, Double value) {
+        return key(metric, trainNo)
+                .flatMap(key -> nearCache.put(AVERAGES, key, value)
+                        .doOnSuccess(ok -> {
+                            if (Boolean.TRUE.equals(ok)) {
+                                log.debug("Cached average {}:{} = {}", AVERAGES, key, value);
+                            } else {
+                                log.warn("Failed to cache average for key {}:{}", AVERAGES, key);
+                            }
+                        }))
+                .doOnError(ex -> log.error("Error caching average {} for train {}", metric, trainNo, ex))
                 .then();
     }
 
     @Override
-    public Mono<Double> getCachedAverage(String key) {
-        String redisKey = "averages:" + key;
-        return valueOps
-                .get(redisKey)
-                .cast(Double.class)
-                .doOnNext(val -> log.debug("Fetched cached average {} = {}", redisKey, val))
+    public Mono<Double> getCachedAverage(String metric, Integer trainNo) {
+        return key(metric, trainNo)
+                .flatMap(key -> nearCache.get(AVERAGES, key, Double.class)
+                        .doOnNext(val -> log.debug("Fetched cached average {}:{} = {}", AVERAGES, key, val)))
                 .onErrorResume(ex -> {
-                    log.error("Error retrieving cached average for key {}", redisKey, ex);
-                    return Mono.just(0.0);
+                    log.error("Error retrieving cached average {} for train {}", metric, trainNo, ex);
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * The key is taken before computing, so a value computed while new data
+     * arrives is stored under the old version and never served as current.
+     */
+    @Override
+    public Mono<Double> cachedAverage(String metric, Integer trainNo, Mono<Double> compute) {
+        return key(metric, trainNo)
+                .map(Optional::of)
+                .onErrorResume(ex -> {
+                    log.warn("Data version unavailable for {} / train {}, computing uncached: {}",
+                            metric, trainNo, ex.getMessage());
+                    return Mono.just(Optional.empty());
                 })
-                .defaultIfEmpty(0.0);
+                .flatMap(key -> key.isEmpty()
+                        ? compute
+                        : nearCache.get(AVERAGES, key.get(), Double.class)
+                                .onErrorResume(ex -> Mono.empty())
+                                .switchIfEmpty(Mono.defer(() -> compute
+                                        .flatMap(value -> nearCache.put(AVERAGES, key.get(), value)
+                                                .onErrorResume(ex -> {
+                                                    log.warn("Failed to cache average {}:{}: {}",
+                                                            AVERAGES, key.get(), ex.getMessage());
+                                                    return Mono.just(false);
+                                                })
+                                                .thenReturn(value)))));
+    }
+
+    private Mono<String> key(String metric, Integer trainNo) {
+        String scope = trainNo == null ? TrainDataVersions.GLOBAL : "train:" + trainNo;
+        return versions.current(trainNo)
+                .map(v -> metric + ":" + scope + ":v" + v);
     }
 }
@@ -1,7 +1,6 @@
 package com.banenor.service;
 
 import java.util.Collections;
-import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
@@ -11,12 +10,12 @@ import org.springframework.stereotype.Service;
 
 import com.banenor.model.User;
 import com.banenor.repository.UserRepository;
+import com.banenor.security.LoginAttemptStore;
 
 import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 @Slf4j
 @Service
@@ -24,11 +23,9 @@ import reactor.core.scheduler.Schedulers;
 public class CustomUserDetailsService implements ReactiveUserDetailsService {
 
     private final UserRepository userRepository;
+    private final LoginAttemptStore loginAttempts;
     private final MeterRegistry meterRegistry;
 
-    private static final ConcurrentHashMap<String, Integer> FAILED_LOGIN_ATTEMPTS = new ConcurrentHashMap<>();
-    private static final int MAX_FAILED_ATTEMPTS = 5;
-
     @Override
     public Mono<UserDetails> findByUsername(String username) {
         // EARLY GUARD: reject null or blank usernames immediately
@@ -38,43 +35,35 @@ public class CustomUserDetailsService implements ReactiveUserDetailsService {
 
         String normalized = username.trim().toLowerCase();
 
-        return Mono.defer(() -> {
+        // usernames are not used as meter tags: every name tried would become a new meter
+        return loginAttempts.attempts(normalized)
+                .flatMap(failed -> {
                     // Check for account lockout
-                    if (isAccountLocked(normalized)) {
+                    if (failed >= loginAttempts.maxFailures()) {
                         log.warn("Account locked for user: {}", normalized);
-                        meterRegistry.counter("user.login.attempts.locked",
-                                "username", normalized).increment();
+                        meterRegistry.counter("user.login.attempts.locked").increment();
                         return Mono.error(new UsernameNotFoundException(
                                 "Account is temporarily locked. Please try again later."));
                     }
 
                     return userRepository.findByUsername(normalized)
                             .switchIfEmpty(Mono.defer(() -> {
-                                incrementFailedAttempts(normalized);
                                 meterRegistry.counter("user.login.attempts.failed",
-                                        "username", normalized,
                                         "reason", "not_found").increment();
-                                return Mono.error(new UsernameNotFoundException(
-                                        "User not found with username: " + normalized));
+                                return loginAttempts.recordFailure(normalized)
+                                        .then(Mono.<User>error(new UsernameNotFoundException(
+                                                "User not found with username: " + normalized)));
                             }))
-                            .map(user -> {
-                                // Reset failed attempts on successful lookup
-                                FAILED_LOGIN_ATTEMPTS.remove(normalized);
-                                meterRegistry.counter("user.login.attempts.success",
-                                        "username", normalized).increment();
-
-                                return createUserDetails(user);
-                            })
+                            // failures are only cleared once the password has matched, see loginSucceeded
+                            .map(this::createUserDetails)
                             .doOnError(e -> {
                                 if (!(e instanceof UsernameNotFoundException)) {
                                     log.error("Error finding user {}: {}", normalized, e.getMessage(), e);
                                     meterRegistry.counter("user.login.attempts.error",
-                                            "username", normalized,
                                             "error", e.getClass().getSimpleName()).increment();
                                 }
                             });
-                })
-                .subscribeOn(Schedulers.boundedElastic());
+                });
     }
 
     private UserDetails createUserDetails(User user) {
@@ -91,66 +80,41 @@ public class CustomUserDetailsService implements ReactiveUserDetailsService {
         );
     }
 
-    private void incrementFailedAttempts(String username) {
-        FAILED_LOGIN_ATTEMPTS.compute(username, (key, attempts) ->
-                (attempts == null) ? 1 : attempts + 1
-        );
+    /**
+     * Clears the failed attempts of a user whose password has just matched.
+     */
+    public Mono<Void> loginSucceeded(String username) {
+        meterRegistry.counter("user.login.attempts.success").increment();
+        return loginAttempts.reset(username.trim().toLowerCase());
     }
 
-    private boolean isAccountLocked(String username) {
-        Integer attempts = FAILED_LOGIN_ATTEMPTS.get(username);
-        return attempts != null && attempts >= MAX_FAILED_ATTEMPTS;
+    /**
+     * Counts a wrong password towards the lockout of an existing user.
+     */
+    public Mono<Void> loginFailed(String username) {
+        meterRegistry.counter("user.login.attempts.failed", "reason", "bad_credentials").increment();
+        return loginAttempts.recordFailure(username.trim().toLowerCase()).then();
     }
 
     public Mono<Void> resetFailedAttempts(String username) {
-        return Mono.defer(() -> {
-            try {
-                FAILED_LOGIN_ATTEMPTS.remove(username);
-                meterRegistry.counter("user.login.attempts.reset",
-                        "username", username).increment();
-                return Mono.empty().then();
-            } catch (Exception e) {
-                log.error("Error resetting failed attempts for user {}: {}",
-                        username, e.getMessage(), e);
-                meterRegistry.counter("user.login.attempts.reset.error",
-                        "username", username,
-                        "error", e.getClass().getSimpleName()).increment();
-                return Mono.error(e);
-            }
-        }).subscribeOn(Schedulers.boundedElastic());
+        return loginAttempts.reset(username)
+                .doOnSuccess(v -> meterRegistry.counter("user.login.attempts.reset").increment())
+                .doOnError(e -> {
+                    log.error("Error resetting failed attempts for user {}: {}",
+                            username, e.getMessage(), e);
+                    meterRegistry.counter("user.login.attempts.reset.error",
+                            "error", e.getClass().getSimpleName()).increment();
+                });
     }
 
     public Mono<Integer> getFailedAttempts(String username) {
-        return Mono.defer(() -> {
-            try {
-                Integer attempts = FAILED_LOGIN_ATTEMPTS.get(username);
-                return Mono.just(attempts != null ? attempts : 0);
-            } catch (Exception e) {
-                log.error("Error getting failed attempts for user {}: {}",
-                        username, e.getMessage(), e);
-                meterRegistry.counter("user.login.attempts.get.error",
-                        "username", username,
-                        "error", e.getClass().getSimpleName()).increment();
-                return Mono.error(e);
-            }
-        }).subscribeOn(Schedulers.boundedElastic());
+        return loginAttempts.attempts(username);
     }
 
     public Mono<Void> cleanupExpiredLockouts() {
-        return Mono.defer(() -> {
-            try {
-                long now = System.currentTimeMillis();
-                FAILED_LOGIN_ATTEMPTS.entrySet().removeIf(entry ->
-                        entry.getValue() >= MAX_FAILED_ATTEMPTS);
-
-                meterRegistry.counter("user.login.attempts.cleanup.executed").increment();
-                return Mono.empty().then();
-            } catch (Exception e) {
-                log.error("Error cleaning up expired lockouts: {}", e.getMessage(), e);
-                meterRegistry.counter("user.login.attempts.cleanup.error",
-                        "error", e.getClass().getSimpleName()).increment();
-                return Mono.error(e);
-            }
-        }).subscribeOn(Schedulers.boundedElastic());
+        return Mono.fromRunnable(() -> {
+            loginAttempts.cleanUp();
+            meterRegistry.counter("user.login.attempts.cleanup.executed").increment();
+        });
     }
 }
@@ -4,27 +4,19 @@ import com.banenor.dto.AlertDTO;
 import com.banenor.dto.HistoricalDataResponse;
 import com.banenor.dto.SensorMetricsDTO;
 import com.banenor.dto.SystemDashboardDTO;
-import com.banenor.model.AbstractAxles;
+import com.banenor.dto.TrainMetricStats;
 import com.banenor.model.HaugfjellMP1Header;
 import com.banenor.model.HaugfjellMP3Header;
-import com.banenor.repository.HaugfjellMP1AxlesRepository;
 import com.banenor.repository.HaugfjellMP1HeaderRepository;
-import com.banenor.repository.HaugfjellMP3AxlesRepository;
 import com.banenor.repository.HaugfjellMP3HeaderRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.beans.PropertyDescriptor;
-import java.time.Duration;
-import java.util.Arrays;
 import java.util.DoubleSummaryStatistics;
 import java.util.List;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -33,28 +25,17 @@ public class DashboardServiceImpl implements DashboardService {
 
     private final HaugfjellMP1HeaderRepository mp1HeaderRepository;
     private final HaugfjellMP3HeaderRepository mp3HeaderRepository;
-    private final HaugfjellMP1AxlesRepository mp1Repository;
-    private final HaugfjellMP3AxlesRepository mp3Repository;
+    private final TrainMetricsLoader metricsLoader;
     private final AlertService alertService;
     private final SystemHealthService systemHealthService;
 
     @Override
     public Mono<SensorMetricsDTO> getLatestMetrics(Integer analysisId) {
-        return Flux.concat(
-                        mp1HeaderRepository.findById(analysisId),
-                        mp3HeaderRepository.findById(analysisId)
-                )
-                .next()
-                .switchIfEmpty(Mono.error(
-                        new IllegalArgumentException("No header for analysisId=" + analysisId)))
-                .flatMap(header -> {
-                    boolean isMp1 = header instanceof HaugfjellMP1Header;
-                    log.info("Found {} header for analysisId={}",
-                            isMp1 ? "MP1" : "MP3", analysisId);
-                    Flux<AbstractAxles> raw = isMp1
-                            ? mp1Repository.findByTrainNo(analysisId).cast(AbstractAxles.class)
-                            : mp3Repository.findByTrainNo(analysisId).cast(AbstractAxles.class);
-                    return aggregateMetrics(analysisId, raw);
+        return metricsLoader.load(analysisId)
+                .map(stats -> {
+                    log.info("Loaded {} metrics for analysisId={} ({} readings)",
+                            stats.getStation(), analysisId, stats.getSamples());
+                    return toMetrics(analysisId, stats);
                 })
                 .doOnError(e -> log.error("getLatestMetrics failed for {}: {}", analysisId, e.getMessage(), e));
     }
@@ -138,80 +119,27 @@ public class DashboardServiceImpl implements DashboardService {
         return stats.getCount() > 0 ? stats.getAverage() : 0.0;
     }
 
-    private Mono<SensorMetricsDTO> aggregateMetrics(Integer analysisId,
-                                                    Flux<AbstractAxles> rawFlux) {
-        Flux<AbstractAxles> shared = rawFlux.publish().refCount(1);
-
-        Mono<Double> avgSpeed     = average(valuesFor(shared, n -> n.matches("spdTp\\d+")));
-        Mono<Double> speedVar     = average(valuesFor(shared, n -> n.matches("spdTp\\d+")))
-                .zipWith(
-                        average(valuesFor(shared, n -> n.matches("spdTp\\d+")).map(v -> v * v)),
-                        (avg, avgSq) -> avgSq - avg * avg
-                );
-        Mono<Double> avgAoa       = average(valuesFor(shared, n -> n.matches("aoaTp\\d+")));
-        Mono<Double> avgVibL      = average(valuesFor(shared, n -> n.matches("vviblTp\\d+")));
-        Mono<Double> avgVibR      = average(valuesFor(shared, n -> n.matches("vvibrTp\\d+")));
-        Mono<Double> avgVertL     = average(valuesFor(shared, n -> n.matches("vfrclTp\\d+")));
-        Mono<Double> avgVertR     = average(valuesFor(shared, n -> n.matches("vfrcrTp\\d+")));
-        Mono<Double> avgLatL      = average(valuesFor(shared, n -> n.matches("lfrclTp\\d+")));
-        Mono<Double> avgLatR      = average(valuesFor(shared, n -> n.matches("lfrcrTp\\d+")));
-        Mono<Double> avgLatVibL   = average(valuesFor(shared, n -> n.matches("lviblTp\\d+")));
-        Mono<Double> avgLatVibR   = average(valuesFor(shared, n -> n.matches("lvibrTp\\d+")));
-
-        List<Mono<Double>> metrics = List.of(
-                avgSpeed,
-                speedVar,
-                avgAoa,
-                avgVibL,
-                avgVibR,
-                avgVertL,
-                avgVertR,
-                avgLatL,
-                avgLatR,
-                avgLatVibL,
-                avgLatVibR
-        );
-
-        return Mono.zip(metrics, results -> {
-                    SensorMetricsDTO d = new SensorMetricsDTO();
-                    d.setAnalysisId(analysisId);
-                    d.setAverageSpeed((Double) results[0]);
-                    d.setSpeedVariance((Double) results[1]);
-                    d.setAverageAoa((Double) results[2]);
-                    d.setAverageVibrationLeft((Double) results[3]);
-                    d.setAverageVibrationRight((Double) results[4]);
-                    d.setAverageVerticalForceLeft((Double) results[5]);
-                    d.setAverageVerticalForceRight((Double) results[6]);
-                    d.setAverageLateralForceLeft((Double) results[7]);
-                    d.setAverageLateralForceRight((Double) results[8]);
-                    d.setAverageLateralVibrationLeft((Double) results[9]);
-                    d.setAverageLateralVibrationRight((Double) results[10]);
-                    return d;
-                })
-                .timeout(Duration.ofSeconds(5))
-                .doOnError(e -> log.error("aggregateMetrics failed: {}", e.getMessage(), e));
-    }
-
-    private Flux<Double> valuesFor(Flux<AbstractAxles> flux, Predicate<String> filter) {
-        return flux.flatMap(axle -> {
-            var bw = new BeanWrapperImpl(axle);
-            List<Double> vals = Arrays.stream(bw.getPropertyDescriptors())
-                    .map(PropertyDescriptor::getName)
-                    .filter(filter)
-                    .map(bw::getPropertyValue)
-                    .filter(v -> v instanceof Number)
-                    .map(v -> ((Number) v).doubleValue())
-                    .collect(Collectors.toList());
-            return Flux.fromIterable(vals);
-        });
+    private SensorMetricsDTO toMetrics(Integer analysisId, TrainMetricStats stats) {
+        SensorMetricsDTO d = new SensorMetricsDTO();
+        d.setAnalysisId(analysisId);
+        double avgSpeed = orZero(stats.value("avg_spd"));
+        d.setAverageSpeed(avgSpeed);
+        d.setSpeedVariance(stats.value("avgsq_spd") != null
+                ? stats.value("avgsq_spd") - avgSpeed * avgSpeed
+                : 0.0);
+        d.setAverageAoa(orZero(stats.value("avg_aoa")));
+        d.setAverageVibrationLeft(orZero(stats.value("avg_vvibl")));
+        d.setAverageVibrationRight(orZero(stats.value("avg_vvibr")));
+        d.setAverageVerticalForceLeft(orZero(stats.value("avg_vfrcl")));
+        d.setAverageVerticalForceRight(orZero(stats.value("avg_vfrcr")));
+        d.setAverageLateralForceLeft(orZero(stats.value("avg_lfrcl")));
+        d.setAverageLateralForceRight(orZero(stats.value("avg_lfrcr")));
+        d.setAverageLateralVibrationLeft(orZero(stats.value("avg_lvibl")));
+        d.setAverageLateralVibrationRight(orZero(stats.value("avg_lvibr")));
+        return d;
     }
 
-    private Mono<Double> average(Flux<Double> flux) {
-        return flux.collectList()
-                .map(list -> list.stream()
-                        .mapToDouble(Double::doubleValue)
-                        .average()
-                        .orElse(0.0))
-                .doOnError(e -> log.error("average failed: {}", e.getMessage(), e));
+    private static double orZero(Double value) {
+        return value != null ? value : 0.0;
     }
 }
@@ -1,6 +1,7 @@
 package com.banenor.service;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -9,6 +10,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import com.banenor.dto.*;
 import com.banenor.dto.RawDataResponse;
+import com.banenor.events.TrainDataIngestedEvent;
 import com.banenor.mapper.AxleMapper;
 import com.banenor.mapper.HaugfjellMP1Mapper;
 import com.banenor.mapper.HaugfjellMP3Mapper;
@@ -26,11 +28,11 @@ import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 import reactor.util.retry.Retry;
 
 @Slf4j
@@ -58,6 +60,7 @@ public class DataServiceImpl implements DataService {
     private final AxleMapper                     axleMapper;
     private final RawDataResponseFilter          rawDataResponseFilter;
     private final SensorMeasurementMapper        sensorMeasurementMapper;
+    private final ApplicationEventPublisher      eventPublisher;
 
     public DataServiceImpl(
             HaugfjellMP1HeaderRepository mp1HeaderRepo,
@@ -71,7 +74,8 @@ public class DataServiceImpl implements DataService {
             HaugfjellMP3Mapper mp3Mapper,
             DigitalTwinService digitalTwinService,
             DashboardService dashboardService,
-            MeterRegistry meterRegistry
+            MeterRegistry meterRegistry,
+            ApplicationEventPublisher eventPublisher
     ) {
         this.mp1HeaderRepo           = mp1HeaderRepo;
         this.mp1AxlesRepo            = mp1AxlesRepo;
@@ -85,6 +89,7 @@ public class DataServiceImpl implements DataService {
         this.dashboardService        = dashboardService;
         this.digitalTwinService      = digitalTwinService;
         this.meterRegistry           = meterRegistry;
+        this.eventPublisher          = eventPublisher;
         this.objectMapper            = new ObjectMapper().registerModule(new JavaTimeModule());
         this.processingTimer         = Timer.builder("sensor.data.processing")
                 .description("Time taken to process sensor data")
@@ -100,6 +105,7 @@ public class DataServiceImpl implements DataService {
 
             return Mono.fromCallable(() -> objectMapper.readValue(message, SensorDataPayload.class))
                     .flatMap(payload -> {
+                        Instant ingestedAt = Instant.now();
                         var headerDTO      = payload.getHeader();
                         var measurementDTO = payload.getMeasurement();
                         String mplace      = headerDTO.getMplace();
@@ -124,9 +130,14 @@ public class DataServiceImpl implements DataService {
                         };
 
                         return trainNoMono
+                                .doOnNext(trainNo -> eventPublisher.publishEvent(TrainDataIngestedEvent.builder()
+                                        .trainNo(trainNo)
+                                        .station(mplace.toUpperCase())
+                                        .ingestedAt(ingestedAt)
+                                        .build()))
                                 .flatMap(trainNo -> dashboardService.getLatestMetrics(trainNo)
                                         .doOnNext(metrics -> meterRegistry.counter("sensor.data.metrics.updated").increment())
-                                        .flatMap(metrics -> digitalTwinService.updateTwin(metrics)
+                                        .flatMap(metrics -> digitalTwinService.updateTwin(metrics, ingestedAt)
                                                 .doOnSuccess(v -> meterRegistry.counter("digital.twin.updated").increment())))
                                 .timeout(PROCESSING_TIMEOUT)
                                 .retryWhen(Retry.backoff(MAX_RETRY_ATTEMPTS, RETRY_DELAY)
@@ -140,7 +151,7 @@ public class DataServiceImpl implements DataService {
                         return Mono.empty();
                     })
                     .then();
-        })).subscribeOn(Schedulers.boundedElastic());
+        }));
     }
 
     private Mono<Integer> processMP1Data(AnalysisHeaderDTO headerDTO, AnalysisMeasurementDTO measurementDTO) {
@@ -201,8 +212,7 @@ public class DataServiceImpl implements DataService {
                 .doOnError(e -> {
                     meterRegistry.counter("raw.data_errors", "type", e.getClass().getSimpleName()).increment();
                     logger.error("Error retrieving raw data: {}", e.getMessage(), e);
-                })
-                .subscribeOn(Schedulers.boundedElastic());
+                });
     }
 
     @Override
@@ -234,8 +244,7 @@ public class DataServiceImpl implements DataService {
                 .doOnError(e -> {
                     meterRegistry.counter("detailed.data.errors", "type", e.getClass().getSimpleName()).increment();
                     logger.error("Error retrieving detailed sensor data: {}", e.getMessage(), e);
-                })
-                .subscribeOn(Schedulers.boundedElastic());
+                });
     }
 
     // inside DataServiceImpl.java
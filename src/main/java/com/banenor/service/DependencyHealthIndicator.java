@@ -0,0 +1,50 @@
+package com.banenor.service;
+
+import com.banenor.service.DependencyHealthMonitor.DependencyStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.ReactiveHealthIndicator;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator view of the cached dependency probes, standing in for Boot's own
+ * r2dbc and redis indicators so that /actuator/health polls do not open
+ * connections either.
+ */
+@Component
+@RequiredArgsConstructor
+public class DependencyHealthIndicator implements ReactiveHealthIndicator {
+
+    private final DependencyHealthMonitor monitor;
+
+    @Override
+    public Mono<Health> health() {
+        return Mono.fromSupplier(() -> {
+            boolean allUp = true;
+            Health.Builder builder = Health.up();
+            for (String dependency : monitor.dependencies()) {
+                DependencyStatus status = monitor.status(dependency);
+                boolean stale = monitor.isStale(dependency);
+                allUp &= status.isUp() && !stale;
+
+                Map<String, Object> details = new LinkedHashMap<>();
+                details.put("status", status.isUp() ? "UP" : "DOWN");
+                details.put("stale", stale);
+                if (status.getCheckedAt() != null) {
+                    details.put("checkedAt", status.getCheckedAt().toString());
+                    details.put("ageMs", status.age().toMillis());
+                    details.put("latencyMs", status.getLatency().toMillis());
+                }
+                if (status.getError() != null) {
+                    details.put("error", status.getError());
+                }
+                builder.withDetail(dependency, details);
+            }
+            return allUp ? builder.build() : builder.down().build();
+        });
+    }
+}
@@ -0,0 +1,235 @@
+package com.banenor.service;
+
+import com.banenor.config.HealthProbeProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.spi.ConnectionFactory;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.DescribeClusterOptions;
+import org.springframework.data.redis.connection.ReactiveRedisConnection;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Probes Postgres, Kafka and Redis in the background and keeps the latest
+ * result of each in memory, so health requests from Kubernetes, Prometheus
+ * and the dashboard never touch a dependency themselves. Kafka is checked
+ * through one long-lived admin client instead of a producer per request.
+ * Each probe records health.probe.latency (histogram) and exposes
+ * health.probe.up and health.probe.staleness per dependency.
+ */
+@Slf4j
+@Component
+public class DependencyHealthMonitor {
+
+    public static final String DATABASE = "database";
+    public static final String KAFKA = "kafka";
+    public static final String REDIS = "redis";
+
+    /**
+     * The outcome of the last completed probe of one dependency.
+     */
+    @Getter
+    public static final class DependencyStatus {
+        private final boolean up;
+        private final Instant checkedAt;
+        private final Duration latency;
+        private final String error;
+
+        DependencyStatus(boolean up, Instant checkedAt, Duration latency, String error) {
+            this.up = up;
+            this.checkedAt = checkedAt;
+            this.latency = latency;
+            this.error = error;
+        }
+
+        public Duration age() {
+            return checkedAt == null ? null : Duration.between(checkedAt, Instant.now());
+        }
+    }
+
+    private static final DependencyStatus NOT_PROBED = new DependencyStatus(false, null, Duration.ZERO, "not probed yet");
+
+    private final HealthProbeProperties properties;
+    private final DatabaseClient databaseClient;
+    private final ReactiveRedisConnectionFactory redisConnectionFactory;
+    private final KafkaAdmin kafkaAdmin;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Supplier<Mono<?>>> probes = new LinkedHashMap<>();
+    private final Map<String, DependencyStatus> statuses = new ConcurrentHashMap<>();
+    private final AtomicBoolean probing = new AtomicBoolean();
+    private volatile AdminClient adminClient;
+
+    public DependencyHealthMonitor(HealthProbeProperties properties,
+                                   ConnectionFactory connectionFactory,
+                                   ReactiveRedisConnectionFactory redisConnectionFactory,
+                                   KafkaAdmin kafkaAdmin,
+                                   MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.databaseClient = DatabaseClient.create(connectionFactory);
+        this.redisConnectionFactory = redisConnectionFactory;
+        this.kafkaAdmin = kafkaAdmin;
+        this.meterRegistry = meterRegistry;
+
+        probes.put(DATABASE, this::probeDatabase);
+        probes.put(KAFKA, this::probeKafka);
+        probes.put(REDIS, this::probeRedis);
+        for (String dependency : probes.keySet()) {
+            statuses.put(dependency, NOT_PROBED);
+            Gauge.builder("health.probe.up", this, m -> m.isHealthy(dependency) ? 1 : 0)
+                    .description("1 if the dependency passed its last probe and the result is fresh")
+                    .tag("dependency", dependency)
+                    .register(meterRegistry);
+            Gauge.builder("health.probe.staleness", this, m -> m.staleness(dependency))
+                    .description("Age of the last completed probe")
+                    .tag("dependency", dependency)
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+        }
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${health.probes.interval-ms:10000}")
+    public void scheduledProbe() {
+        if (!probing.compareAndSet(false, true)) {
+            return;
+        }
+        probeAll()
+                .doFinally(sig -> probing.set(false))
+                .subscribe(
+                        unused -> { },
+                        err -> log.error("[DependencyHealthMonitor] Probe round failed", err));
+    }
+
+    /**
+     * Probes every dependency concurrently and records the results.
+     */
+    public Mono<Void> probeAll() {
+        return Flux.fromIterable(probes.entrySet())
+                .flatMap(e -> probe(e.getKey(), e.getValue()))
+                .then();
+    }
+
+    /**
+     * The last result for a dependency, served from memory.
+     */
+    public DependencyStatus status(String dependency) {
+        return statuses.getOrDefault(dependency, NOT_PROBED);
+    }
+
+    public Iterable<String> dependencies() {
+        return probes.keySet();
+    }
+
+    public boolean isStale(String dependency) {
+        Duration age = status(dependency).age();
+        return age == null || age.compareTo(properties.getStaleAfter()) > 0;
+    }
+
+    public boolean isHealthy(String dependency) {
+        return status(dependency).isUp() && !isStale(dependency);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        AdminClient client = adminClient;
+        if (client != null) {
+            client.close(Duration.ofSeconds(1));
+        }
+    }
+
+    private Mono<Void> probe(String dependency, Supplier<Mono<?>> probe) {
+        long start = System.nanoTime();
+        return Mono.defer(probe)
+                .timeout(properties.getTimeout())
+                .then(Mono.fromRunnable(() -> record(dependency, null, System.nanoTime() - start)))
+                .onErrorResume(e -> {
+                    String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+                    record(dependency, error, System.nanoTime() - start);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private void record(String dependency, String error, long latencyNanos) {
+        boolean up = error == null;
+        Timer.builder("health.probe.latency")
+                .description("Latency of background dependency probes")
+                .tag("dependency", dependency)
+                .tag("outcome", up ? "up" : "down")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(latencyNanos, TimeUnit.NANOSECONDS);
+        DependencyStatus previous = statuses.put(dependency,
+                new DependencyStatus(up, Instant.now(), Duration.ofNanos(latencyNanos), error));
+        if (previous == null || previous == NOT_PROBED) {
+            log.info("Dependency {} is {}", dependency, up ? "up" : "down: " + error);
+        } else if (previous.isUp() != up) {
+            if (up) {
+                log.info("Dependency {} is back up", dependency);
+            } else {
+                log.warn("Dependency {} is down: {}", dependency, error);
+            }
+        } else if (!up) {
+            log.debug("Dependency {} still down: {}", dependency, error);
+        }
+    }
+
+    private double staleness(String dependency) {
+        Duration age = status(dependency).age();
+        return age == null ? Double.NaN : age.toMillis() / 1000.0;
+    }
+
+    private Mono<?> probeDatabase() {
+        return databaseClient.sql("SELECT 1").fetch().one();
+    }
+
+    private Mono<?> probeRedis() {
+        return Mono.usingWhen(
+                Mono.fromSupplier(redisConnectionFactory::getReactiveConnection),
+                connection -> connection.ping()
+                        .filter("PONG"::equalsIgnoreCase)
+                        .switchIfEmpty(Mono.error(new IllegalStateException("Unexpected PING reply"))),
+                ReactiveRedisConnection::closeLater);
+    }
+
+    private Mono<?> probeKafka() {
+        DescribeClusterOptions options = new DescribeClusterOptions()
+                .timeoutMs((int) properties.getTimeout().toMillis());
+        return Mono.fromFuture(() -> admin().describeCluster(options).clusterId()
+                .toCompletionStage().toCompletableFuture());
+    }
+
+    private AdminClient admin() {
+        AdminClient client = adminClient;
+        if (client == null) {
+            synchronized (this) {
+                client = adminClient;
+                if (client == null) {
+                    client = AdminClient.create(kafkaAdmin.getConfigurationProperties());
+                    adminClient = client;
+                }
+            }
+        }
+        return client;
+    }
+}
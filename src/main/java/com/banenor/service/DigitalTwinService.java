@@ -6,10 +6,19 @@ import com.banenor.dto.SensorMetricsDTO;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
 import java.util.Map;
 
 public interface DigitalTwinService {
-    Mono<Void> updateTwin(SensorMetricsDTO metrics);
+    default Mono<Void> updateTwin(SensorMetricsDTO metrics) {
+        return updateTwin(metrics, Instant.now());
+    }
+
+    /**
+     * Persists a twin update and pushes it to live viewers; ingestedAt is when
+     * the underlying sensor data arrived, for delivery latency.
+     */
+    Mono<Void> updateTwin(SensorMetricsDTO metrics, Instant ingestedAt);
     Mono<CameraPose> getTwinState(Integer assetId);
     Flux<CameraPose> streamDigitalTwinUpdates(Integer assetId);
     Flux<DigitalTwinDTO> findTwinsByFilters(Map<String, Object> filters, int page, int size);
@@ -5,14 +5,17 @@ import com.banenor.dto.CameraPose;
 import com.banenor.dto.DigitalTwinDTO;
 import com.banenor.dto.SensorMetricsDTO;
 import com.banenor.model.DigitalTwin;
+import com.banenor.model.DigitalTwinState;
 import com.banenor.repository.DigitalTwinRepository;
+import com.banenor.repository.DigitalTwinStateRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.Map;
 
 @Slf4j
@@ -21,31 +24,40 @@ import java.util.Map;
 public class DigitalTwinServiceImpl implements DigitalTwinService {
 
     private final DigitalTwinRepository repository;
+    private final DigitalTwinStateRepository stateRepository;
+    private final DigitalTwinStateRegistry stateRegistry;
+    private final DigitalTwinWriter writer;
 
     @Override
-    public Mono<Void> updateTwin(SensorMetricsDTO metrics) {
+    public Mono<Void> updateTwin(SensorMetricsDTO metrics, Instant ingestedAt) {
         DigitalTwin entity = DigitalTwin.builder()
                 .assetId(metrics.getAnalysisId())
-                .recordedAt(metrics.getCreatedAt())
+                .recordedAt(metrics.getCreatedAt() != null ? metrics.getCreatedAt() : LocalDateTime.now())
                 .metricType("averageSpeed")
-                .metricValue(metrics.getAverageSpeed())
+                .metricValue(metrics.getAverageSpeed() != null ? metrics.getAverageSpeed() : 0.0)
                 .componentName("aggregate")
                 .location(null)
                 .status("UPDATED")
                 .riskScore(metrics.getRiskScore() != null ? metrics.getRiskScore() : 0.0)
                 .build();
 
-        log.debug("[DigitalTwinService] Saving new twin record for asset {}", metrics.getAnalysisId());
-        return repository.save(entity)
-                .doOnSuccess(e -> log.info("[DigitalTwinService] Saved twin record id={} for asset {}", e.getId(), metrics.getAnalysisId()))
-                .doOnError(err -> log.error("[DigitalTwinService] Failed to save twin record for asset {}", metrics.getAnalysisId(), err))
-                .then();
+        log.debug("[DigitalTwinService] Buffering twin update for asset {}", metrics.getAnalysisId());
+        return Mono.fromRunnable(() -> {
+            writer.offer(entity);
+            stateRegistry.update(entity.getAssetId(), toPose(entity), ingestedAt);
+        });
     }
 
     @Override
     public Mono<CameraPose> getTwinState(Integer assetId) {
-        return repository.findTopByAssetIdOrderByRecordedAtDesc(assetId)
+        CameraPose current = stateRegistry.current(assetId);
+        if (current != null) {
+            return Mono.just(current);
+        }
+        return stateRepository.findById(assetId)
                 .map(this::toPose)
+                .switchIfEmpty(Mono.defer(() -> repository.findTopByAssetIdOrderByRecordedAtDesc(assetId)
+                        .map(this::toPose)))
                 .doOnNext(p -> log.debug("[DigitalTwinService] Retrieved pose {} for asset {}", p, assetId))
                 .switchIfEmpty(Mono.defer(() -> {
                     log.warn("[DigitalTwinService] No twin record found for asset {}, returning default pose", assetId);
@@ -56,9 +68,10 @@ public class DigitalTwinServiceImpl implements DigitalTwinService {
     @Override
     public Flux<CameraPose> streamDigitalTwinUpdates(Integer assetId) {
         log.info("[DigitalTwinService] Starting SSE stream for asset {}", assetId);
-        return Flux.interval(Duration.ofSeconds(5))
-                .flatMap(tick -> getTwinState(assetId))
-                .distinctUntilChanged()
+        Mono<Void> seed = Mono.defer(() -> stateRegistry.current(assetId) != null
+                ? Mono.empty()
+                : getTwinState(assetId).doOnNext(p -> stateRegistry.seed(assetId, p)).then());
+        return seed.thenMany(stateRegistry.stream(assetId))
                 .doOnCancel(() -> log.info("[DigitalTwinService] SSE stream cancelled for asset {}", assetId));
     }
 
@@ -88,10 +101,21 @@ public class DigitalTwinServiceImpl implements DigitalTwinService {
                 .ry(0.0)
                 .rz(0.0)
                 .build();
-        log.warn("[DigitalTwinService] Mapping DB record id={} → placeholder pose {}", e.getId(), pose);
+        log.debug("[DigitalTwinService] Mapping twin record id={} → placeholder pose {}", e.getId(), pose);
         return pose;
     }
 
+    private CameraPose toPose(DigitalTwinState s) {
+        return CameraPose.builder()
+                .x(0.0)
+                .y(0.0)
+                .z(s.getMetricValue() != null ? s.getMetricValue() : 0.0)
+                .rx(0.0)
+                .ry(0.0)
+                .rz(0.0)
+                .build();
+    }
+
     private CameraPose defaultPose() {
         return CameraPose.builder()
                 .x(0.0)
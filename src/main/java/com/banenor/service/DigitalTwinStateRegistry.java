@@ -0,0 +1,173 @@
+package com.banenor.service;
+
+import com.banenor.config.DigitalTwinProperties;
+import com.banenor.dto.CameraPose;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process registry of the current digital-twin state per asset. Twin
+ * updates are pushed in as they are ingested and every viewer of an asset
+ * shares one hot stream that replays the current state on connect.
+ * Assets nobody is watching that have not been updated for
+ * digital-twin.idle-asset-ttl are dropped; they are reloaded from storage
+ * when next asked for.
+ */
+@Slf4j
+@Component
+public class DigitalTwinStateRegistry {
+
+    private static final class AssetState {
+        final Sinks.Many<Update> sink = Sinks.many().replay().latest();
+        volatile Update current;
+        volatile long touchedNanos = System.nanoTime();
+        // changed only inside a map compute for this asset, so eviction cannot race a new viewer
+        int viewers;
+        // set under the state's lock once removed from the map; writers then retry on a fresh state
+        boolean evicted;
+    }
+
+    private static final class Update {
+        final CameraPose pose;
+        final Instant ingestedAt;
+
+        Update(CameraPose pose, Instant ingestedAt) {
+            this.pose = pose;
+            this.ingestedAt = ingestedAt;
+        }
+    }
+
+    private final Map<Integer, AssetState> assets = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final Timer deliveryLatency;
+    private final Counter evictions;
+    private final long idleNanos;
+
+    public DigitalTwinStateRegistry(DigitalTwinProperties properties, MeterRegistry meterRegistry) {
+        this.idleNanos = properties.getIdleAssetTtl().toNanos();
+        this.evictions = meterRegistry.counter("digital.twin.assets.evicted");
+        this.deliveryLatency = Timer.builder("digital.twin.delivery.latency")
+                .description("Time from ingesting a twin update to handing it to a subscriber")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        meterRegistry.gauge("digital.twin.assets", assets, Map::size);
+        meterRegistry.gauge("digital.twin.subscribers", subscribers);
+    }
+
+    /**
+     * Publishes a new state for an asset; unchanged poses are not re-emitted.
+     */
+    public void update(Integer assetId, CameraPose pose, Instant ingestedAt) {
+        while (true) {
+            AssetState state = assets.computeIfAbsent(assetId, id -> new AssetState());
+            synchronized (state) {
+                if (state.evicted) {
+                    continue;
+                }
+                state.touchedNanos = System.nanoTime();
+                if (state.current != null && Objects.equals(state.current.pose, pose)) {
+                    return;
+                }
+                Update update = new Update(pose, ingestedAt);
+                state.current = update;
+                state.sink.tryEmitNext(update);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Seeds the state of an asset loaded from storage, unless a live update got there first.
+     */
+    public void seed(Integer assetId, CameraPose pose) {
+        while (true) {
+            AssetState state = assets.computeIfAbsent(assetId, id -> new AssetState());
+            synchronized (state) {
+                if (state.evicted) {
+                    continue;
+                }
+                if (state.current == null) {
+                    Update update = new Update(pose, null);
+                    state.current = update;
+                    state.sink.tryEmitNext(update);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * The current pose of an asset, or null if nothing is known in memory.
+     */
+    public CameraPose current(Integer assetId) {
+        AssetState state = assets.get(assetId);
+        Update update = state != null ? state.current : null;
+        return update != null ? update.pose : null;
+    }
+
+    /**
+     * The shared stream of an asset, starting with its current state if known.
+     */
+    public Flux<CameraPose> stream(Integer assetId) {
+        return Flux.defer(() -> {
+            Instant subscribedAt = Instant.now();
+            AssetState state = assets.compute(assetId, (id, existing) -> {
+                AssetState s = existing != null ? existing : new AssetState();
+                s.viewers++;
+                return s;
+            });
+            subscribers.incrementAndGet();
+            return state.sink.asFlux()
+                    .map(update -> {
+                        // the replayed current state is not a delivery of a fresh update
+                        if (update.ingestedAt != null && update.ingestedAt.isAfter(subscribedAt)) {
+                            deliveryLatency.record(Duration.between(update.ingestedAt, Instant.now()));
+                        }
+                        return update.pose;
+                    })
+                    .doFinally(sig -> {
+                        subscribers.decrementAndGet();
+                        assets.computeIfPresent(assetId, (id, s) -> {
+                            if (s == state) {
+                                s.viewers--;
+                                s.touchedNanos = System.nanoTime();
+                            }
+                            return s;
+                        });
+                    });
+        });
+    }
+
+    /**
+     * Drops assets that nobody watches and that have not been updated for the idle TTL.
+     */
+    @Scheduled(fixedDelayString = "${digital-twin.idle-sweep-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        for (Integer assetId : assets.keySet()) {
+            assets.computeIfPresent(assetId, (id, state) -> {
+                synchronized (state) {
+                    if (state.viewers > 0 || now - state.touchedNanos < idleNanos) {
+                        return state;
+                    }
+                    state.evicted = true;
+                }
+                evictions.increment();
+                return null;
+            });
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.banenor.service;
+
+import com.banenor.model.DigitalTwin;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Coalesces twin updates per asset between flushes and decides which flushed
+ * states are kept as history snapshots. Holds no I/O so its write policy can
+ * be exercised on its own (see the write-amplification benchmark).
+ */
+public class DigitalTwinWriteBuffer {
+
+    private final Duration historySampleInterval;
+    private final Map<Integer, DigitalTwin> pending = new LinkedHashMap<>();
+    // asset → epoch millis of the last history snapshot taken, oldest first;
+    // entries older than the sample interval no longer matter and are pruned
+    private final LinkedHashMap<Integer, Long> lastSnapshot = new LinkedHashMap<>();
+
+    public DigitalTwinWriteBuffer(Duration historySampleInterval) {
+        this.historySampleInterval = historySampleInterval;
+    }
+
+    /**
+     * Buffers an update, replacing any pending one for the same asset unless
+     * the pending one is more recent.
+     *
+     * @return true if an earlier pending update was coalesced away
+     */
+    public synchronized boolean offer(DigitalTwin twin) {
+        DigitalTwin previous = pending.get(twin.getAssetId());
+        if (previous != null && previous.getRecordedAt() != null && twin.getRecordedAt() != null
+                && previous.getRecordedAt().isAfter(twin.getRecordedAt())) {
+            return true;
+        }
+        pending.put(twin.getAssetId(), twin);
+        return previous != null;
+    }
+
+    /**
+     * Takes everything pending, latest state per asset.
+     */
+    public synchronized List<DigitalTwin> drain() {
+        List<DigitalTwin> batch = new ArrayList<>(pending.values());
+        pending.clear();
+        return batch;
+    }
+
+    /**
+     * True if a history snapshot is due for the asset at the given time; a
+     * positive answer counts as taking the snapshot.
+     */
+    public synchronized boolean sampleHistory(Integer assetId, long nowMillis) {
+        long interval = historySampleInterval.toMillis();
+        Iterator<Long> oldest = lastSnapshot.values().iterator();
+        while (oldest.hasNext() && nowMillis - oldest.next() >= interval) {
+            oldest.remove();
+        }
+        if (lastSnapshot.containsKey(assetId)) {
+            return false;
+        }
+        lastSnapshot.put(assetId, nowMillis);
+        return true;
+    }
+
+    public synchronized int pendingCount() {
+        return pending.size();
+    }
+}
@@ -0,0 +1,125 @@
+package com.banenor.service;
+
+import com.banenor.config.DigitalTwinProperties;
+import com.banenor.model.DigitalTwin;
+import com.banenor.model.DigitalTwinState;
+import com.banenor.repository.DigitalTwinRepository;
+import com.banenor.repository.DigitalTwinStateRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Write-behind persistence of twin updates. Updates are coalesced per asset
+ * and flushed periodically as upserts into digital_twin_state. Only
+ * time-sampled snapshots are appended to the digital_twins history.
+ */
+@Slf4j
+@Component
+public class DigitalTwinWriter {
+
+    private final DigitalTwinStateRepository stateRepository;
+    private final DigitalTwinRepository historyRepository;
+    private final DigitalTwinWriteBuffer buffer;
+    private final AtomicBoolean flushing = new AtomicBoolean();
+    private final Counter received;
+    private final Counter coalesced;
+    private final Counter stateWrites;
+    private final Counter historyWrites;
+    private final Counter failures;
+
+    public DigitalTwinWriter(DigitalTwinStateRepository stateRepository,
+                             DigitalTwinRepository historyRepository,
+                             DigitalTwinProperties properties,
+                             MeterRegistry meterRegistry) {
+        this.stateRepository = stateRepository;
+        this.historyRepository = historyRepository;
+        this.buffer = new DigitalTwinWriteBuffer(properties.getHistorySampleInterval());
+        this.received = meterRegistry.counter("digital.twin.writes.received");
+        this.coalesced = meterRegistry.counter("digital.twin.writes.coalesced");
+        this.stateWrites = meterRegistry.counter("digital.twin.writes.state");
+        this.historyWrites = meterRegistry.counter("digital.twin.writes.history");
+        this.failures = meterRegistry.counter("digital.twin.writes.errors");
+        meterRegistry.gauge("digital.twin.writes.pending", buffer, DigitalTwinWriteBuffer::pendingCount);
+    }
+
+    /**
+     * Buffers an update for the next flush.
+     */
+    public void offer(DigitalTwin twin) {
+        received.increment();
+        if (buffer.offer(twin)) {
+            coalesced.increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${digital-twin.flush-interval-ms:500}")
+    public void scheduledFlush() {
+        if (!flushing.compareAndSet(false, true)) {
+            return;
+        }
+        flush()
+                .doFinally(sig -> flushing.set(false))
+                .subscribe(
+                        unused -> { },
+                        err -> log.error("[DigitalTwinWriter] Flush failed", err));
+    }
+
+    /**
+     * Writes everything pending: one upsert per asset, plus a history row where a snapshot is due.
+     */
+    public Mono<Void> flush() {
+        List<DigitalTwin> batch = buffer.drain();
+        if (batch.isEmpty()) {
+            return Mono.empty();
+        }
+        long now = System.currentTimeMillis();
+        return Flux.fromIterable(batch)
+                .concatMap(twin -> write(twin, buffer.sampleHistory(twin.getAssetId(), now)))
+                .then()
+                .doOnSuccess(v -> log.debug("[DigitalTwinWriter] Flushed {} twin states", batch.size()));
+    }
+
+    private Mono<Void> write(DigitalTwin twin, boolean snapshot) {
+        Mono<Void> state = stateRepository.upsert(toState(twin))
+                .doOnSuccess(n -> stateWrites.increment())
+                .then();
+        Mono<Void> history = snapshot
+                ? historyRepository.save(twin).doOnSuccess(e -> historyWrites.increment()).then()
+                : Mono.empty();
+        return state.then(history)
+                .onErrorResume(err -> {
+                    failures.increment();
+                    log.error("[DigitalTwinWriter] Failed to persist twin state for asset {}", twin.getAssetId(), err);
+                    return Mono.empty();
+                });
+    }
+
+    private DigitalTwinState toState(DigitalTwin twin) {
+        return DigitalTwinState.builder()
+                .assetId(twin.getAssetId())
+                .recordedAt(twin.getRecordedAt())
+                .metricValue(twin.getMetricValue())
+                .metricType(twin.getMetricType())
+                .componentName(twin.getComponentName())
+                .location(twin.getLocation())
+                .status(twin.getStatus())
+                .riskScore(twin.getRiskScore())
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        log.info("[DigitalTwinWriter] Flushing {} pending twin states on shutdown", buffer.pendingCount());
+        flush().block(Duration.ofSeconds(10));
+    }
+}
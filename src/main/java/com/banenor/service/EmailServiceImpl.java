@@ -5,6 +5,7 @@ import io.vertx.ext.mail.MailMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
@@ -13,6 +14,7 @@ import reactor.core.publisher.Mono;
 @RequiredArgsConstructor
 public class EmailServiceImpl implements EmailService {
 
+    @Lazy
     private final MailClient mailClient;
 
     @Value("${mail.from:no-reply@yourdomain.local}")
@@ -1,21 +1,28 @@
 package com.banenor.service;
 
+import com.banenor.scheduler.Workload;
+import com.banenor.scheduler.WorkloadSchedulers;
+import com.banenor.security.BlacklistMirror;
 import com.banenor.security.JwtTokenUtil;
+import com.banenor.security.VerifiedTokenCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.core.ReactiveValueOperations;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 import java.time.Duration;
-import java.time.Instant;
 import java.util.Date;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,17 +33,48 @@ public class JwtTokenService {
     private final ReactiveRedisTemplate<String, Object> redisTemplate;
     private final MeterRegistry meterRegistry;
     private final ReactiveValueOperations<String, Object> valueOps;
+    private final BlacklistMirror blacklistMirror;
+    private final VerifiedTokenCache tokenCache;
+    private final WorkloadSchedulers schedulers;
 
-    // In-memory cache of token→expiry
-    private static final ConcurrentHashMap<String, Date> TOKEN_EXPIRY_CACHE = new ConcurrentHashMap<>();
+    // token → expiry, each entry dropped when its token expires
+    private final Cache<String, Date> tokenExpiries;
 
     public JwtTokenService(JwtTokenUtil jwtTokenUtil,
                            ReactiveRedisTemplate<String, Object> redisTemplate,
-                           MeterRegistry meterRegistry) {
+                           MeterRegistry meterRegistry,
+                           BlacklistMirror blacklistMirror,
+                           VerifiedTokenCache tokenCache,
+                           WorkloadSchedulers schedulers,
+                           @Value("${jwt.expiry-cache.max-entries:100000}") long expiryCacheSize) {
         this.jwtTokenUtil = jwtTokenUtil;
         this.redisTemplate = redisTemplate;
         this.meterRegistry = meterRegistry;
         this.valueOps = redisTemplate.opsForValue();
+        this.blacklistMirror = blacklistMirror;
+        this.tokenCache = tokenCache;
+        this.schedulers = schedulers;
+        this.tokenExpiries = Caffeine.newBuilder()
+                .maximumSize(expiryCacheSize)
+                .expireAfter(new Expiry<String, Date>() {
+                    @Override
+                    public long expireAfterCreate(String key, Date value, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, value.getTime() - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Date value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Date value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, tokenExpiries, "jwtTokenExpiry");
     }
 
     public Mono<String> generateToken(UserDetails userDetails) {
@@ -46,7 +84,7 @@ public class JwtTokenService {
                             .collect(Collectors.toList());
                     String token = jwtTokenUtil.generateToken(userDetails.getUsername(), roles);
                     Date expiry = jwtTokenUtil.getExpirationDateFromToken(token);
-                    TOKEN_EXPIRY_CACHE.put(token, expiry);
+                    tokenExpiries.put(token, expiry);
                     meterRegistry.counter("jwt.tokens.generated",
                                     "username", userDetails.getUsername(),
                                     "roles", String.join(",", roles))
@@ -60,21 +98,18 @@ public class JwtTokenService {
                             "username", userDetails.getUsername(),
                             "error", e.getClass().getSimpleName()).increment();
                 })
-                .subscribeOn(Schedulers.boundedElastic());
+                .subscribeOn(schedulers.get(Workload.AUTH));
     }
 
     public Mono<Boolean> validateToken(String token, UserDetails userDetails) {
-        String blackKey = "jwtBlacklist:" + token;
-        return valueOps.get(blackKey)
-                .cast(Boolean.class)
-                .defaultIfEmpty(false)
+        return blacklistMirror.isBlacklisted(token)
                 .flatMap(blacklisted -> {
                     if (blacklisted) {
                         log.warn("Token is blacklisted: {}", mask(token));
                         meterRegistry.counter("jwt.tokens.validation.failures", "reason", "blacklisted").increment();
                         return Mono.just(false);
                     }
-                    Date exp = TOKEN_EXPIRY_CACHE.get(token);
+                    Date exp = tokenExpiries.getIfPresent(token);
                     if (exp != null && exp.before(new Date())) {
                         log.warn("Token has expired: {}", mask(token));
                         meterRegistry.counter("jwt.tokens.validation.failures", "reason", "expired").increment();
@@ -93,7 +128,7 @@ public class JwtTokenService {
                                 meterRegistry.counter("jwt.tokens.validation.errors",
                                         "error", e.getClass().getSimpleName()).increment();
                             })
-                            .subscribeOn(Schedulers.boundedElastic());
+                            .subscribeOn(schedulers.get(Workload.AUTH));
                 });
     }
 
@@ -107,7 +142,7 @@ public class JwtTokenService {
                     meterRegistry.counter("jwt.tokens.username.extraction.errors",
                             "error", e.getClass().getSimpleName()).increment();
                 })
-                .subscribeOn(Schedulers.boundedElastic());
+                .subscribeOn(schedulers.get(Workload.AUTH));
     }
 
     public Mono<Void> blacklistToken(String token) {
@@ -130,8 +165,8 @@ public class JwtTokenService {
                                 } else {
                                     log.warn("Failed to blacklist token {}", mask(token));
                                 }
-                                TOKEN_EXPIRY_CACHE.put(token, jwtTokenUtil.getExpirationDateFromToken(token));
-                                return Mono.empty();
+                                tokenExpiries.put(token, jwtTokenUtil.getExpirationDateFromToken(token));
+                                return tokenCache.revoke(token);
                             });
                 })
                 .doOnError(e -> {
@@ -143,45 +178,32 @@ public class JwtTokenService {
     }
 
     public Mono<Boolean> isTokenBlacklisted(String token) {
-        String blackKey = "jwtBlacklist:" + token;
-        return valueOps.get(blackKey)
-                .cast(Boolean.class)
-                .defaultIfEmpty(false)
+        return blacklistMirror.isBlacklisted(token)
                 .doOnNext(b -> meterRegistry.counter("jwt.tokens.blacklist.checks",
                         "result", b ? "blacklisted" : "valid").increment())
                 .doOnError(e -> {
                     log.error("Blacklist check error: {}", e.getMessage(), e);
                     meterRegistry.counter("jwt.tokens.blacklist.check.errors",
                             "error", e.getClass().getSimpleName()).increment();
-                })
-                .subscribeOn(Schedulers.boundedElastic());
+                });
     }
 
     public Mono<Date> getTokenExpiry(String token) {
-        return Mono.fromCallable(() -> {
-                    Date d = TOKEN_EXPIRY_CACHE.get(token);
-                    if (d == null) {
-                        d = jwtTokenUtil.getExpirationDateFromToken(token);
-                        TOKEN_EXPIRY_CACHE.put(token, d);
-                    }
-                    return d;
-                })
+        return Mono.fromCallable(() -> tokenExpiries.get(token, jwtTokenUtil::getExpirationDateFromToken))
                 .doOnError(e -> {
                     log.error("Error getting token expiry: {}", e.getMessage(), e);
                     meterRegistry.counter("jwt.tokens.expiry.check.errors",
                             "error", e.getClass().getSimpleName()).increment();
                 })
-                .subscribeOn(Schedulers.boundedElastic());
+                .subscribeOn(schedulers.get(Workload.AUTH));
     }
 
     public Mono<Void> cleanupExpiredTokens() {
         return Mono.fromRunnable(() -> {
-                    Instant now = Instant.now();
-                    TOKEN_EXPIRY_CACHE.entrySet().removeIf(e -> e.getValue().toInstant().isBefore(now));
+                    tokenExpiries.cleanUp();
                     meterRegistry.counter("jwt.tokens.cleanup.executed").increment();
                     log.debug("Cleaned up expired tokens");
                 })
-                .subscribeOn(Schedulers.boundedElastic())
                 .then();
     }
 
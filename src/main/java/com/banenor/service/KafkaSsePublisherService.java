@@ -1,39 +1,51 @@
 package com.banenor.service;
 
 import com.banenor.dto.AxlesDataDTO;
+import com.banenor.relay.RelayMessage;
+import com.banenor.relay.RelayScope;
+import com.banenor.relay.StreamRelay;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
-import reactor.core.publisher.Sinks;
 
 /**
- * Publishes incoming AxlesDataDTO Kafka events as an SSE stream.
- * Uses a multicast sink so multiple subscribers receive real-time updates,
- * filtered by train number and measurement point (TP).
+ * Publishes incoming AxlesDataDTO Kafka events as SSE streams.
+ * Each event is handed once to the {@link AxleStreamHub}, which delivers it
+ * only to the subscribers of its train/TP and, when known, its station/TP.
+ * Events are also relayed to subscribers on other nodes when a
+ * {@link StreamRelay} is enabled.
  */
 @Slf4j
 @Service
 public class KafkaSsePublisherService implements DisposableBean {
 
+    private final AxleStreamHub hub;
+    private final StreamRelay relay;
+    private final ObjectMapper objectMapper;
     /**
-     * Multicast sink with unbounded buffering.
-     * You may switch to a bounded buffer (e.g. onBackpressureBuffer(1024))
-     * if you need to cap memory usage.
+     * trainNo → station (MP1/MP3), cached including trains without a header,
+     * so events of an unknown train do not query the database one by one.
      */
-    private final Sinks.Many<AxlesDataDTO> sink = Sinks.many()
-            .multicast()
-            .onBackpressureBuffer();
+    private final TrainStationResolver stationResolver;
 
-    public KafkaSsePublisherService() {
+    public KafkaSsePublisherService(AxleStreamHub hub,
+                                    StreamRelay relay,
+                                    ObjectMapper objectMapper,
+                                    TrainStationResolver stationResolver) {
+        this.hub = hub;
+        this.relay = relay;
+        this.objectMapper = objectMapper;
+        this.stationResolver = stationResolver;
         log.info("Initialized KafkaSsePublisherService");
     }
 
     /**
      * Kafka listener that receives AxlesDataDTO events
-     * and emits them into the sink.
+     * and dispatches them through the hub.
      */
     @KafkaListener(
             topics = "${kafka.axles.topic:axles-data}",
@@ -42,27 +54,44 @@ public class KafkaSsePublisherService implements DisposableBean {
     )
     public void onAxlesDataEvent(AxlesDataDTO event) {
         log.debug("Received AxlesDataDTO from Kafka: {}", event);
-        Sinks.EmitResult result = sink.tryEmitNext(event);
-        if (result.isFailure()) {
-            log.error("Failed to emit AxlesDataDTO to sink, result={}", result);
+        // other nodes may have station-wide subscribers, so relayed events always carry the station
+        boolean needStation = hub.hasStationSubscribers() || relay.isEnabled();
+        if (!needStation || event.getTrainNo() == null) {
+            hub.publish(event, null);
+            relay(event, null);
+            return;
         }
+        String station = stationResolver.cached(event.getTrainNo());
+        if (station != null) {
+            String known = known(station);
+            hub.publish(event, known);
+            relay(event, known);
+            return;
+        }
+        hub.publish(event, null);
+        stationResolver.resolve(event.getTrainNo())
+                .subscribe(s -> {
+                    String known = known(s);
+                    if (known != null) {
+                        hub.publishStation(event, known);
+                    }
+                    relay(event, known);
+                }, err -> {
+                    log.warn("Could not resolve station for train {}: {}",
+                            event.getTrainNo(), err.getMessage());
+                    relay(event, null);
+                });
     }
 
     /**
-     * Returns a Flux that streams only those AxlesDataDTO events
-     * matching the given train number and TP.
+     * Streams the AxlesDataDTO events for one train number and TP.
      *
-     * @param trainNo the train number to filter by
-     * @param tp      the measurement point (e.g. "TP1") to filter by
+     * @param trainNo the train number to subscribe to
+     * @param tp      the measurement point (e.g. "TP1") to subscribe to
      */
     public Flux<AxlesDataDTO> stream(int trainNo, String tp) {
         log.debug("New SSE subscription: trainNo={}, tp={}", trainNo, tp);
-        return sink.asFlux()
-                .filter(dto ->
-                        dto.getTrainNo() != null && dto.getTrainNo().intValue() == trainNo)
-                .filter(dto ->
-                        dto.getMeasurementPoint() != null
-                                && dto.getMeasurementPoint().equalsIgnoreCase(tp))
+        return hub.subscribe(AxleStreamKey.train(trainNo, tp))
                 .doOnCancel(() ->
                         log.info("SSE subscription cancelled: trainNo={}, tp={}", trainNo, tp))
                 .doOnError(err ->
@@ -71,12 +100,51 @@ public class KafkaSsePublisherService implements DisposableBean {
     }
 
     /**
-     * Completes the sink on shutdown.
+     * Streams the AxlesDataDTO events of every train at a station for one TP,
+     * through a single subscription.
+     *
+     * @param station the station ("MP1" or "MP3")
+     * @param tp      the measurement point (e.g. "TP1") to subscribe to
+     */
+    public Flux<AxlesDataDTO> streamStation(String station, String tp) {
+        log.debug("New station SSE subscription: station={}, tp={}", station, tp);
+        return hub.subscribe(AxleStreamKey.station(station, tp))
+                .doOnCancel(() ->
+                        log.info("Station SSE subscription cancelled: station={}, tp={}", station, tp))
+                .doOnError(err ->
+                        log.error("Error in station SSE stream for station={}, tp={}: {}",
+                                station, tp, err.getMessage(), err));
+    }
+
+    private void relay(AxlesDataDTO event, String station) {
+        if (!relay.isEnabled()) {
+            return;
+        }
+        try {
+            relay.publish(RelayMessage.builder()
+                    .scope(RelayScope.AXLES)
+                    .type("AXLES_DATA")
+                    .trainNo(event.getTrainNo())
+                    .station(station)
+                    .measurementPoint(event.getMeasurementPoint())
+                    .payload(objectMapper.valueToTree(event))
+                    .build());
+        } catch (RuntimeException e) {
+            log.error("Could not relay AxlesDataDTO for train {}: {}", event.getTrainNo(), e.getMessage(), e);
+        }
+    }
+
+    private static String known(String station) {
+        return TrainStationResolver.UNKNOWN.equals(station) ? null : station;
+    }
+
+    /**
+     * Completes all subscriptions on shutdown.
      */
     @PreDestroy
     @Override
     public void destroy() {
-        log.info("Shutting down KafkaSsePublisherService, completing sink");
-        sink.tryEmitComplete();
+        log.info("Shutting down KafkaSsePublisherService, completing subscriptions");
+        hub.completeAll();
     }
 }
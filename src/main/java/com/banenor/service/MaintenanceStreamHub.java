@@ -0,0 +1,106 @@
+package com.banenor.service;
+
+import com.banenor.config.MaintenanceProperties;
+import com.banenor.dto.PredictiveMaintenanceResponse;
+import com.banenor.events.TrainDataIngestedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One shared predictive-maintenance stream per analysis id. The analysis is
+ * recomputed when data for that train is ingested, rather than on a timer
+ * per client: bursts within the coalesce window, and any that arrive while a
+ * computation is running, collapse into a single recomputation. Late
+ * subscribers get the latest result replayed, and the stream is torn down
+ * when its last subscriber leaves.
+ */
+@Slf4j
+@Component
+public class MaintenanceStreamHub {
+
+    private static final String DEFAULT_ALERT_EMAIL = "alerts@example.com";
+
+    private final class Channel {
+        final Integer analysisId;
+        final Sinks.Many<Boolean> triggers = Sinks.many().multicast().directBestEffort();
+        final Flux<PredictiveMaintenanceResponse> updates;
+
+        Channel(Integer analysisId) {
+            this.analysisId = analysisId;
+            this.updates = triggers.asFlux()
+                    .sample(properties.getStreamCoalesceWindow())
+                    .startWith(Boolean.TRUE)
+                    .onBackpressureLatest()
+                    .concatMap(t -> compute(analysisId), 1)
+                    .doOnSubscribe(s -> {
+                        // re-register if the stream is reconnected after its last subscriber left
+                        channels.putIfAbsent(analysisId, this);
+                        log.debug("Maintenance stream opened for analysisId={}", analysisId);
+                    })
+                    .doFinally(sig -> {
+                        channels.remove(analysisId, this);
+                        log.debug("Maintenance stream closed for analysisId={} ({})", analysisId, sig);
+                    })
+                    .replay(1)
+                    .refCount();
+        }
+
+        synchronized void trigger() {
+            triggersReceived.increment();
+            triggers.tryEmitNext(Boolean.TRUE);
+        }
+    }
+
+    private final PredictiveMaintenanceService predictiveMaintenanceService;
+    private final MaintenanceProperties properties;
+    private final Map<Integer, Channel> channels = new ConcurrentHashMap<>();
+    private final Counter triggersReceived;
+    private final Counter recomputations;
+    private final Counter failures;
+
+    public MaintenanceStreamHub(PredictiveMaintenanceService predictiveMaintenanceService,
+                                MaintenanceProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.predictiveMaintenanceService = predictiveMaintenanceService;
+        this.properties = properties;
+        this.triggersReceived = meterRegistry.counter("maintenance.stream.triggers");
+        this.recomputations = meterRegistry.counter("maintenance.stream.recomputations");
+        this.failures = meterRegistry.counter("maintenance.stream.errors");
+        meterRegistry.gauge("maintenance.stream.active", channels, Map::size);
+    }
+
+    /**
+     * Shared updates for one analysis id; the first subscriber opens the stream.
+     */
+    public Flux<PredictiveMaintenanceResponse> stream(Integer analysisId) {
+        return Flux.defer(() -> channels.computeIfAbsent(analysisId, Channel::new).updates);
+    }
+
+    @EventListener
+    public void onTrainDataIngested(TrainDataIngestedEvent event) {
+        Channel channel = channels.get(event.getTrainNo());
+        if (channel != null) {
+            channel.trigger();
+        }
+    }
+
+    private Mono<PredictiveMaintenanceResponse> compute(Integer analysisId) {
+        return predictiveMaintenanceService.getMaintenanceAnalysis(analysisId, DEFAULT_ALERT_EMAIL)
+                .doOnSubscribe(s -> recomputations.increment())
+                .onErrorResume(ex -> {
+                    failures.increment();
+                    log.error("Error recomputing maintenance stream for analysisId {}: {}",
+                            analysisId, ex.getMessage(), ex);
+                    return Mono.empty();
+                });
+    }
+}
@@ -3,6 +3,8 @@ package com.banenor.service;
 
 import com.banenor.dto.PerformanceDTO;
 import com.banenor.model.AbstractAxles;
+import com.banenor.scheduler.Workload;
+import com.banenor.scheduler.WorkloadSchedulers;
 import com.banenor.util.RepositoryResolver;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -10,7 +12,6 @@ import org.springframework.beans.BeanWrapper;
 import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
-import reactor.core.scheduler.Schedulers;
 
 import java.beans.PropertyDescriptor;
 import java.time.LocalDateTime;
@@ -26,6 +27,7 @@ import java.util.regex.Pattern;
 public class PerformanceServiceImpl implements PerformanceService {
 
     private final RepositoryResolver repositoryResolver;
+    private final WorkloadSchedulers schedulers;
 
     // matches fields like spdTp1, spdTp2, spdTp3, etc.
     private static final Pattern SPEED_TP_FIELD = Pattern.compile("^spdTp(\\d+)$");
@@ -39,10 +41,11 @@ public class PerformanceServiceImpl implements PerformanceService {
 
         return repositoryResolver.resolveRepository(null)    // pass null to get *all* axles repos
                 .flatMapMany(repo -> repo.findAll().cast(AbstractAxles.class))
+                // per-row reflection below is CPU work; keep it off the R2DBC event loop
+                .publishOn(schedulers.get(Workload.ANALYTICS))
                 .filter(a -> inRange(a.getCreatedAt(), effectiveStart, effectiveEnd))
                 .flatMap(this::expandByTp)
-                .doOnError(e -> log.error("Error fetching performance data", e))
-                .subscribeOn(Schedulers.boundedElastic());
+                .doOnError(e -> log.error("Error fetching performance data", e));
     }
 
     private boolean inRange(LocalDateTime ts, LocalDateTime start, LocalDateTime end) {
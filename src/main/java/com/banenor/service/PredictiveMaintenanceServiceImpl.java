@@ -2,6 +2,7 @@ package com.banenor.service;
 
 import java.time.LocalDateTime;
 
+import org.springframework.context.annotation.Lazy;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
@@ -32,7 +33,7 @@ public class PredictiveMaintenanceServiceImpl implements PredictiveMaintenanceSe
     public PredictiveMaintenanceServiceImpl(DashboardService dashboardService,
                                             MaintenanceProperties maintenanceProperties,
                                             RiskCalculationStrategy riskCalculationStrategy,
-                                            AIPredictiveMaintenanceService aiPredictiveMaintenanceService,
+                                            @Lazy AIPredictiveMaintenanceService aiPredictiveMaintenanceService,
                                             KafkaTemplate<String, MaintenanceRiskEvent> kafkaTemplate,
                                             CircuitBreakerRegistry circuitBreakerRegistry) {
         this.dashboardService = dashboardService;
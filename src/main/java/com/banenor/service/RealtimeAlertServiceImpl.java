@@ -4,13 +4,15 @@ import com.banenor.alert.NotificationService;
 import com.banenor.config.MaintenanceProperties;
 import com.banenor.repository.HaugfjellMP1AxlesRepository;
 import com.banenor.repository.HaugfjellMP3AxlesRepository;
+import com.banenor.scheduler.Workload;
+import com.banenor.scheduler.WorkloadSchedulers;
 import com.banenor.util.RepositoryResolver;
+import com.banenor.websocket.StreamTopic;
 import com.banenor.websocket.WebSocketBroadcaster;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 import java.time.LocalDateTime;
 import java.util.Map;
@@ -26,6 +28,8 @@ public class RealtimeAlertServiceImpl implements RealtimeAlertService {
     private final NotificationService notificationService;
     private final MaintenanceProperties maintenanceProperties;
     private final WebSocketBroadcaster broadcaster;
+    private final WorkloadSchedulers schedulers;
+    private final TrainStationResolver stationResolver;
 
     private static final Function<Object, Double> toDouble = obj ->
             (obj instanceof Number) ? ((Number) obj).doubleValue() : 0.0;
@@ -43,8 +47,7 @@ public class RealtimeAlertServiceImpl implements RealtimeAlertService {
 
         if (isCustom) {
             log.debug("Processing manual alert for train {} with subject='{}'", trainNo, subject);
-            return sendCustomAlert(trainNo, alertEmail, subject, message)
-                    .subscribeOn(Schedulers.boundedElastic());
+            return sendCustomAlert(trainNo, alertEmail, subject, message);
         }
 
         log.debug("Processing threshold alerts for train {}", trainNo);
@@ -58,8 +61,7 @@ public class RealtimeAlertServiceImpl implements RealtimeAlertService {
                     return Mono.error(new IllegalArgumentException(
                             "Unsupported repository for trainNo " + trainNo
                     ));
-                })
-                .subscribeOn(Schedulers.boundedElastic());
+                });
     }
 
     // --------------------------
@@ -76,9 +78,8 @@ public class RealtimeAlertServiceImpl implements RealtimeAlertService {
                 "timestamp", LocalDateTime.now()
         );
 
-        return notificationService
-                .sendAlert(alertEmail, subject, message)
-                .then(Mono.fromRunnable(() -> broadcaster.publish(payload, "ALERT")))
+        return sendMail(alertEmail, subject, message)
+                .then(broadcastAlert(payload, trainNo))
                 .doOnSuccess(v -> log.info("Manual alert sent for train {}", trainNo))
                 .onErrorResume(ex -> {
                     log.error("Failed manual alert for train {}: {}", trainNo, ex.getMessage(), ex);
@@ -86,6 +87,25 @@ public class RealtimeAlertServiceImpl implements RealtimeAlertService {
                 }).then();
     }
 
+    // --------------------------
+    // MAIL
+    // --------------------------
+    // Only the mail send runs on the small notifications pool; the R2DBC
+    // threshold queries stay on the event loop and never queue behind it.
+    private Mono<Void> sendMail(String alertEmail, String subject, String message) {
+        return notificationService
+                .sendAlert(alertEmail, subject, message)
+                .subscribeOn(schedulers.get(Workload.NOTIFICATIONS));
+    }
+
+    // Alerts carry the train's station so that station-filtered sessions see them.
+    private Mono<Void> broadcastAlert(Map<String, Object> payload, Integer trainNo) {
+        return stationResolver.resolve(trainNo)
+                .onErrorReturn(TrainStationResolver.UNKNOWN)
+                .doOnNext(station -> broadcaster.publish(payload, StreamTopic.of("ALERT", trainNo, station)))
+                .then();
+    }
+
     // --------------------------
     // THRESHOLD ALERT MP1
     // --------------------------
@@ -302,9 +322,8 @@ public class RealtimeAlertServiceImpl implements RealtimeAlertService {
                 "timestamp", LocalDateTime.now()
         );
 
-        return notificationService
-                .sendAlert(alertEmail, subj, msg)
-                .then(Mono.fromRunnable(() -> broadcaster.publish(payload, "ALERT")))
+        return sendMail(alertEmail, subj, msg)
+                .then(broadcastAlert(payload, trainNo))
                 .doOnSuccess(v -> log.info(
                         "Threshold alert sent for train {} metric {} value {}",
                         trainNo, metricName, latestValue
@@ -5,6 +5,8 @@ import com.banenor.dto.SegmentAnalysisDTO;
 import com.banenor.model.AbstractAxles;
 import com.banenor.repository.HaugfjellMP1AxlesRepository;
 import com.banenor.repository.HaugfjellMP3AxlesRepository;
+import com.banenor.scheduler.Workload;
+import com.banenor.scheduler.WorkloadSchedulers;
 import com.banenor.util.RepositoryResolver;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
@@ -14,7 +16,6 @@ import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
-import reactor.core.scheduler.Schedulers;
 
 import java.beans.PropertyDescriptor;
 import java.time.LocalDateTime;
@@ -29,6 +30,7 @@ public class SegmentAnalysisServiceImpl implements SegmentAnalysisService {
 
     private final RepositoryResolver repositoryResolver;
     private final InsightsProperties insightsProperties;
+    private final WorkloadSchedulers schedulers;
 
     private static final double HOT_SPOT_PERCENTAGE_THRESHOLD = 0.5;
 
@@ -65,9 +67,9 @@ public class SegmentAnalysisServiceImpl implements SegmentAnalysisService {
         return data
                 .groupBy(axle -> axle.getSegmentId() != null ? axle.getSegmentId() : 0)
                 .flatMap(group -> group.collectList()
+                        .publishOn(schedulers.get(Workload.ANALYTICS))
                         .map(records -> analyzeSegment(records, group.key())))
-                .doOnError(e -> log.error("Error during segment analysis: {}", e.getMessage(), e))
-                .subscribeOn(Schedulers.boundedElastic());
+                .doOnError(e -> log.error("Error during segment analysis: {}", e.getMessage(), e));
     }
 
     private SegmentAnalysisDTO analyzeSegment(List<? extends AbstractAxles> records, Integer segmentId) {
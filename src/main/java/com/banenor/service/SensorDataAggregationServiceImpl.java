@@ -14,7 +14,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 @Slf4j
 @Service
@@ -40,8 +39,7 @@ public class SensorDataAggregationServiceImpl implements SensorDataAggregationSe
                         r.getVit(), r.getAverageSpeed(), r.getMinSpeed(), r.getMaxSpeed()));
 
         return Flux.concat(mp1Flux, mp3Flux)
-                .then()
-                .subscribeOn(Schedulers.boundedElastic());
+                .then();
     }
 
     /**
@@ -141,8 +139,7 @@ public class SensorDataAggregationServiceImpl implements SensorDataAggregationSe
 
                     return "";
                 })
-                .then()
-                .subscribeOn(Schedulers.boundedElastic());
+                .then();
     }
 
     @Scheduled(fixedRateString = "30000")
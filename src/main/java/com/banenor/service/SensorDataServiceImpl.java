@@ -8,7 +8,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
@@ -45,8 +44,7 @@ public class SensorDataServiceImpl implements SensorDataService {
 
         return Flux.concat(mp1Flux, mp3Flux)
                 .then()
-                .doOnSuccess(v -> log.info("Completed aggregation {} → {}", from, to))
-                .subscribeOn(Schedulers.boundedElastic());
+                .doOnSuccess(v -> log.info("Completed aggregation {} → {}", from, to));
     }
 
     // ── 3) global, non-bounded aggregation ─────────
@@ -104,8 +102,7 @@ public class SensorDataServiceImpl implements SensorDataService {
                         mp1LatL,  mp3LatL,
                         mp1LatR,  mp3LatR
                 )
-                .then()
-                .subscribeOn(Schedulers.boundedElastic());
+                .then();
     }
 
     // ── 4) raw time-series fetch ──────────────────
@@ -115,8 +112,7 @@ public class SensorDataServiceImpl implements SensorDataService {
         return Flux.concat(
                         mp1Repo.findByCreatedAtBetween(from, to),
                         mp3Repo.findByCreatedAtBetween(from, to)
-                )
-                .subscribeOn(Schedulers.boundedElastic());
+                );
     }
 
     // ── 5a) performance over entire span ─────────
@@ -243,8 +239,7 @@ public class SensorDataServiceImpl implements SensorDataService {
 
                     log.info("PI[{} {}→{}] = {}", analysisId, from, to, dto.getPerformanceIndex());
                     return dto;
-                })
-                .subscribeOn(Schedulers.boundedElastic());
+                });
     }
 
     // ─── clamp helper ─────────────────────────────
@@ -1,5 +1,6 @@
 package com.banenor.service;
 
+import com.banenor.cache.ChunkedResultCache;
 import com.banenor.dto.RawDataResponse;
 import com.banenor.dto.AxlesDataDTO;
 import com.banenor.mapper.AxleMapper;
@@ -11,16 +12,12 @@ import com.banenor.util.RepositoryResolver;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import org.springframework.data.redis.core.ReactiveRedisTemplate;
-import org.springframework.data.redis.core.ReactiveValueOperations;
 import org.springframework.stereotype.Service;
 
 import reactor.core.publisher.Flux;
 
 import java.lang.reflect.Method;
-import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Optional;
 
 @Slf4j
@@ -28,14 +25,12 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class StationAxlesServiceImpl implements StationAxlesService {
 
-    private static final Duration CACHE_TTL = Duration.ofMinutes(5);
-
     private final RepositoryResolver               repositoryResolver;
     private final HaugfjellMP1AxlesRepository     mp1Repo;
     private final HaugfjellMP3AxlesRepository     mp3Repo;
     private final AxleMapper                      axleMapper;
     private final KafkaSsePublisherService         kafkaPublisher;
-    private final ReactiveRedisTemplate<String,Object> redisTemplate;
+    private final ChunkedResultCache              resultCache;
 
     @Override
     public Flux<RawDataResponse> getRawAxlesData(Integer trainNo,
@@ -47,46 +42,25 @@ public class StationAxlesServiceImpl implements StationAxlesService {
                 start, end
         );
 
-        ReactiveValueOperations<String,Object> ops = redisTemplate.opsForValue();
-
-        return ops.get(cacheKey)
-                .cast(List.class)
-                .flatMapMany(cached -> {
-                    @SuppressWarnings("unchecked")
-                    List<RawDataResponse> list = (List<RawDataResponse>) cached;
-                    log.debug("CACHE HIT [{}] → {} records", cacheKey, list.size());
-                    return Flux.fromIterable(list);
+        Flux<RawDataResponse> fromDb = repositoryResolver.resolveRepository(trainNo)
+                .flatMapMany(repo -> {
+                    try {
+                        Method m = repo.getClass()
+                                .getMethod("findByTrainNoAndCreatedAtBetween",
+                                        Integer.class, LocalDateTime.class, LocalDateTime.class);
+                        return ((Flux<AbstractAxles>) m.invoke(repo, trainNo, start, end));
+                    } catch (NoSuchMethodException e) {
+                        return ((Flux<AbstractAxles>) repo.findAll())
+                                .filter(a -> !a.getCreatedAt().isBefore(start) && !a.getCreatedAt().isAfter(end));
+                    } catch (Exception e) {
+                        return Flux.error(new IllegalStateException(
+                                "Failed to invoke date‐range fetch", e));
+                    }
                 })
-                .switchIfEmpty(
-                        repositoryResolver.resolveRepository(trainNo)
-                                .flatMapMany(repo -> {
-                                    try {
-                                        Method m = repo.getClass()
-                                                .getMethod("findByTrainNoAndCreatedAtBetween",
-                                                        Integer.class, LocalDateTime.class, LocalDateTime.class);
-                                        return ((Flux<AbstractAxles>) m.invoke(repo, trainNo, start, end));
-                                    } catch (NoSuchMethodException e) {
-                                        return ((Flux<AbstractAxles>) repo.findAll())
-                                                .filter(a -> !a.getCreatedAt().isBefore(start) && !a.getCreatedAt().isAfter(end));
-                                    } catch (Exception e) {
-                                        return Flux.error(new IllegalStateException(
-                                                "Failed to invoke date‐range fetch", e));
-                                    }
-                                })
-                                .cast(AbstractAxles.class)
-                                .map(axleMapper::toRawDataResponse)
-                                .collectList()
-                                .flatMapMany(list ->
-                                        ops.set(cacheKey, list, CACHE_TTL)
-                                                .doOnSuccess(ok -> {
-                                                    if (Boolean.TRUE.equals(ok)) {
-                                                        log.debug("Cached [{}] → {} records (TTL {}s)",
-                                                                cacheKey, list.size(), CACHE_TTL.getSeconds());
-                                                    }
-                                                })
-                                                .thenMany(Flux.fromIterable(list))
-                                )
-                )
+                .cast(AbstractAxles.class)
+                .map(axleMapper::toRawDataResponse);
+
+        return resultCache.getOrCache(cacheKey, RawDataResponse.class, fromDb)
                 .doOnError(e -> log.error("Error in getRawAxlesData [{}]:", cacheKey, e));
     }
 
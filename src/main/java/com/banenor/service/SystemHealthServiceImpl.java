@@ -1,91 +1,56 @@
 package com.banenor.service;
 
-import io.r2dbc.spi.ConnectionFactory;
+import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
-import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
+
+import static com.banenor.service.DependencyHealthMonitor.DATABASE;
+import static com.banenor.service.DependencyHealthMonitor.KAFKA;
+import static com.banenor.service.DependencyHealthMonitor.REDIS;
 
 @Service
+@RequiredArgsConstructor
 public class SystemHealthServiceImpl implements SystemHealthService {
 
     private static final Logger logger = LoggerFactory.getLogger(SystemHealthServiceImpl.class);
 
-    private final ConnectionFactory connectionFactory;
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ReactiveRedisConnectionFactory redisConnectionFactory;
-
-    public SystemHealthServiceImpl(ConnectionFactory connectionFactory,
-                                   KafkaTemplate<String, String> kafkaTemplate,
-                                   ReactiveRedisConnectionFactory redisConnectionFactory) {
-        this.connectionFactory = connectionFactory;
-        this.kafkaTemplate = kafkaTemplate;
-        this.redisConnectionFactory = redisConnectionFactory;
-    }
+    private final DependencyHealthMonitor monitor;
 
+    /**
+     * Summarises the last background probe of each dependency; nothing is
+     * probed on the caller's behalf. A result older than
+     * health.probes.stale-after is reported as stale, not as operational.
+     */
     @Override
     public Mono<String> getSystemStatus() {
-        // Non-blocking database health check using R2DBC
-        Mono<Boolean> dbHealthyMono = DatabaseClient.create(connectionFactory)
-                .sql("SELECT 1")
-                .fetch()
-                .one()
-                .map(result -> true)
-                .onErrorResume(e -> {
-                    logger.error("Database health check failed", e);
-                    return Mono.just(false);
-                });
-
-        // Wrap Kafka health check (blocking) in a boundedElastic scheduler
-        Mono<Boolean> kafkaHealthyMono = Mono.fromCallable(() -> {
-            try {
-                kafkaTemplate.getProducerFactory().createProducer().close();
-                return true;
-            } catch (Exception e) {
-                logger.error("Kafka health check failed", e);
-                return false;
+        return Mono.fromSupplier(() -> {
+            StringBuilder status = new StringBuilder("Degraded: ");
+            boolean healthy = true;
+            healthy &= append(status, DATABASE, "Database");
+            healthy &= append(status, KAFKA, "Kafka");
+            healthy &= append(status, REDIS, "Redis");
+
+            if (healthy) {
+                logger.debug("System health check: All components operational.");
+                return "Operational";
             }
-        }).subscribeOn(Schedulers.boundedElastic());
-
-        // Non-blocking Redis health check using reactive API
-        Mono<Boolean> redisHealthyMono = redisConnectionFactory.getReactiveConnection()
-                .ping()
-                .map("PONG"::equalsIgnoreCase)
-                .onErrorResume(e -> {
-                    logger.error("Redis health check failed", e);
-                    return Mono.just(false);
-                });
-
-        // Combine health checks reactively
-        return Mono.zip(dbHealthyMono, kafkaHealthyMono, redisHealthyMono)
-                .map(tuple -> {
-                    boolean dbHealthy = tuple.getT1();
-                    boolean kafkaHealthy = tuple.getT2();
-                    boolean redisHealthy = tuple.getT3();
+            String finalStatus = status.toString().trim();
+            logger.warn("System health check: {}", finalStatus);
+            return finalStatus;
+        });
+    }
 
-                    if (dbHealthy && kafkaHealthy && redisHealthy) {
-                        logger.info("System health check: All components operational.");
-                        return "Operational";
-                    } else {
-                        StringBuilder status = new StringBuilder("Degraded: ");
-                        if (!dbHealthy) {
-                            status.append("Database Down; ");
-                        }
-                        if (!kafkaHealthy) {
-                            status.append("Kafka Down; ");
-                        }
-                        if (!redisHealthy) {
-                            status.append("Redis Down; ");
-                        }
-                        String finalStatus = status.toString().trim();
-                        logger.warn("System health check: {}", finalStatus);
-                        return finalStatus;
-                    }
-                })
-                .subscribeOn(Schedulers.boundedElastic());
+    private boolean append(StringBuilder status, String dependency, String label) {
+        if (!monitor.status(dependency).isUp()) {
+            status.append(label).append(" Down; ");
+            return false;
+        }
+        if (monitor.isStale(dependency)) {
+            status.append(label).append(" Stale; ");
+            return false;
+        }
+        return true;
     }
 }
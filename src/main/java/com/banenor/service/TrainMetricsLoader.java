@@ -0,0 +1,148 @@
+package com.banenor.service;
+
+import com.banenor.config.AnalyticsBatchProperties;
+import com.banenor.dto.TrainMetricStats;
+import com.banenor.repository.TrainMetricsBatchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DataLoader-style access to per-train aggregates. Lookups arriving within a
+ * short window are collected, and each batch is answered by one query per
+ * station for all of its trains; the rows are then handed back to each
+ * caller. Lookups of the same train within a batch share one row.
+ */
+@Slf4j
+@Component
+public class TrainMetricsLoader {
+
+    private final TrainMetricsBatchRepository repository;
+    private final AnalyticsBatchProperties properties;
+
+    private final Object lock = new Object();
+    private Map<Integer, List<Sinks.One<TrainMetricStats>>> pending = new LinkedHashMap<>();
+    private int pendingRequests;
+    private Disposable scheduledFlush;
+
+    private final DistributionSummary requestsPerBatch;
+    private final DistributionSummary trainsPerBatch;
+    private final Counter batches;
+    private final Timer queryTimer;
+
+    public TrainMetricsLoader(TrainMetricsBatchRepository repository,
+                              AnalyticsBatchProperties properties,
+                              MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.properties = properties;
+        this.requestsPerBatch = DistributionSummary.builder("analytics.batch.requests")
+                .description("Lookups coalesced into one batch")
+                .register(meterRegistry);
+        this.trainsPerBatch = DistributionSummary.builder("analytics.batch.trains")
+                .description("Distinct trains queried per batch")
+                .register(meterRegistry);
+        this.batches = meterRegistry.counter("analytics.batch.dispatched");
+        this.queryTimer = Timer.builder("analytics.batch.query")
+                .description("Time to load one batch from both stations")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Aggregates of one train; errors with IllegalArgumentException if neither
+     * station has a header for it.
+     */
+    public Mono<TrainMetricStats> load(Integer trainNo) {
+        if (trainNo == null) {
+            return Mono.error(new IllegalArgumentException("trainNo is required"));
+        }
+        return Mono.defer(() -> {
+            Sinks.One<TrainMetricStats> sink = Sinks.one();
+            Map<Integer, List<Sinks.One<TrainMetricStats>>> full = null;
+            int fullRequests = 0;
+            synchronized (lock) {
+                pending.computeIfAbsent(trainNo, k -> new ArrayList<>()).add(sink);
+                pendingRequests++;
+                if (pending.size() >= properties.getMaxBatchSize()) {
+                    full = pending;
+                    fullRequests = pendingRequests;
+                    resetPending();
+                } else if (scheduledFlush == null) {
+                    scheduledFlush = Schedulers.parallel().schedule(this::flushPending,
+                            properties.getWindow().toNanos(), TimeUnit.NANOSECONDS);
+                }
+            }
+            if (full != null) {
+                dispatch(full, fullRequests);
+            }
+            return sink.asMono();
+        });
+    }
+
+    private void flushPending() {
+        Map<Integer, List<Sinks.One<TrainMetricStats>>> batch;
+        int requests;
+        synchronized (lock) {
+            batch = pending;
+            requests = pendingRequests;
+            scheduledFlush = null;
+            pending = new LinkedHashMap<>();
+            pendingRequests = 0;
+        }
+        if (!batch.isEmpty()) {
+            dispatch(batch, requests);
+        }
+    }
+
+    // callers hold the lock
+    private void resetPending() {
+        if (scheduledFlush != null) {
+            scheduledFlush.dispose();
+            scheduledFlush = null;
+        }
+        pending = new LinkedHashMap<>();
+        pendingRequests = 0;
+    }
+
+    private void dispatch(Map<Integer, List<Sinks.One<TrainMetricStats>>> batch, int requests) {
+        batches.increment();
+        requestsPerBatch.record(requests);
+        trainsPerBatch.record(batch.size());
+        log.debug("Loading metrics for {} trains ({} lookups)", batch.size(), requests);
+
+        Timer.Sample sample = Timer.start();
+        Mono.zip(
+                        repository.findStatsByTrainNos("MP1", batch.keySet())
+                                .collectMap(TrainMetricStats::getTrainNo),
+                        repository.findStatsByTrainNos("MP3", batch.keySet())
+                                .collectMap(TrainMetricStats::getTrainNo))
+                .doFinally(sig -> sample.stop(queryTimer))
+                .subscribe(stations -> batch.forEach((trainNo, sinks) -> {
+                    // MP1 wins if both stations know the train, as in RepositoryResolver
+                    TrainMetricStats stats = stations.getT1().getOrDefault(trainNo, stations.getT2().get(trainNo));
+                    for (Sinks.One<TrainMetricStats> sink : sinks) {
+                        if (stats != null) {
+                            sink.tryEmitValue(stats);
+                        } else {
+                            sink.tryEmitError(new IllegalArgumentException(
+                                    "No header found for train number: " + trainNo));
+                        }
+                    }
+                }), err -> {
+                    log.error("Batch metrics query failed for trains {}: {}", batch.keySet(), err.getMessage(), err);
+                    batch.values().forEach(sinks -> sinks.forEach(s -> s.tryEmitError(err)));
+                });
+    }
+}
@@ -0,0 +1,93 @@
+package com.banenor.service;
+
+import com.banenor.repository.HaugfjellMP1HeaderRepository;
+import com.banenor.repository.HaugfjellMP3HeaderRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Resolves the station (MP1/MP3) a train was measured at from the header
+ * tables, for routing live events by station. Lookups are cached, misses
+ * included: a train without a header yet is remembered as unknown for a
+ * short while, so its events do not query the database one by one.
+ */
+@Slf4j
+@Component
+public class TrainStationResolver {
+
+    /** Station of a train without a header at either station. */
+    public static final String UNKNOWN = "UNKNOWN";
+
+    private final HaugfjellMP1HeaderRepository mp1HeaderRepo;
+    private final HaugfjellMP3HeaderRepository mp3HeaderRepo;
+    private final Cache<Integer, String> stations;
+
+    public TrainStationResolver(HaugfjellMP1HeaderRepository mp1HeaderRepo,
+                                HaugfjellMP3HeaderRepository mp3HeaderRepo,
+                                @Value("${station.lookup.cache-size:10000}") long cacheSize,
+                                @Value("${station.lookup.ttl:1h}") Duration ttl,
+                                @Value("${station.lookup.miss-ttl:30s}") Duration missTtl,
+                                MeterRegistry meterRegistry) {
+        this.mp1HeaderRepo = mp1HeaderRepo;
+        this.mp3HeaderRepo = mp3HeaderRepo;
+        long ttlNanos = ttl.toNanos();
+        long missTtlNanos = missTtl.toNanos();
+        this.stations = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new Expiry<Integer, String>() {
+                    @Override
+                    public long expireAfterCreate(Integer key, String value, long currentTime) {
+                        // a train without a header yet may get one later
+                        return UNKNOWN.equals(value) ? missTtlNanos : ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Integer key, String value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Integer key, String value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, stations, "trainStation");
+    }
+
+    /**
+     * The cached station of a train, or null if it has not been looked up.
+     */
+    public String cached(Integer trainNo) {
+        return trainNo == null ? null : stations.getIfPresent(trainNo);
+    }
+
+    /**
+     * The station of a train, {@link #UNKNOWN} if it has no header at either station.
+     */
+    public Mono<String> resolve(Integer trainNo) {
+        if (trainNo == null) {
+            return Mono.just(UNKNOWN);
+        }
+        String cached = stations.getIfPresent(trainNo);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return mp1HeaderRepo.existsById(trainNo)
+                .flatMap(mp1 -> mp1
+                        ? Mono.just("MP1")
+                        : mp3HeaderRepo.existsById(trainNo).map(mp3 -> mp3 ? "MP3" : UNKNOWN))
+                .defaultIfEmpty(UNKNOWN)
+                .doOnNext(station -> stations.put(trainNo, station));
+    }
+}
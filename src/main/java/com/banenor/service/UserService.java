@@ -5,6 +5,7 @@ import com.banenor.dto.UserDTO;
 import com.banenor.dto.UserUpdateRequest;
 import com.banenor.model.User;
 import com.banenor.repository.UserRepository;
+import com.banenor.security.VerifiedTokenCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -21,6 +22,7 @@ import java.util.List;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final VerifiedTokenCache tokenCache;
 
     public Mono<UserDTO> getUserByUsername(String username) {
         return userRepository.findByUsername(username)
@@ -60,6 +62,7 @@ public class UserService {
         return userRepository.findById(id)
                 .switchIfEmpty(Mono.error(new IllegalArgumentException("User not found with ID: " + id)))
                 .flatMap(user -> {
+                    String previousUsername = user.getUsername();
                     if (request.getUsername() != null && !request.getUsername().isBlank()) {
                         user.setUsername(request.getUsername().trim());
                     }
@@ -72,7 +75,8 @@ public class UserService {
                     if (request.getAvatar() != null) {
                         user.setAvatar(request.getAvatar().trim());
                     }
-                    return userRepository.save(user);
+                    return userRepository.save(user)
+                            .flatMap(saved -> tokenCache.revokeUser(previousUsername).thenReturn(saved));
                 })
                 .map(this::mapToUserResponse)
                 .doOnSuccess(u -> log.info("Updated user with ID {}", id))
@@ -83,7 +87,8 @@ public class UserService {
     public Mono<Void> deleteUser(Long id) {
         return userRepository.findById(id)
                 .switchIfEmpty(Mono.error(new IllegalArgumentException("User not found with ID: " + id)))
-                .flatMap(user -> userRepository.delete(user))
+                .flatMap(user -> userRepository.delete(user)
+                        .then(tokenCache.revokeUser(user.getUsername())))
                 .doOnSuccess(v -> log.info("Deleted user with ID {}", id))
                 .doOnError(ex -> log.error("Error deleting user with ID {}: {}", id, ex.getMessage(), ex));
     }
@@ -3,6 +3,8 @@ package com.banenor.service;
 import com.banenor.config.InsightsProperties;
 import com.banenor.dto.WheelConditionDTO;
 import com.banenor.model.AbstractAxles;
+import com.banenor.scheduler.Workload;
+import com.banenor.scheduler.WorkloadSchedulers;
 import com.banenor.util.RepositoryResolver;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -11,7 +13,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.beans.BeanWrapper;
 import org.springframework.beans.BeanWrapperImpl;
 import reactor.core.publisher.Flux;
-import reactor.core.scheduler.Schedulers;
 
 import jakarta.annotation.PostConstruct;
 import java.beans.PropertyDescriptor;
@@ -30,6 +31,7 @@ public class WheelConditionServiceImpl implements WheelConditionService {
 
     private final RepositoryResolver repositoryResolver;
     private final InsightsProperties insightsProperties;
+    private final WorkloadSchedulers schedulers;
 
     private static final Pattern TP_FIELD = Pattern.compile("^(vvibl|vvibr)Tp(\\d+)$");
 
@@ -53,9 +55,9 @@ public class WheelConditionServiceImpl implements WheelConditionService {
                         return Flux.error(new IllegalArgumentException("Unsupported repository type"));
                     }
                 })
+                .publishOn(schedulers.get(Workload.ANALYTICS))
                 .flatMap(axle -> mapToAllTp(axle, trainNo))
-                .doOnError(ex -> log.error("Error in wheel condition analysis: {}", ex.getMessage(), ex))
-                .subscribeOn(Schedulers.boundedElastic());
+                .doOnError(ex -> log.error("Error in wheel condition analysis: {}", ex.getMessage(), ex));
     }
 
     private Flux<WheelConditionDTO> mapToAllTp(AbstractAxles axle, Integer fallbackTrainNo) {
@@ -0,0 +1,72 @@
+package com.banenor.tools;
+
+import com.banenor.model.DigitalTwin;
+import com.banenor.service.DigitalTwinWriteBuffer;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+/**
+ * Compares rows written for digital twin updates under the old policy (one
+ * digital_twins insert per ingested record) and the current one (coalesced
+ * latest-state upserts plus time-sampled history).
+ *
+ * Usage: DigitalTwinWriteBenchmark [recordsPerSecond] [assets] [seconds] [flushMs] [historySampleSec]
+ */
+public class DigitalTwinWriteBenchmark {
+
+    public static void main(String[] args) {
+        int rate          = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int assets        = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int seconds       = args.length > 2 ? Integer.parseInt(args[2]) : 600;
+        long flushMs      = args.length > 3 ? Long.parseLong(args[3]) : 500;
+        long historySec   = args.length > 4 ? Long.parseLong(args[4]) : 60;
+
+        DigitalTwinWriteBuffer buffer = new DigitalTwinWriteBuffer(Duration.ofSeconds(historySec));
+        Random random = new Random(42);
+        LocalDateTime base = LocalDateTime.now();
+
+        long records = 0;
+        long upserts = 0;
+        long snapshots = 0;
+        long totalMs = seconds * 1000L;
+        double perMs = rate / 1000.0;
+        double carry = 0;
+        long nextFlush = flushMs;
+
+        for (long now = 0; now < totalMs; now++) {
+            carry += perMs;
+            while (carry >= 1) {
+                carry -= 1;
+                records++;
+                buffer.offer(DigitalTwin.builder()
+                        .assetId(1 + random.nextInt(assets))
+                        .recordedAt(base.plusNanos(now * 1_000_000))
+                        .metricType("averageSpeed")
+                        .metricValue(80 + random.nextDouble() * 5)
+                        .componentName("aggregate")
+                        .status("UPDATED")
+                        .riskScore(random.nextDouble())
+                        .build());
+            }
+            if (now >= nextFlush) {
+                for (DigitalTwin twin : buffer.drain()) {
+                    upserts++;
+                    if (buffer.sampleHistory(twin.getAssetId(), now)) {
+                        snapshots++;
+                    }
+                }
+                nextFlush += flushMs;
+            }
+        }
+
+        long after = upserts + snapshots;
+        System.out.printf("%d records/s over %d assets for %d s (flush %d ms, history every %d s)%n",
+                rate, assets, seconds, flushMs, historySec);
+        System.out.printf("  before: %,10d rows inserted into digital_twins (history grows by the same)%n", records);
+        System.out.printf("  after:  %,10d state upserts + %,d history rows = %,d writes%n", upserts, snapshots, after);
+        System.out.printf("  write amplification: %.3f writes/record (was 1.000), history growth %.4f rows/record%n",
+                (double) after / records, (double) snapshots / records);
+    }
+}
@@ -0,0 +1,103 @@
+package com.banenor.tools;
+
+import com.banenor.config.PasswordHashingProperties;
+import com.banenor.config.SchedulerProperties;
+import com.banenor.exception.TooManyRequestsException;
+import com.banenor.scheduler.Workload;
+import com.banenor.scheduler.WorkloadSchedulers;
+import com.banenor.security.PasswordHasher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Login burst against BCrypt on the shared boundedElastic scheduler versus
+ * the dedicated auth scheduler used by {@link PasswordHasher}. Alongside each burst a probe
+ * schedules a trivial task on boundedElastic every 10 ms; its delay shows how
+ * much the burst slows down other offloaded work. Run with
+ * -XX:ActiveProcessorCount=2 to see a small production node.
+ *
+ * Usage: LoginThroughputBenchmark [logins] [concurrency] [strength] [threads] [queue]
+ */
+public class LoginThroughputBenchmark {
+
+    public static void main(String[] args) {
+        int logins      = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int strength    = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int threads     = args.length > 3 ? Integer.parseInt(args[3])
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        int queue       = args.length > 4 ? Integer.parseInt(args[4]) : 64;
+
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        String hash = encoder.encode("secret");
+        SchedulerProperties.Pool auth = new SchedulerProperties.Pool();
+        auth.setThreads(threads);
+        auth.setQueueCapacity(queue);
+        SchedulerProperties schedulerProperties = new SchedulerProperties();
+        schedulerProperties.getPools().put(Workload.AUTH.key(), auth);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        WorkloadSchedulers schedulers = new WorkloadSchedulers(schedulerProperties, registry);
+        PasswordHasher hasher = new PasswordHasher(encoder, new PasswordHashingProperties(), schedulers, registry);
+
+        System.out.printf("%d logins, concurrency %d, BCrypt cost %d, %d cores%n",
+                logins, concurrency, strength, Runtime.getRuntime().availableProcessors());
+        run("boundedElastic", logins, concurrency,
+                () -> Mono.fromCallable(() -> encoder.matches("secret", hash)).subscribeOn(Schedulers.boundedElastic()));
+        run("dedicated(" + threads + "/" + queue + ")", logins, concurrency,
+                () -> hasher.matches("secret", hash));
+        schedulers.shutdown();
+    }
+
+    private static void run(String label, int logins, int concurrency, Supplier<Mono<Boolean>> login) {
+        ConcurrentLinkedQueue<Long> probeDelays = new ConcurrentLinkedQueue<>();
+        Disposable probe = Flux.interval(Duration.ofMillis(10))
+                .flatMap(i -> {
+                    long scheduled = System.nanoTime();
+                    return Mono.fromCallable(() -> System.nanoTime() - scheduled)
+                            .subscribeOn(Schedulers.boundedElastic());
+                })
+                .subscribe(probeDelays::add);
+
+        long[] latencies = new long[logins];
+        AtomicInteger done = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        long start = System.nanoTime();
+        Flux.range(0, logins)
+                .flatMap(i -> {
+                    long t0 = System.nanoTime();
+                    return login.get()
+                            .doOnNext(ok -> latencies[done.getAndIncrement()] = System.nanoTime() - t0)
+                            .onErrorResume(TooManyRequestsException.class, e -> {
+                                rejected.incrementAndGet();
+                                return Mono.empty();
+                            });
+                }, concurrency)
+                .blockLast();
+        long elapsed = System.nanoTime() - start;
+        probe.dispose();
+
+        long[] ok = Arrays.copyOf(latencies, done.get());
+        long[] delays = probeDelays.stream().mapToLong(Long::longValue).toArray();
+        System.out.printf("  %-22s %7.1f logins/s  p50 %6.1f ms  p99 %7.1f ms  rejected %4d  probe p99 %6.2f ms%n",
+                label, done.get() / (elapsed / 1e9), pct(ok, 0.50), pct(ok, 0.99), rejected.get(), pct(delays, 0.99));
+    }
+
+    private static double pct(long[] values, double p) {
+        if (values.length == 0) {
+            return 0;
+        }
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)] / 1e6;
+    }
+}
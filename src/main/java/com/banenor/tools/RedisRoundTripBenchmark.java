@@ -0,0 +1,96 @@
+package com.banenor.tools;
+
+import io.lettuce.core.KeyValue;
+import io.lettuce.core.LettuceFutures;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import io.lettuce.core.api.sync.RedisCommands;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares round trips for reading many keys from a local Redis: one GET at a
+ * time, all GETs pipelined on one connection, and MGET in batches.
+ *
+ * Usage: RedisRoundTripBenchmark [host] [port] [keys] [batchSize]
+ */
+public class RedisRoundTripBenchmark {
+
+    private static final String PREFIX = "bench:rtt:";
+
+    public static void main(String[] args) {
+        String host   = args.length > 0 ? args[0] : "localhost";
+        int port      = args.length > 1 ? Integer.parseInt(args[1]) : 6379;
+        int keys      = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+        int batchSize = args.length > 3 ? Integer.parseInt(args[3]) : 100;
+
+        RedisClient client = RedisClient.create(RedisURI.create(host, port));
+        try (StatefulRedisConnection<String, String> connection = client.connect()) {
+            RedisCommands<String, String> sync = connection.sync();
+            RedisAsyncCommands<String, String> async = connection.async();
+
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < keys; i++) {
+                values.put(PREFIX + i, "value-" + i);
+            }
+            sync.mset(values);
+            List<String> names = new ArrayList<>(values.keySet());
+
+            // warm-up
+            sequential(sync, names.subList(0, Math.min(1_000, keys)));
+
+            long seq = time(() -> sequential(sync, names));
+            long pipelined = time(() -> pipelined(async, names));
+            long mget = time(() -> batched(sync, names, batchSize));
+
+            System.out.printf("%d keys against %s:%d%n", keys, host, port);
+            report("GET one by one", seq, keys);
+            report("GET pipelined", pipelined, keys);
+            report("MGET x" + batchSize, mget, keys);
+
+            sync.del(names.toArray(String[]::new));
+        } finally {
+            client.shutdown();
+        }
+    }
+
+    private static void sequential(RedisCommands<String, String> sync, List<String> names) {
+        for (String name : names) {
+            sync.get(name);
+        }
+    }
+
+    private static void pipelined(RedisAsyncCommands<String, String> async, List<String> names) {
+        List<RedisFuture<String>> futures = new ArrayList<>(names.size());
+        for (String name : names) {
+            futures.add(async.get(name));
+        }
+        LettuceFutures.awaitAll(Duration.ofMinutes(1), futures.toArray(RedisFuture[]::new));
+    }
+
+    private static void batched(RedisCommands<String, String> sync, List<String> names, int batchSize) {
+        for (int i = 0; i < names.size(); i += batchSize) {
+            List<KeyValue<String, String>> ignored =
+                    sync.mget(names.subList(i, Math.min(names.size(), i + batchSize)).toArray(String[]::new));
+        }
+    }
+
+    private static long time(Runnable run) {
+        long start = System.nanoTime();
+        run.run();
+        return System.nanoTime() - start;
+    }
+
+    private static void report(String label, long nanos, int keys) {
+        double ms = nanos / 1_000_000.0;
+        System.out.printf("  %-16s %9.1f ms  %10.0f keys/s  %7.2f µs/key%n",
+                label, ms, keys / (ms / 1000.0), nanos / 1000.0 / keys);
+    }
+}
@@ -0,0 +1,118 @@
+package com.banenor.tools;
+
+import com.banenor.config.StartupTimeline;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold-starts the packaged service several times per launch mode and reports
+ * time-to-ready and time-to-first-consumed-record, both measured by the
+ * service itself from JVM start (see {@link StartupTimeline}). Postgres,
+ * Kafka and Redis must be reachable; first-record times need records flowing
+ * on the sensor topic and show n/a otherwise.
+ *
+ * Modes: "default" runs the plain jar; "optimized" runs the AOT build
+ * (mvn -Pstartup) with the startup profile and, if given, a CDS archive.
+ *
+ * Usage: StartupBenchmark &lt;jar&gt; [runs] [cds-archive] [timeout-seconds]
+ */
+public class StartupBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: StartupBenchmark <jar> [runs] [cds-archive] [timeout-seconds]");
+            System.exit(1);
+        }
+        String jar     = args[0];
+        int runs       = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        String archive = args.length > 2 ? args[2] : null;
+        int timeout    = args.length > 3 ? Integer.parseInt(args[3]) : 120;
+
+        List<String> optimized = new ArrayList<>(List.of("java"));
+        if (archive != null) {
+            optimized.add("-XX:SharedArchiveFile=" + archive);
+        }
+        optimized.addAll(List.of("-Dspring.aot.enabled=true",
+                "-Dspring.profiles.active=development,startup", "-jar", jar));
+
+        System.out.printf("%d cold start(s) per mode, %d cores%n", runs, Runtime.getRuntime().availableProcessors());
+        run("default", List.of("java", "-Dspring.profiles.active=development", "-jar", jar), runs, timeout);
+        run("optimized", optimized, runs, timeout);
+    }
+
+    private static void run(String label, List<String> command, int runs, int timeout) throws Exception {
+        long[] ready = new long[runs];
+        long[] firstRecord = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            long[] times = coldStart(command, timeout);
+            ready[i] = times[0];
+            firstRecord[i] = times[1];
+        }
+        System.out.printf("  %-10s ready p50 %s  min %s   first record p50 %s  min %s%n", label,
+                ms(median(ready)), ms(min(ready)), ms(median(firstRecord)), ms(min(firstRecord)));
+    }
+
+    /**
+     * One start: returns {ready ms, first record ms}, -1 where the marker was not seen in time.
+     */
+    private static long[] coldStart(List<String> command, int timeout) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        long[] times = {-1, -1};
+        Thread reader = new Thread(() -> {
+            try (BufferedReader in = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if (times[0] < 0) {
+                        times[0] = parse(line, StartupTimeline.READY_MARKER);
+                    }
+                    if (times[1] < 0) {
+                        times[1] = parse(line, StartupTimeline.FIRST_RECORD_MARKER);
+                    }
+                    if (times[0] >= 0 && times[1] >= 0) {
+                        return;
+                    }
+                }
+            } catch (IOException ignored) {
+                // process was stopped
+            }
+        });
+        reader.start();
+        reader.join(TimeUnit.SECONDS.toMillis(timeout));
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+        reader.join();
+        return times;
+    }
+
+    private static long parse(String line, String marker) {
+        int at = line.indexOf(marker);
+        if (at < 0) {
+            return -1;
+        }
+        String rest = line.substring(at + marker.length()).trim();
+        return Long.parseLong(rest.substring(0, rest.indexOf(' ')));
+    }
+
+    private static long median(long[] values) {
+        long[] seen = Arrays.stream(values).filter(v -> v >= 0).sorted().toArray();
+        return seen.length == 0 ? -1 : seen[seen.length / 2];
+    }
+
+    private static long min(long[] values) {
+        return Arrays.stream(values).filter(v -> v >= 0).min().orElse(-1);
+    }
+
+    private static String ms(long value) {
+        return value < 0 ? "    n/a" : String.format("%5d ms", value);
+    }
+}
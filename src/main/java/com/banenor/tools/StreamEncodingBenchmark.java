@@ -0,0 +1,92 @@
+package com.banenor.tools;
+
+import com.banenor.dto.RawDataResponse;
+import com.banenor.websocket.DeltaTracker;
+import com.banenor.websocket.SharedFrame;
+import com.banenor.websocket.SharedFrame.Variant;
+import com.banenor.websocket.StreamFrameEncoder;
+import com.banenor.websocket.StreamTopic;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Measures bytes per SENSOR_DATA message on /ws/stream for each wire variant:
+ * JSON (default), CBOR full frames and CBOR per-train deltas.
+ *
+ * Usage: StreamEncodingBenchmark [messages] [trains]
+ */
+public class StreamEncodingBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int messages = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int trains   = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+        StreamFrameEncoder encoder = new StreamFrameEncoder(mapper, new SimpleMeterRegistry());
+        DeltaTracker tracker = new DeltaTracker();
+        Random random = new Random(42);
+
+        Map<Variant, Long> bytes = new EnumMap<>(Variant.class);
+        Map<Variant, Long> counts = new EnumMap<>(Variant.class);
+        long start = System.nanoTime();
+
+        for (int i = 0; i < messages; i++) {
+            int trainNo = 1 + random.nextInt(trains);
+            RawDataResponse sample = sample(trainNo, random);
+            StreamTopic topic = StreamTopic.of("SENSOR_DATA", trainNo);
+            SharedFrame frame = encoder.frame(topic, sample, tracker.state(topic.getType(), trainNo).advance(encoder.toTree(sample)));
+            try {
+                add(bytes, counts, Variant.JSON, frame.size(Variant.JSON));
+                add(bytes, counts, Variant.CBOR_FULL, frame.size(Variant.CBOR_FULL));
+                if (frame.getSequence().hasBase()) {
+                    add(bytes, counts, Variant.CBOR_DELTA, frame.size(Variant.CBOR_DELTA));
+                }
+            } finally {
+                frame.release();
+            }
+        }
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        System.out.printf("%d SENSOR_DATA messages over %d trains (%d ms)%n", messages, trains, elapsedMs);
+        double json = (double) bytes.get(Variant.JSON) / counts.get(Variant.JSON);
+        for (Variant v : Variant.values()) {
+            if (!counts.containsKey(v)) {
+                continue;
+            }
+            double avg = (double) bytes.get(v) / counts.get(v);
+            System.out.printf("  %-10s avg %8.1f bytes/msg  (%5.1f%% of JSON)%n", v, avg, 100.0 * avg / json);
+        }
+    }
+
+    private static void add(Map<Variant, Long> bytes, Map<Variant, Long> counts, Variant v, int size) {
+        bytes.merge(v, (long) size, Long::sum);
+        counts.merge(v, 1L, Long::sum);
+    }
+
+    /**
+     * A realistic reading: only a couple of TPs carry values, the rest stay null.
+     */
+    private static RawDataResponse sample(int trainNo, Random random) {
+        return RawDataResponse.builder()
+                .trainNo(trainNo)
+                .analysisId(trainNo)
+                .measurementTime(LocalDateTime.now())
+                .axleId(random.nextInt(40))
+                .vit("LOCO")
+                .spdTp1(80 + random.nextDouble() * 5)
+                .spdTp2(80 + random.nextDouble() * 5)
+                .aoaTp1(random.nextDouble())
+                .vfrclTp1(450 + random.nextDouble() * 20)
+                .vfrcrTp1(450 + random.nextDouble() * 20)
+                .lfrclTp1(100 + random.nextDouble() * 10)
+                .lfrcrTp1(100 + random.nextDouble() * 10)
+                .vviblTp1(random.nextDouble() * 3)
+                .vvibrTp1(random.nextDouble() * 3)
+                .build();
+    }
+}
@@ -0,0 +1,97 @@
+package com.banenor.tools;
+
+import com.banenor.config.SchedulerProperties;
+import com.banenor.scheduler.Workload;
+import com.banenor.scheduler.WorkloadSchedulers;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrent blocking calls on the blocking-io scheduler, once on its
+ * platform-thread pool and once on virtual threads with the same admission
+ * bound. Each task sleeps to stand in for a socket or file wait. With
+ * "pinned" the sleep happens inside a synchronized block, which on JDK 21
+ * pins the carrier and shows what an unfixed pinning site costs.
+ *
+ * Usage: VirtualThreadBenchmark [tasks] [blockMs] [threads] [pinned]
+ */
+public class VirtualThreadBenchmark {
+
+    public static void main(String[] args) {
+        int tasks      = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int blockMs    = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        int threads    = args.length > 2 ? Integer.parseInt(args[2])
+                : 4 * Runtime.getRuntime().availableProcessors();
+        boolean pinned = args.length > 3 && Boolean.parseBoolean(args[3]);
+
+        System.out.printf("%d tasks blocking %d ms, %d platform threads, %d cores%s%n",
+                tasks, blockMs, threads, Runtime.getRuntime().availableProcessors(), pinned ? ", pinned" : "");
+        run("platform", false, tasks, blockMs, threads, pinned);
+        run("virtual", true, tasks, blockMs, threads, pinned);
+    }
+
+    private static void run(String label, boolean virtual, int tasks, int blockMs, int threads, boolean pinned) {
+        SchedulerProperties.Pool pool = new SchedulerProperties.Pool();
+        pool.setThreads(threads);
+        // room for every task, so both modes admit the whole burst and only the waiting differs
+        pool.setQueueCapacity(tasks);
+        pool.setVirtual(virtual);
+        SchedulerProperties properties = new SchedulerProperties();
+        properties.getPools().put(Workload.BLOCKING_IO.key(), pool);
+        WorkloadSchedulers schedulers = new WorkloadSchedulers(properties, new SimpleMeterRegistry());
+
+        ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        mx.resetPeakThreadCount();
+        long[] latencies = new long[tasks];
+        AtomicInteger done = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        long start = System.nanoTime();
+        Flux.range(0, tasks)
+                .flatMap(i -> {
+                    long t0 = System.nanoTime();
+                    return Mono.fromCallable(() -> block(blockMs, pinned))
+                            .subscribeOn(schedulers.get(Workload.BLOCKING_IO))
+                            .doOnNext(x -> latencies[done.getAndIncrement()] = System.nanoTime() - t0)
+                            .onErrorResume(RejectedExecutionException.class, e -> {
+                                rejected.incrementAndGet();
+                                return Mono.empty();
+                            });
+                }, tasks)
+                .blockLast();
+        long elapsed = System.nanoTime() - start;
+        schedulers.shutdown();
+
+        long[] ok = Arrays.copyOf(latencies, done.get());
+        System.out.printf("  %-9s %9.0f calls/s  p50 %7.1f ms  p99 %7.1f ms  rejected %5d  peak platform threads %4d%n",
+                label, done.get() / (elapsed / 1e9), pct(ok, 0.50), pct(ok, 0.99), rejected.get(),
+                mx.getPeakThreadCount());
+    }
+
+    private static int block(int blockMs, boolean pinned) throws InterruptedException {
+        if (pinned) {
+            Object lock = new Object();
+            synchronized (lock) {
+                Thread.sleep(blockMs);
+            }
+        } else {
+            Thread.sleep(blockMs);
+        }
+        return blockMs;
+    }
+
+    private static double pct(long[] values, double p) {
+        if (values.length == 0) {
+            return 0;
+        }
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)] / 1e6;
+    }
+}
@@ -0,0 +1,61 @@
+package com.banenor.websocket;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers the last frame tree published per message type and train so the
+ * next one can be sent as a delta; each type has its own sequence, so frames
+ * of different types for one train never serve as each other's base.
+ * Callers must hold the {@link TrainState} monitor while advancing and
+ * dispatching, so sequence order matches queue order.
+ */
+public class DeltaTracker {
+
+    public static final class TrainState {
+        private final Integer trainNo;
+        private long seq;
+        private Map<String, Object> last;
+
+        private TrainState(Integer trainNo) {
+            this.trainNo = trainNo;
+        }
+
+        public FrameSequence advance(Map<String, Object> current) {
+            long base = last == null ? 0 : seq;
+            Map<String, Object> changes = new LinkedHashMap<>();
+            List<String> removed = new ArrayList<>();
+            if (last != null) {
+                current.forEach((k, v) -> {
+                    if (!Objects.equals(last.get(k), v)) {
+                        changes.put(k, v);
+                    }
+                });
+                last.keySet().stream().filter(k -> !current.containsKey(k)).forEach(removed::add);
+            }
+            seq++;
+            last = current;
+            return new FrameSequence(trainNo, seq, base, current, changes, removed);
+        }
+    }
+
+    // type → train → state
+    private final Map<String, Map<Integer, TrainState>> states = new ConcurrentHashMap<>();
+
+    public TrainState state(String type, Integer trainNo) {
+        return states.computeIfAbsent(type, t -> new ConcurrentHashMap<>())
+                .computeIfAbsent(trainNo, TrainState::new);
+    }
+
+    boolean isEmpty() {
+        return states.isEmpty();
+    }
+
+    void clear() {
+        states.clear();
+    }
+}
@@ -0,0 +1,24 @@
+package com.banenor.websocket;
+
+import lombok.Value;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Position of one frame in its train's update sequence, with the full
+ * null-free tree and the changes relative to the previous frame.
+ */
+@Value
+public class FrameSequence {
+    Integer trainNo;
+    long seq;
+    long baseSeq;
+    Map<String, Object> full;
+    Map<String, Object> changes;
+    List<String> removed;
+
+    public boolean hasBase() {
+        return baseSeq > 0;
+    }
+}
@@ -0,0 +1,217 @@
+package com.banenor.websocket;
+
+import com.banenor.config.WebSocketSessionProperties.OverflowPolicy;
+import io.micrometer.core.instrument.Counter;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded, demand-driven queue of {@link SharedFrame}s for one session.
+ * Each queued frame holds its own reference; frames that are evicted,
+ * conflated away or left behind on close are released here.
+ */
+@Slf4j
+class SessionOutbox {
+
+    enum OfferResult {
+        QUEUED,
+        CONFLATED,
+        EVICTED_OLDEST,
+        DISCONNECTED,
+        CLOSED
+    }
+
+    /**
+     * Signalled on the outbound stream when a DISCONNECT-policy queue overflows.
+     */
+    static class SlowConsumerException extends RuntimeException {
+        SlowConsumerException(String sessionId, int capacity) {
+            super("Session " + sessionId + " exceeded its outbound queue of " + capacity + " frames");
+        }
+    }
+
+    private static final class Slot {
+        final String key;
+        SharedFrame frame;
+
+        Slot(String key, SharedFrame frame) {
+            this.key = key;
+            this.frame = frame;
+        }
+    }
+
+    private final String sessionId;
+    private final int capacity;
+    private final OverflowPolicy policy;
+    private final Set<String> conflateTypes;
+    private final Counter droppedCounter;
+    private final Counter conflatedCounter;
+
+    private final ArrayDeque<Slot> queue = new ArrayDeque<>();
+    // conflation key → pending slot, only populated under the CONFLATE policy
+    private final Map<String, Slot> pendingByKey = new HashMap<>();
+    private final AtomicInteger wip = new AtomicInteger();
+    private volatile FluxSink<SharedFrame> sink;
+    private boolean closed;
+
+    SessionOutbox(String sessionId,
+                  int capacity,
+                  OverflowPolicy policy,
+                  Set<String> conflateTypes,
+                  Counter droppedCounter,
+                  Counter conflatedCounter) {
+        this.sessionId = sessionId;
+        this.capacity = capacity;
+        this.policy = policy;
+        this.conflateTypes = conflateTypes;
+        this.droppedCounter = droppedCounter;
+        this.conflatedCounter = conflatedCounter;
+    }
+
+    /**
+     * Frames in queue order, emitted only as fast as the transport requests them.
+     */
+    Flux<SharedFrame> flux() {
+        return Flux.<SharedFrame>create(s -> {
+                    this.sink = s;
+                    s.onRequest(n -> drain());
+                    s.onDispose(this::close);
+                    drain();
+                })
+                .doOnDiscard(SharedFrame.class, SharedFrame::release);
+    }
+
+    /**
+     * Queues a frame (taking a reference to it) according to the overflow policy.
+     */
+    OfferResult offer(SharedFrame frame) {
+        OfferResult result;
+        synchronized (this) {
+            result = enqueue(frame);
+        }
+        if (result == OfferResult.DISCONNECTED) {
+            log.warn("Disconnecting slow WebSocket session {} (queue of {} frames full)", sessionId, capacity);
+            FluxSink<SharedFrame> s = sink;
+            if (s != null) {
+                s.error(new SlowConsumerException(sessionId, capacity));
+            }
+        } else if (result != OfferResult.CLOSED) {
+            drain();
+        }
+        return result;
+    }
+
+    synchronized int depth() {
+        return queue.size();
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Releases everything still pending; later offers are rejected.
+     */
+    synchronized void close() {
+        closed = true;
+        releaseAll();
+    }
+
+    private OfferResult enqueue(SharedFrame frame) {
+        if (closed) {
+            return OfferResult.CLOSED;
+        }
+        String key = conflationKey(frame.getTopic());
+        if (key != null) {
+            Slot pending = pendingByKey.get(key);
+            if (pending != null) {
+                pending.frame.release();
+                pending.frame = frame.retain();
+                conflatedCounter.increment();
+                return OfferResult.CONFLATED;
+            }
+        }
+
+        OfferResult result = OfferResult.QUEUED;
+        if (queue.size() >= capacity) {
+            if (policy == OverflowPolicy.DISCONNECT) {
+                closed = true;
+                releaseAll();
+                droppedCounter.increment();
+                return OfferResult.DISCONNECTED;
+            }
+            Slot evicted = queue.pollFirst();
+            forget(evicted);
+            evicted.frame.release();
+            droppedCounter.increment();
+            result = OfferResult.EVICTED_OLDEST;
+        }
+
+        Slot slot = new Slot(key, frame.retain());
+        queue.addLast(slot);
+        if (key != null) {
+            pendingByKey.put(key, slot);
+        }
+        return result;
+    }
+
+    private synchronized SharedFrame poll() {
+        Slot slot = queue.pollFirst();
+        if (slot == null) {
+            return null;
+        }
+        forget(slot);
+        return slot.frame;
+    }
+
+    /**
+     * Emits queued frames while there is downstream demand. The work-in-progress
+     * counter keeps a single thread draining even when offers and requests race.
+     */
+    private void drain() {
+        FluxSink<SharedFrame> s = sink;
+        if (s == null || wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            while (s.requestedFromDownstream() > 0 && !s.isCancelled()) {
+                SharedFrame next = poll();
+                if (next == null) {
+                    break;
+                }
+                s.next(next);
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private String conflationKey(StreamTopic topic) {
+        if (policy != OverflowPolicy.CONFLATE || topic.getTrainNo() == null) {
+            return null;
+        }
+        String type = SessionSubscription.normalize(topic.getType());
+        return type != null && conflateTypes.contains(type) ? type + ":" + topic.getTrainNo() : null;
+    }
+
+    private void forget(Slot slot) {
+        if (slot.key != null) {
+            pendingByKey.remove(slot.key, slot);
+        }
+    }
+
+    private void releaseAll() {
+        Slot slot;
+        while ((slot = queue.pollFirst()) != null) {
+            slot.frame.release();
+        }
+        pendingByKey.clear();
+    }
+}
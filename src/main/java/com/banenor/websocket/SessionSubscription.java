@@ -0,0 +1,161 @@
+package com.banenor.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import reactor.core.publisher.Flux;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-session subscription state: the filter set for each routing dimension
+ * plus its bounded {@link SessionOutbox}. Filters are mutated only through
+ * {@link SubscriptionRegistry} so the routing index stays consistent.
+ */
+@Slf4j
+public class SessionSubscription {
+
+    public enum Dimension {
+        TRAIN,
+        STATION,
+        TYPE
+    }
+
+    private final String sessionId;
+    private final StreamFormat format;
+    private final Map<Dimension, Set<String>> filters = new EnumMap<>(Dimension.class);
+    private final SessionOutbox outbox;
+    private final Counter sentCounter;
+    private final List<Meter> meters;
+    // last sequence number sent per message type and train; only touched by the serial send path
+    private final Map<String, Map<Integer, Long>> lastSeqByTypeAndTrain = new HashMap<>();
+
+    SessionSubscription(String sessionId,
+                        StreamFormat format,
+                        SessionOutbox outbox,
+                        Counter sentCounter,
+                        List<Meter> meters) {
+        this.sessionId = sessionId;
+        this.format = format;
+        this.outbox = outbox;
+        this.sentCounter = sentCounter;
+        this.meters = meters;
+        for (Dimension d : Dimension.values()) {
+            filters.put(d, ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public StreamFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Outbound frames for this session, paced by the transport's demand.
+     */
+    public Flux<SharedFrame> outbound() {
+        return outbox.flux().doOnNext(frame -> sentCounter.increment());
+    }
+
+    /**
+     * Renders a dequeued frame in this session's format, consuming the queue's
+     * reference. A binary frame goes out as a delta only when this session
+     * already holds the frame it is based on; otherwise the full frame is sent.
+     */
+    public WebSocketMessage render(SharedFrame frame, WebSocketSession session) {
+        SharedFrame.Variant variant = SharedFrame.Variant.JSON;
+        if (format == StreamFormat.CBOR) {
+            variant = SharedFrame.Variant.CBOR_FULL;
+            FrameSequence sequence = frame.getSequence();
+            if (sequence != null) {
+                Long last = lastSeqByTypeAndTrain
+                        .computeIfAbsent(frame.getTopic().getType(), t -> new HashMap<>())
+                        .put(sequence.getTrainNo(), sequence.getSeq());
+                if (sequence.hasBase() && last != null && last == sequence.getBaseSeq()) {
+                    variant = SharedFrame.Variant.CBOR_DELTA;
+                }
+            }
+        }
+        return frame.toMessage(session, variant);
+    }
+
+    /**
+     * Queues a shared frame for this session, applying the configured overflow policy.
+     * The caller keeps its own reference to the frame.
+     *
+     * @return false if the frame could not be queued without evicting or disconnecting
+     */
+    public boolean offer(SharedFrame frame) {
+        SessionOutbox.OfferResult result = outbox.offer(frame);
+        if (result == SessionOutbox.OfferResult.DISCONNECTED || result == SessionOutbox.OfferResult.CLOSED) {
+            log.debug("Frame not queued for session {}: {}", sessionId, result);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * True if the outbound queue is filled beyond the given ratio of its capacity.
+     */
+    public boolean isLagging(double threshold) {
+        return outbox.depth() >= Math.max(1, (int) Math.ceil(outbox.capacity() * threshold));
+    }
+
+    int queueDepth() {
+        return outbox.depth();
+    }
+
+    /**
+     * True if every dimension carried by the topic is either unfiltered or accepted by this session.
+     */
+    public boolean matches(StreamTopic topic) {
+        for (Dimension d : Dimension.values()) {
+            String value = topic.valueOf(d);
+            Set<String> accepted = filters.get(d);
+            if (value != null && !accepted.isEmpty() && !accepted.contains(value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Current filters keyed by dimension; an empty set means "all".
+     */
+    public Map<Dimension, Set<String>> snapshot() {
+        Map<Dimension, Set<String>> copy = new LinkedHashMap<>();
+        filters.forEach((d, values) -> copy.put(d, Set.copyOf(values)));
+        return copy;
+    }
+
+    Set<String> filter(Dimension dimension) {
+        return filters.get(dimension);
+    }
+
+    List<Meter> meters() {
+        return meters;
+    }
+
+    void close() {
+        outbox.close();
+    }
+
+    static String normalize(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim().toUpperCase(Locale.ROOT);
+    }
+}
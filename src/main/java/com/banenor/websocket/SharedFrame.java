@@ -0,0 +1,125 @@
+package com.banenor.websocket;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.util.AbstractReferenceCounted;
+import io.netty.util.ReferenceCountUtil;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * A message shared by every session it is routed to. Each wire variant
+ * (JSON, CBOR full, CBOR delta) is encoded at most once, on first use.
+ * The frame is reference counted: the publisher owns one reference, each
+ * session queue holds one more, and the encoded buffers are released when
+ * the last reference goes. Sending hands the transport its own retained view.
+ */
+public final class SharedFrame extends AbstractReferenceCounted {
+
+    public enum Variant {
+        JSON(StreamFormat.JSON),
+        CBOR_FULL(StreamFormat.CBOR),
+        CBOR_DELTA(StreamFormat.CBOR);
+
+        private final StreamFormat format;
+
+        Variant(StreamFormat format) {
+            this.format = format;
+        }
+
+        public StreamFormat getFormat() {
+            return format;
+        }
+    }
+
+    private final StreamTopic topic;
+    private final Object payload;
+    private final FrameSequence sequence;
+    private final StreamFrameEncoder encoder;
+    private final Map<Variant, ByteBuf> encoded = new EnumMap<>(Variant.class);
+
+    SharedFrame(StreamTopic topic, Object payload, FrameSequence sequence, StreamFrameEncoder encoder) {
+        this.topic = topic;
+        this.payload = payload;
+        this.sequence = sequence;
+        this.encoder = encoder;
+    }
+
+    public StreamTopic getTopic() {
+        return topic;
+    }
+
+    Object getPayload() {
+        return payload;
+    }
+
+    /**
+     * Delta sequence of this frame, or null if it is not part of a per-train sequence.
+     */
+    public FrameSequence getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Encoded size in bytes of the given variant.
+     */
+    public int size(Variant variant) throws IOException {
+        return variant(variant).readableBytes();
+    }
+
+    /**
+     * Encoded bytes of the given variant, encoding it now if this is the first request.
+     */
+    synchronized ByteBuf variant(Variant variant) throws IOException {
+        ByteBuf buf = encoded.get(variant);
+        if (buf == null) {
+            buf = encoder.encode(this, variant);
+            encoded.put(variant, buf);
+        }
+        return buf;
+    }
+
+    /**
+     * Wraps one variant for a session and consumes one reference to this frame.
+     * On Netty the bytes are not copied; other transports get a private copy.
+     */
+    public WebSocketMessage toMessage(WebSocketSession session, Variant variant) {
+        try {
+            ByteBuf buf = variant(variant);
+            WebSocketMessage.Type type = variant.getFormat().getMessageType();
+            DataBufferFactory factory = session.bufferFactory();
+            if (factory instanceof NettyDataBufferFactory netty) {
+                return new WebSocketMessage(type, netty.wrap(buf.retainedDuplicate()));
+            }
+            return new WebSocketMessage(type, factory.wrap(ByteBufUtil.getBytes(buf)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            release();
+        }
+    }
+
+    @Override
+    public SharedFrame retain() {
+        super.retain();
+        return this;
+    }
+
+    @Override
+    public SharedFrame touch(Object hint) {
+        return this;
+    }
+
+    @Override
+    protected synchronized void deallocate() {
+        encoded.values().forEach(ReferenceCountUtil::safeRelease);
+        encoded.clear();
+    }
+}
@@ -0,0 +1,40 @@
+package com.banenor.websocket;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Wire envelope of every /ws/stream message: {"type": ..., "data": ...}.
+ * Sequenced binary frames additionally carry trainNo/seq, and delta frames
+ * carry base/delta/removed in place of data.
+ */
+@Value
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StreamEnvelope {
+    String type;
+    Integer trainNo;
+    Long seq;
+    Long base;
+    Object data;
+    Map<String, Object> delta;
+    List<String> removed;
+
+    public StreamEnvelope(String type, Object data) {
+        this(type, null, null, null, data, null, null);
+    }
+
+    static StreamEnvelope full(String type, FrameSequence sequence) {
+        return new StreamEnvelope(type, sequence.getTrainNo(), sequence.getSeq(), null,
+                sequence.getFull(), null, null);
+    }
+
+    static StreamEnvelope delta(String type, FrameSequence sequence) {
+        return new StreamEnvelope(type, sequence.getTrainNo(), sequence.getSeq(), sequence.getBaseSeq(),
+                null, sequence.getChanges(), sequence.getRemoved().isEmpty() ? null : sequence.getRemoved());
+    }
+}
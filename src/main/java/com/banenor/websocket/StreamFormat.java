@@ -0,0 +1,41 @@
+package com.banenor.websocket;
+
+import org.springframework.web.reactive.socket.WebSocketMessage;
+
+import java.util.Arrays;
+
+/**
+ * Wire formats offered on /ws/stream, negotiated through the
+ * Sec-WebSocket-Protocol header. Clients that request none get JSON.
+ */
+public enum StreamFormat {
+
+    /** Text frames, {"type":...,"data":...} exactly as before. */
+    JSON("json", WebSocketMessage.Type.TEXT),
+
+    /** Binary CBOR frames without null fields; per-train delta frames where possible. */
+    CBOR("cbor", WebSocketMessage.Type.BINARY);
+
+    private final String subProtocol;
+    private final WebSocketMessage.Type messageType;
+
+    StreamFormat(String subProtocol, WebSocketMessage.Type messageType) {
+        this.subProtocol = subProtocol;
+        this.messageType = messageType;
+    }
+
+    public String getSubProtocol() {
+        return subProtocol;
+    }
+
+    public WebSocketMessage.Type getMessageType() {
+        return messageType;
+    }
+
+    public static StreamFormat fromSubProtocol(String subProtocol) {
+        return Arrays.stream(values())
+                .filter(f -> f.subProtocol.equalsIgnoreCase(subProtocol))
+                .findFirst()
+                .orElse(JSON);
+    }
+}
@@ -0,0 +1,114 @@
+package com.banenor.websocket;
+
+import com.banenor.websocket.SharedFrame.Variant;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufOutputStream;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Serializes frames straight into pooled buffers. JSON uses the application's
+ * configured ObjectMapper unchanged; CBOR uses a copy of it that omits nulls.
+ * Encoded sizes are recorded per variant as "websocket.frame.bytes".
+ */
+@Component
+public class StreamFrameEncoder {
+
+    private static final TypeReference<Map<String, Object>> TREE = new TypeReference<>() {};
+
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper cborMapper;
+    private final Map<Variant, DistributionSummary> frameBytes = new EnumMap<>(Variant.class);
+
+    public StreamFrameEncoder(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.jsonMapper = objectMapper;
+        this.cborMapper = objectMapper.copyWith(new CBORFactory())
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        for (Variant variant : Variant.values()) {
+            frameBytes.put(variant, DistributionSummary.builder("websocket.frame.bytes")
+                    .description("Encoded size of one /ws/stream frame")
+                    .baseUnit("bytes")
+                    .tag("format", variant.getFormat().getSubProtocol())
+                    .tag("variant", variant == Variant.CBOR_DELTA ? "delta" : "full")
+                    .publishPercentiles(0.5, 0.95)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * New frame owned by the caller (one reference); nothing is encoded yet.
+     */
+    public SharedFrame frame(StreamTopic topic, Object payload, FrameSequence sequence) {
+        return new SharedFrame(topic, payload, sequence, this);
+    }
+
+    /**
+     * Null-free field tree of a payload, the basis for per-train deltas.
+     */
+    public Map<String, Object> toTree(Object payload) {
+        return cborMapper.convertValue(payload, TREE);
+    }
+
+    /**
+     * The payload as a JSON tree, as it is handed to other nodes.
+     */
+    public JsonNode toJson(Object payload) {
+        return jsonMapper.valueToTree(payload);
+    }
+
+    /**
+     * Reads an inbound message of the given format.
+     */
+    public <T> T read(byte[] bytes, StreamFormat format, Class<T> type) throws IOException {
+        return (format == StreamFormat.CBOR ? cborMapper : jsonMapper).readValue(bytes, type);
+    }
+
+    ByteBuf encode(SharedFrame frame, Variant variant) throws IOException {
+        String type = frame.getTopic().getType();
+        FrameSequence sequence = frame.getSequence();
+        StreamEnvelope envelope;
+        ObjectMapper mapper;
+        switch (variant) {
+            case JSON -> {
+                envelope = new StreamEnvelope(type, frame.getPayload());
+                mapper = jsonMapper;
+            }
+            case CBOR_FULL -> {
+                envelope = sequence != null
+                        ? StreamEnvelope.full(type, sequence)
+                        : new StreamEnvelope(type, frame.getPayload());
+                mapper = cborMapper;
+            }
+            case CBOR_DELTA -> {
+                if (sequence == null || !sequence.hasBase()) {
+                    throw new IllegalStateException("Frame of type " + type + " has no delta base");
+                }
+                envelope = StreamEnvelope.delta(type, sequence);
+                mapper = cborMapper;
+            }
+            default -> throw new IllegalArgumentException("Unknown variant " + variant);
+        }
+
+        ByteBuf buffer = ByteBufAllocator.DEFAULT.buffer();
+        try (OutputStream out = new ByteBufOutputStream(buffer)) {
+            mapper.writeValue(out, envelope);
+        } catch (IOException | RuntimeException e) {
+            buffer.release();
+            throw e;
+        }
+        frameBytes.get(variant).record(buffer.readableBytes());
+        return buffer;
+    }
+}
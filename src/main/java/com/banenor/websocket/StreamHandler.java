@@ -3,46 +3,96 @@ package com.banenor.websocket;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.socket.CloseStatus;
 import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.WebSocketMessage;
 import org.springframework.web.reactive.socket.WebSocketSession;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
 /**
- * Streams all published payloads to connected WebSocket clients.
- * Sends heartbeats implicitly by keeping the Flux alive;
- * ignores any inbound messages.
+ * Streams published payloads to connected WebSocket clients.
+ * A new session receives everything; inbound {@link SubscriptionCommand}
+ * messages narrow (or widen again) what the session is sent. Clients may
+ * negotiate the "cbor" subprotocol for compact binary frames; JSON is the default.
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class StreamHandler implements WebSocketHandler {
 
-    private final WebSocketBroadcaster broadcaster;
+    private static final List<String> SUB_PROTOCOLS = Arrays.stream(StreamFormat.values())
+            .map(StreamFormat::getSubProtocol)
+            .toList();
+
+    private final SubscriptionRegistry subscriptions;
+    private final StreamFrameEncoder encoder;
+
+    @Override
+    public List<String> getSubProtocols() {
+        return SUB_PROTOCOLS;
+    }
 
     @Override
     public Mono<Void> handle(WebSocketSession session) {
-        log.info("WebSocket session connected: id={}", session.getId());
+        StreamFormat format = StreamFormat.fromSubProtocol(session.getHandshakeInfo().getSubProtocol());
+        log.info("WebSocket session connected: id={}, format={}", session.getId(), format);
+        SessionSubscription subscription = subscriptions.register(session.getId(), format);
 
-        // Prepare outbound stream of text messages
-        Flux<org.springframework.web.reactive.socket.WebSocketMessage> outbound = broadcaster.flux()
-                .map(session::textMessage)
+        // Prepare outbound stream of shared frames for this session only
+        Flux<WebSocketMessage> outbound = subscription.outbound()
+                .map(frame -> subscription.render(frame, session))
                 .doOnError(err -> log.error("Error emitting message to session {}: {}", session.getId(), err.getMessage(), err))
                 .doOnCancel(() -> log.debug("Outbound stream cancelled for session {}", session.getId()));
 
-        // Send outbound and concurrently drain inbound (to keep connection alive)
         Mono<Void> send = session.send(outbound)
+                .onErrorResume(SessionOutbox.SlowConsumerException.class, err -> {
+                    subscriptions.recordSlowConsumerDisconnect(subscription);
+                    return session.close(CloseStatus.POLICY_VIOLATION.withReason("slow consumer"));
+                })
                 .doOnError(err -> log.error("Error sending to session {}: {}", session.getId(), err.getMessage(), err))
                 .doFinally(sig -> log.debug("Send stream finalized ({}): session {}", sig, session.getId()));
 
+        // Inbound messages are subscription commands (JSON text, or CBOR binary)
         Mono<Void> receive = session.receive()
-                .doOnNext(msg -> log.debug("Received and ignored message from session {}: {}", session.getId(), msg.getPayloadAsText()))
+                .doOnNext(msg -> onCommand(subscription, msg))
                 .then()
                 .doFinally(sig -> log.debug("Receive stream finalized ({}): session {}", sig, session.getId()));
 
-        // Combine send & receive, log on termination
+        // Combine send & receive, unregister on termination
         return Mono.zip(send, receive)
                 .then()
-                .doFinally(sig -> log.info("WebSocket session closed: id={}, signal={}", session.getId(), sig));
+                .doFinally(sig -> {
+                    subscriptions.unregister(subscription);
+                    log.info("WebSocket session closed: id={}, signal={}", session.getId(), sig);
+                });
+    }
+
+    private void onCommand(SessionSubscription subscription, WebSocketMessage message) {
+        try {
+            StreamFormat format = message.getType() == WebSocketMessage.Type.BINARY ? StreamFormat.CBOR : StreamFormat.JSON;
+            byte[] bytes = new byte[message.getPayload().readableByteCount()];
+            message.getPayload().read(bytes);
+            SubscriptionCommand command = encoder.read(bytes, format, SubscriptionCommand.class);
+            subscriptions.apply(subscription, command);
+            reply(subscription, "SUBSCRIPTION", subscription.snapshot());
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Rejected subscription command from session {}: {}", subscription.getSessionId(), e.getMessage());
+            reply(subscription, "SUBSCRIPTION_ERROR", Map.of("message", String.valueOf(e.getMessage())));
+        }
+    }
+
+    private void reply(SessionSubscription subscription, String type, Object data) {
+        SharedFrame frame = encoder.frame(StreamTopic.of(type), data, null);
+        try {
+            subscription.offer(frame);
+        } finally {
+            frame.release();
+        }
     }
 }
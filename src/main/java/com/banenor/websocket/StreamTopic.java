@@ -0,0 +1,41 @@
+package com.banenor.websocket;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Routing attributes of one outbound WebSocket message.
+ * A null attribute means the message does not carry that dimension,
+ * in which case session filters on that dimension are not applied.
+ */
+@Value
+@Builder
+public class StreamTopic {
+
+    String type;
+    Integer trainNo;
+    String station;
+
+    public static StreamTopic of(String type) {
+        return StreamTopic.builder().type(type).build();
+    }
+
+    public static StreamTopic of(String type, Integer trainNo) {
+        return StreamTopic.builder().type(type).trainNo(trainNo).build();
+    }
+
+    public static StreamTopic of(String type, Integer trainNo, String station) {
+        return StreamTopic.builder().type(type).trainNo(trainNo).station(station).build();
+    }
+
+    /**
+     * Normalized value of this topic for the given dimension, or null if absent.
+     */
+    public String valueOf(SessionSubscription.Dimension dimension) {
+        return switch (dimension) {
+            case TRAIN   -> trainNo == null ? null : trainNo.toString();
+            case STATION -> SessionSubscription.normalize(station);
+            case TYPE    -> SessionSubscription.normalize(type);
+        };
+    }
+}
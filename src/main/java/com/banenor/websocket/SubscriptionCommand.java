@@ -0,0 +1,43 @@
+package com.banenor.websocket;
+
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+/**
+ * Inbound control message sent by a client over /ws/stream, e.g.
+ * <pre>{"action":"SUBSCRIBE","trainNos":[42],"types":["SENSOR_DATA","ALERT"]}</pre>
+ * Every dimension left empty acts as a wildcard. Stations are "MP1" or
+ * "MP3". There is no measurement point dimension: every sensor message
+ * carries all of them, and per-TP readings are on the axle SSE streams.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubscriptionCommand {
+
+    public enum Action {
+        SUBSCRIBE,
+        UNSUBSCRIBE,
+        RESET
+    }
+
+    private Action action;
+    private Set<Integer> trainNos;
+    private Set<String> stations;
+    private Set<String> types;
+
+    /**
+     * Rejects fields this command does not have, rather than ignoring a
+     * filter the client expects to apply.
+     */
+    @JsonAnySetter
+    void rejectUnknown(String name, Object value) {
+        throw new IllegalArgumentException("Unknown subscription field '" + name + "'");
+    }
+}
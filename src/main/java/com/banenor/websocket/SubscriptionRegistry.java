@@ -0,0 +1,316 @@
+package com.banenor.websocket;
+
+import com.banenor.config.WebSocketSessionProperties;
+import com.banenor.websocket.SessionSubscription.Dimension;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Tracks every open /ws/stream session and indexes them by subscribed value
+ * per routing dimension, so a published message is only offered to the
+ * sessions that asked for it instead of to every connected client.
+ */
+@Slf4j
+@Component
+public class SubscriptionRegistry {
+
+    private final MeterRegistry meterRegistry;
+    private final WebSocketSessionProperties properties;
+    private final Set<String> conflateTypes;
+
+    private final Map<String, SessionSubscription> sessions = new ConcurrentHashMap<>();
+    private final Map<StreamFormat, AtomicInteger> sessionsByFormat = new EnumMap<>(StreamFormat.class);
+    // dimension → subscribed value → sessions filtering on that value
+    private final Map<Dimension, Map<String, Set<SessionSubscription>>> index = new EnumMap<>(Dimension.class);
+    // dimension → sessions with no filter on that dimension
+    private final Map<Dimension, Set<SessionSubscription>> wildcards = new EnumMap<>(Dimension.class);
+
+    private final List<Runnable> changeListeners = new CopyOnWriteArrayList<>();
+
+    private final DistributionSummary fanOut;
+    private final Counter slowDisconnects;
+
+    public SubscriptionRegistry(MeterRegistry meterRegistry, WebSocketSessionProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+        this.conflateTypes = properties.getConflateTypes().stream()
+                .map(SessionSubscription::normalize)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toUnmodifiableSet());
+        for (Dimension d : Dimension.values()) {
+            index.put(d, new ConcurrentHashMap<>());
+            wildcards.put(d, ConcurrentHashMap.newKeySet());
+        }
+        for (StreamFormat f : StreamFormat.values()) {
+            AtomicInteger count = new AtomicInteger();
+            sessionsByFormat.put(f, count);
+            meterRegistry.gauge("websocket.sessions.format", List.of(Tag.of("format", f.getSubProtocol())), count);
+        }
+        this.fanOut = DistributionSummary.builder("websocket.messages.fanout")
+                .description("Number of sessions a published message was routed to")
+                .register(meterRegistry);
+        this.slowDisconnects = Counter.builder("websocket.sessions.disconnected")
+                .description("Sessions closed because their outbound queue overflowed")
+                .tag("reason", "slow_consumer")
+                .register(meterRegistry);
+        meterRegistry.gauge("websocket.sessions.active", sessions, Map::size);
+        meterRegistry.gauge("websocket.sessions.lagging", sessions, m -> m.values().stream()
+                .filter(s -> s.isLagging(properties.getLagThreshold()))
+                .count());
+        log.info("WebSocket session queues: size={} overflow={} conflate={}",
+                properties.getBufferSize(), properties.getOverflowPolicy(), conflateTypes);
+    }
+
+    /**
+     * Registers a new session; it receives every message until it subscribes.
+     */
+    public synchronized SessionSubscription register(String sessionId, StreamFormat format) {
+        Counter sent = Counter.builder("websocket.session.messages.sent")
+                .description("Messages delivered to one WebSocket session")
+                .tag("session", sessionId)
+                .register(meterRegistry);
+        Counter dropped = Counter.builder("websocket.session.messages.dropped")
+                .description("Messages evicted because the session queue was full")
+                .tag("session", sessionId)
+                .register(meterRegistry);
+        Counter conflated = Counter.builder("websocket.session.messages.conflated")
+                .description("Pending messages replaced by a newer one for the same train")
+                .tag("session", sessionId)
+                .register(meterRegistry);
+        SessionOutbox outbox = new SessionOutbox(sessionId, properties.getBufferSize(),
+                properties.getOverflowPolicy(), conflateTypes, dropped, conflated);
+        Gauge depth = Gauge.builder("websocket.session.queue.depth", outbox, SessionOutbox::depth)
+                .description("Frames waiting in one WebSocket session's outbound queue")
+                .tag("session", sessionId)
+                .register(meterRegistry);
+        SessionSubscription subscription = new SessionSubscription(
+                sessionId, format, outbox, sent, List.of(sent, dropped, conflated, depth));
+        sessions.put(sessionId, subscription);
+        sessionsByFormat.get(format).incrementAndGet();
+        for (Dimension d : Dimension.values()) {
+            wildcards.get(d).add(subscription);
+        }
+        log.debug("Registered WebSocket session {} ({})", sessionId, format);
+        fireChanged();
+        return subscription;
+    }
+
+    /**
+     * Removes a session from the index and drops its per-session meters.
+     */
+    public synchronized void unregister(SessionSubscription subscription) {
+        String sessionId = subscription.getSessionId();
+        if (sessions.remove(sessionId) != null) {
+            sessionsByFormat.get(subscription.getFormat()).decrementAndGet();
+        }
+        for (Dimension d : Dimension.values()) {
+            wildcards.get(d).remove(subscription);
+            for (String value : subscription.filter(d)) {
+                removeFromIndex(d, value, subscription);
+            }
+        }
+        subscription.close();
+        subscription.meters().forEach(meterRegistry::remove);
+        log.debug("Unregistered WebSocket session {}", sessionId);
+        fireChanged();
+    }
+
+    /**
+     * Applies a subscribe / unsubscribe / reset command to a session.
+     */
+    public synchronized void apply(SessionSubscription subscription, SubscriptionCommand command) {
+        if (command.getAction() == null) {
+            throw new IllegalArgumentException("Subscription action is required");
+        }
+        switch (command.getAction()) {
+            case SUBSCRIBE -> forEachValue(command, (d, v) -> add(subscription, d, v));
+            case UNSUBSCRIBE -> forEachValue(command, (d, v) -> remove(subscription, d, v));
+            case RESET -> {
+                for (Dimension d : Dimension.values()) {
+                    for (String value : Set.copyOf(subscription.filter(d))) {
+                        remove(subscription, d, value);
+                    }
+                }
+            }
+        }
+        log.debug("Session {} subscription now {}", subscription.getSessionId(), subscription.snapshot());
+        fireChanged();
+    }
+
+    /**
+     * Offers the frame to every session interested in its topic. Each queue
+     * takes its own reference; the caller still owns and must release the frame.
+     *
+     * @return the number of sessions the frame was queued for
+     */
+    public int dispatch(SharedFrame frame) {
+        int delivered = 0;
+        for (SessionSubscription subscription : route(frame.getTopic())) {
+            if (subscription.offer(frame)) {
+                delivered++;
+            }
+        }
+        fanOut.record(delivered);
+        return delivered;
+    }
+
+    /**
+     * Resolves the sessions interested in a topic. Candidates are taken from the
+     * most selective dimension the topic carries and then checked against the
+     * remaining dimensions.
+     */
+    Collection<SessionSubscription> route(StreamTopic topic) {
+        Dimension best = null;
+        int bestSize = Integer.MAX_VALUE;
+        for (Dimension d : Dimension.values()) {
+            String value = topic.valueOf(d);
+            if (value == null) {
+                continue;
+            }
+            int size = index.get(d).getOrDefault(value, Set.of()).size() + wildcards.get(d).size();
+            if (size < bestSize) {
+                best = d;
+                bestSize = size;
+            }
+        }
+        if (best == null) {
+            return sessions.values().stream()
+                    .filter(s -> s.matches(topic))
+                    .collect(Collectors.toList());
+        }
+
+        Dimension dimension = best;
+        String value = topic.valueOf(dimension);
+        Set<SessionSubscription> exact = index.get(dimension).getOrDefault(value, Set.of());
+        Set<SessionSubscription> wildcard = wildcards.get(dimension);
+
+        var result = new ArrayList<SessionSubscription>(exact.size() + wildcard.size());
+        for (SessionSubscription s : exact) {
+            if (s.matches(topic)) {
+                result.add(s);
+            }
+        }
+        for (SessionSubscription s : wildcard) {
+            // skip sessions caught mid-update that are already listed under an exact value
+            if (s.filter(dimension).isEmpty() && s.matches(topic)) {
+                result.add(s);
+            }
+        }
+        return result;
+    }
+
+    public int activeSessions() {
+        return sessions.size();
+    }
+
+    public int activeSessions(StreamFormat format) {
+        return sessionsByFormat.get(format).get();
+    }
+
+    /**
+     * True if some session has no filter on the dimension and so wants every value of it.
+     */
+    public boolean hasWildcard(Dimension dimension) {
+        return !wildcards.get(dimension).isEmpty();
+    }
+
+    /**
+     * The values at least one session filters on for the dimension.
+     */
+    public Set<String> subscribedValues(Dimension dimension) {
+        return Set.copyOf(index.get(dimension).keySet());
+    }
+
+    /**
+     * Registers a callback run after sessions or their subscriptions change.
+     */
+    public void addChangeListener(Runnable listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Records a session closed for falling too far behind.
+     */
+    public void recordSlowConsumerDisconnect(SessionSubscription subscription) {
+        slowDisconnects.increment();
+        log.warn("WebSocket session {} disconnected as a slow consumer", subscription.getSessionId());
+    }
+
+    private void fireChanged() {
+        for (Runnable listener : changeListeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                log.warn("Subscription change listener failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private void add(SessionSubscription subscription, Dimension d, String value) {
+        if (subscription.filter(d).add(value)) {
+            index.get(d).computeIfAbsent(value, k -> ConcurrentHashMap.newKeySet()).add(subscription);
+            wildcards.get(d).remove(subscription);
+        }
+    }
+
+    private void remove(SessionSubscription subscription, Dimension d, String value) {
+        Set<String> filter = subscription.filter(d);
+        if (!filter.contains(value)) {
+            return;
+        }
+        if (filter.size() == 1) {
+            wildcards.get(d).add(subscription);
+        }
+        filter.remove(value);
+        removeFromIndex(d, value, subscription);
+    }
+
+    private void removeFromIndex(Dimension d, String value, SessionSubscription subscription) {
+        Map<String, Set<SessionSubscription>> byValue = index.get(d);
+        Set<SessionSubscription> subscribers = byValue.get(value);
+        if (subscribers != null) {
+            subscribers.remove(subscription);
+            if (subscribers.isEmpty()) {
+                byValue.remove(value);
+            }
+        }
+    }
+
+    private void forEachValue(SubscriptionCommand command, BiConsumer<Dimension, String> action) {
+        if (command.getTrainNos() != null) {
+            command.getTrainNos().stream()
+                    .filter(Objects::nonNull)
+                    .forEach(t -> action.accept(Dimension.TRAIN, t.toString()));
+        }
+        accept(command.getStations(), Dimension.STATION, action);
+        accept(command.getTypes(), Dimension.TYPE, action);
+    }
+
+    private void accept(Set<String> values, Dimension d, BiConsumer<Dimension, String> action) {
+        if (values == null) {
+            return;
+        }
+        values.stream()
+                .map(SessionSubscription::normalize)
+                .filter(Objects::nonNull)
+                .forEach(v -> action.accept(d, v));
+    }
+}
@@ -1,54 +1,134 @@
 package com.banenor.websocket;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.banenor.config.WebSocketEncodingProperties;
+import com.banenor.relay.RelayMessage;
+import com.banenor.relay.RelayScope;
+import com.banenor.relay.StreamRelay;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
-import reactor.core.publisher.Flux;
-import reactor.core.publisher.Sinks;
 
+import java.io.IOException;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 /**
- * Broadcasts events to all connected WebSocket clients.
+ * Broadcasts events to the WebSocket clients subscribed to them.
+ * Each event becomes one shared frame that all matching sessions send from;
+ * every wire variant is encoded at most once. While binary sessions are
+ * connected, delta-capable types are sequenced per train. Events are also
+ * handed to the {@link StreamRelay} for sessions connected to other nodes.
  */
 @Slf4j
 @Component
 public class WebSocketBroadcaster {
 
-    // Jackson mapper for serializing payloads
-    private final ObjectMapper mapper = new ObjectMapper();
+    private final StreamFrameEncoder encoder;
+    private final SubscriptionRegistry subscriptions;
+    private final MeterRegistry meterRegistry;
+    private final WebSocketEncodingProperties properties;
+    private final StreamRelay relay;
+    private final Set<String> deltaTypes;
+    private final DeltaTracker deltaTracker = new DeltaTracker();
+    private final AtomicLong published = new AtomicLong();
 
-    // Reactor sink for multicasting messages
-    private final Sinks.Many<String> sink = Sinks.many().multicast().directBestEffort();
+    public WebSocketBroadcaster(StreamFrameEncoder encoder,
+                                SubscriptionRegistry subscriptions,
+                                MeterRegistry meterRegistry,
+                                WebSocketEncodingProperties properties,
+                                StreamRelay relay) {
+        this.encoder = encoder;
+        this.subscriptions = subscriptions;
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+        this.relay = relay;
+        this.deltaTypes = properties.getDeltaTypes().stream()
+                .map(SessionSubscription::normalize)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toUnmodifiableSet());
+    }
 
     /**
-     * Provides a Flux of JSON-encoded messages for WebSocketHandler to subscribe to.
+     * Publishes a payload with a given type to every session subscribed to that type.
+     *
+     * @param payload the data object to send
+     * @param type    a message-type identifier (e.g. "ALERT", "SENSOR_DATA")
      */
-    public Flux<String> flux() {
-        return sink.asFlux()
-                .doOnSubscribe(sub -> log.debug("New WebSocket subscriber"))
-                .doOnNext(msg -> log.trace("Emitting WebSocket message: {}", msg))
-                .doOnError(err -> log.error("Error in WebSocket flux", err));
+    public void publish(Object payload, String type) {
+        publish(payload, StreamTopic.of(type));
     }
 
     /**
-     * Publishes a payload with a given type to all subscribers.
+     * Publishes a payload to the sessions whose subscriptions match the topic.
      *
      * @param payload the data object to send
-     * @param type    a message-type identifier (e.g. "ALERT", "SENSOR_DATA")
+     * @param topic   routing attributes (type, train, station) of the message
      */
-    public void publish(Object payload, String type) {
+    public void publish(Object payload, StreamTopic topic) {
+        publishLocal(payload, topic);
+        if (relay.isEnabled()) {
+            try {
+                relay.publish(RelayMessage.builder()
+                        .scope(RelayScope.WEBSOCKET)
+                        .type(topic.getType())
+                        .trainNo(topic.getTrainNo())
+                        .station(topic.getStation())
+                        .payload(encoder.toJson(payload))
+                        .build());
+            } catch (RuntimeException e) {
+                log.error("Could not relay WebSocket payload (type={}): {}", topic.getType(), e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Publishes to the sessions connected to this node only; used for events relayed from other nodes.
+     */
+    public void publishLocal(Object payload, StreamTopic topic) {
+        try {
+            if (!isSequenced(topic)) {
+                dispatch(encoder.frame(topic, payload, null));
+            } else {
+                Map<String, Object> tree = encoder.toTree(payload);
+                DeltaTracker.TrainState state = deltaTracker.state(topic.getType(), topic.getTrainNo());
+                // sequence assignment and enqueueing must happen in the same order
+                synchronized (state) {
+                    dispatch(encoder.frame(topic, payload, state.advance(tree)));
+                }
+            }
+            meterRegistry.counter("websocket.messages.published", "type", topic.getType()).increment();
+        } catch (IOException | RuntimeException e) {
+            log.error("Serialization error for WebSocket payload (type={}): {}", topic.getType(), e.getMessage(), e);
+        }
+    }
+
+    private boolean isSequenced(StreamTopic topic) {
+        if (subscriptions.activeSessions(StreamFormat.CBOR) == 0) {
+            if (!deltaTracker.isEmpty()) {
+                deltaTracker.clear();
+            }
+            return false;
+        }
+        return topic.getTrainNo() != null && deltaTypes.contains(SessionSubscription.normalize(topic.getType()));
+    }
+
+    private void dispatch(SharedFrame frame) throws IOException {
         try {
-            String json = mapper.writeValueAsString(Map.of(
-                    "type", type,
-                    "data", payload
-            ));
-            // Emit, failing fast on error
-            sink.emitNext(json, Sinks.EmitFailureHandler.FAIL_FAST);
-            log.debug("Published WebSocket message of type {}", type);
-        } catch (JsonProcessingException e) {
-            log.error("Serialization error for WebSocket payload (type={}): {}", type, e.getMessage(), e);
+            // encode the default format up front so a bad payload fails here, once
+            frame.variant(SharedFrame.Variant.JSON);
+            if (properties.getMeasureEvery() > 0 && published.incrementAndGet() % properties.getMeasureEvery() == 0) {
+                frame.variant(SharedFrame.Variant.CBOR_FULL);
+                if (frame.getSequence() != null && frame.getSequence().hasBase()) {
+                    frame.variant(SharedFrame.Variant.CBOR_DELTA);
+                }
+            }
+            int delivered = subscriptions.dispatch(frame);
+            log.debug("Published WebSocket message of type {} to {} session(s)", frame.getTopic().getType(), delivered);
+        } finally {
+            frame.release();
         }
     }
 }
@@ -383,6 +383,19 @@ CREATE TABLE IF NOT EXISTS digital_twins (
 
 CREATE INDEX IF NOT EXISTS idx_dtm_asset_time
   ON digital_twins(asset_id, recorded_at DESC);
+
+-- Latest twin state per asset, upserted; digital_twins above keeps time-sampled history
+CREATE TABLE IF NOT EXISTS digital_twin_state (
+    asset_id         INTEGER   PRIMARY KEY,
+    recorded_at      TIMESTAMP NOT NULL,
+    metric_value     DOUBLE PRECISION NOT NULL,
+    metric_type      VARCHAR(100)  NOT NULL,
+    component_name   VARCHAR(100)  NOT NULL,
+    location         VARCHAR(200),
+    status           VARCHAR(100),
+    risk_score       DOUBLE PRECISION,
+    updated_at       TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
 -- ==========================================================
 -- 8. Verification token
 -- ==========================================================